@@ -0,0 +1,82 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.security.JwtAuthentication;
+import com.example.ecommerce.security.JwtClaims;
+import com.example.ecommerce.service.JwtService;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a REST call with a JWT: the filter verifying the
+ * token, then the controller resolving the user ID from the {@code Authorization} header.
+ *
+ * {@code uncached} repeats what every request used to do, building a parser and fully
+ * verifying the token once in the filter and again in the controller; {@code cached}
+ * is the current path, with the claims cached by signature and carried in the
+ * authentication. Run with {@code -prof gc} to compare allocations as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-that-is-at-least-32-bytes";
+
+    private Key key;
+    private JwtService jwtService;
+    private String token;
+    private String authHeader;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        jwtService = new JwtService(SECRET, TimeUnit.HOURS.toMillis(1), 10_000, new SimpleMeterRegistry());
+        jwtService.init();
+        token = jwtService.generateToken(UUID.randomUUID().toString());
+        authHeader = "Bearer " + token;
+    }
+
+    @Benchmark
+    public UUID uncached() {
+        // Filter
+        String subject = parser().parseClaimsJws(authHeader.substring(7)).getBody().getSubject();
+        User.withUsername(subject).password("").authorities("USER").build();
+        // Controller
+        return UUID.fromString(parser().parseClaimsJws(authHeader.replace("Bearer ", "")).getBody().getSubject());
+    }
+
+    @Benchmark
+    public UUID cached() {
+        // Filter
+        JwtClaims claims = jwtService.verify(authHeader.substring(7));
+        JwtAuthentication authentication = new JwtAuthentication(
+                User.withUsername(claims.subject()).password("").authorities("USER").build(), token, claims);
+        // Controller
+        return authentication.isFor(authHeader) ? authentication.getClaims().userId() : null;
+    }
+
+    private JwtParser parser() {
+        return Jwts.parserBuilder().setSigningKey(key).build();
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.command.order.CreateOrderCommand;
+import com.example.ecommerce.constants.MessageConstants;
+import com.example.ecommerce.domain.Inventory;
+import com.example.ecommerce.domain.Order;
+import com.example.ecommerce.domain.OrderItem;
+import com.example.ecommerce.domain.Product;
+import com.example.ecommerce.dto.request.CreateOrderRequestDTO;
+import com.example.ecommerce.dto.request.CreateProductRequestDTO;
+import com.example.ecommerce.dto.response.OrderResponseDTO;
+import com.example.ecommerce.enums.OrderStatus;
+import com.example.ecommerce.factory.ProductFactory;
+import com.example.ecommerce.mapper.MapperFacade;
+import com.example.ecommerce.proxy.ProductServiceContract;
+import com.example.ecommerce.service.InventoryService;
+import com.example.ecommerce.service.OrderValidationService;
+import com.example.ecommerce.soap.SoapOrderConverter;
+import com.example.ecommerce.state.OrderStateManager;
+import com.example.ecommerce.validation.ItemsValidationHandler;
+import com.example.ecommerce.validation.ProductExistenceValidationHandler;
+import com.example.ecommerce.validation.StockAvailabilityValidationHandler;
+import com.example.ecommerce.validation.ValidationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Covers the CPU-bound steps of checkout: request validation, total calculation,
+ * state checks, and mapping the created order to its REST and SOAP representations.
+ *
+ * Repositories are replaced by in-memory lookups so only the application code is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderHotPathBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int itemCount;
+
+    private OrderValidationService validationService;
+    private OrderStateManager stateManager;
+    private CreateOrderRequestDTO request;
+    private Order order;
+    private OrderResponseDTO orderResponse;
+
+    @Setup
+    public void setUp() {
+        Map<UUID, Product> products = new HashMap<>();
+        Map<UUID, Inventory> inventory = new HashMap<>();
+        List<CreateOrderRequestDTO.Item> requestItems = new ArrayList<>(itemCount);
+        List<OrderItem> orderItems = new ArrayList<>(itemCount);
+
+        order = Order.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .status(OrderStatus.PENDING)
+                .createdAt(Instant.now())
+                .build();
+
+        for (int i = 0; i < itemCount; i++) {
+            UUID productId = UUID.randomUUID();
+            BigDecimal price = new BigDecimal("19.99").add(BigDecimal.valueOf(i));
+            products.put(productId, new Product(productId, "Product " + i, "Description " + i, price));
+            inventory.put(productId, new Inventory(productId, 1_000));
+
+            CreateOrderRequestDTO.Item item = new CreateOrderRequestDTO.Item();
+            item.setProductId(productId);
+            item.setQuantity(1 + i % 3);
+            requestItems.add(item);
+
+            orderItems.add(new OrderItem(UUID.randomUUID(), order, productId, item.getQuantity(), price));
+        }
+
+        request = new CreateOrderRequestDTO();
+        request.setItems(requestItems);
+        order.setItems(orderItems);
+        order.setTotal(CreateOrderCommand.calculateTotal(orderItems));
+        orderResponse = MapperFacade.toResponseDTO(order);
+
+        validationService = new OrderValidationService(
+                new ItemsValidationHandler(),
+                new ProductExistenceValidationHandler(),
+                new StockAvailabilityValidationHandler(),
+                new InMemoryProductService(products),
+                new InMemoryInventoryService(inventory));
+        stateManager = new OrderStateManager();
+    }
+
+    @Benchmark
+    public ValidationResult validateOrderRequest() {
+        return validationService.validateOrderRequest(request);
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotal() {
+        return CreateOrderCommand.calculateTotal(order.getItems());
+    }
+
+    @Benchmark
+    public void stateChecks(Blackhole blackhole) {
+        blackhole.consume(stateManager.canProcessPayment(order));
+        blackhole.consume(stateManager.canCancelOrder(order));
+        blackhole.consume(stateManager.canTransitionTo(order, OrderStatus.PAID));
+    }
+
+    @Benchmark
+    public OrderResponseDTO toResponseDTO() {
+        return MapperFacade.toResponseDTO(order);
+    }
+
+    @Benchmark
+    public com.example.ecommerce.soap.Order toSoapOrder() {
+        return SoapOrderConverter.toSoapOrder(orderResponse);
+    }
+
+    /**
+     * Serves the bulk product lookup used by validation from a map.
+     * The rest of the contract is implemented on the same map, without the inventory side effects.
+     */
+    private static final class InMemoryProductService implements ProductServiceContract {
+
+        private final Map<UUID, Product> products;
+
+        private InMemoryProductService(Map<UUID, Product> products) {
+            this.products = products;
+        }
+
+        @Override
+        public List<Product> findAllById(Collection<UUID> ids) {
+            List<Product> found = new ArrayList<>(ids.size());
+            for (UUID id : ids) {
+                Product product = products.get(id);
+                if (product != null) {
+                    found.add(product);
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public Product findById(UUID id) {
+            Product product = products.get(id);
+            if (product == null) {
+                throw new RuntimeException(MessageConstants.PRODUCT_NOT_FOUND);
+            }
+            return product;
+        }
+
+        @Override
+        public List<Product> findAll() {
+            return new ArrayList<>(products.values());
+        }
+
+        @Override
+        public List<Product> findPage(UUID after, int limit) {
+            return products.values().stream()
+                    .filter(product -> after == null || product.getId().compareTo(after) > 0)
+                    .sorted(Comparator.comparing(Product::getId))
+                    .limit(limit)
+                    .toList();
+        }
+
+        @Override
+        public void forEachProduct(Consumer<Product> action) {
+            products.values().forEach(action);
+        }
+
+        @Override
+        public Product create(CreateProductRequestDTO request) {
+            Product product = ProductFactory.createNewProduct(request.getName(), request.getDescription(), request.getPrice());
+            product.setId(UUID.randomUUID());
+            products.put(product.getId(), product);
+            return product;
+        }
+
+        @Override
+        public Product update(UUID id, Product updated) {
+            Product product = findById(id);
+            product.setName(updated.getName());
+            product.setDescription(updated.getDescription());
+            product.setPrice(updated.getPrice());
+            return product;
+        }
+
+        @Override
+        public void delete(UUID id) {
+            products.remove(id);
+        }
+    }
+
+    /**
+     * Serves the bulk inventory lookup used by validation from a map; nothing else is called.
+     */
+    private static final class InMemoryInventoryService extends InventoryService {
+
+        private final Map<UUID, Inventory> inventory;
+
+        private InMemoryInventoryService(Map<UUID, Inventory> inventory) {
+            super(null, null);
+            this.inventory = inventory;
+        }
+
+        @Override
+        public List<Inventory> findAllById(Collection<UUID> productIds) {
+            List<Inventory> found = new ArrayList<>(productIds.size());
+            for (UUID id : productIds) {
+                Inventory row = inventory.get(id);
+                if (row != null) {
+                    found.add(row);
+                }
+            }
+            return found;
+        }
+    }
+}
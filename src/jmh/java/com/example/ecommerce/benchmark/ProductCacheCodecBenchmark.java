@@ -0,0 +1,103 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.domain.Product;
+import com.example.ecommerce.proxy.BinaryProductCacheCodec;
+import com.example.ecommerce.proxy.JsonProductCacheCodec;
+import com.example.ecommerce.proxy.ProductCacheCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JSON and binary product cache codecs.
+ *
+ * Besides encode/decode time, the encode benchmarks report the size of their output as
+ * the {@code encodedBytes} secondary metric, so bytes on the wire land in the same result file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductCacheCodecBenchmark {
+
+    @Param({"json", "binary"})
+    private String codecName;
+
+    @Param({"1", "100"})
+    private int listSize;
+
+    private ProductCacheCodec codec;
+    private Product product;
+    private List<Product> products;
+    private byte[] encodedProduct;
+    private byte[] encodedList;
+
+    @Setup
+    public void setUp() {
+        codec = "binary".equals(codecName)
+                ? new BinaryProductCacheCodec()
+                : new JsonProductCacheCodec(new ObjectMapper());
+
+        products = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            products.add(new Product(UUID.randomUUID(), "Product " + i,
+                    "Description of product number " + i, new BigDecimal("19.99").add(BigDecimal.valueOf(i))));
+        }
+        product = products.get(0);
+        encodedProduct = codec.encode(product);
+        encodedList = codec.encodeList(products);
+    }
+
+    /**
+     * Bytes produced by one encode. Output size is deterministic, so the last value
+     * of the iteration is the size of every encode in it.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+
+        public long encodedBytes;
+    }
+
+    @Benchmark
+    public byte[] encodeProduct(EncodedSize size) {
+        byte[] bytes = codec.encode(product);
+        size.encodedBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Product decodeProduct() {
+        return codec.decode(encodedProduct);
+    }
+
+    @Benchmark
+    public byte[] encodeList(EncodedSize size) {
+        byte[] bytes = codec.encodeList(products);
+        size.encodedBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public List<Product> decodeList() {
+        return codec.decodeList(encodedList);
+    }
+}
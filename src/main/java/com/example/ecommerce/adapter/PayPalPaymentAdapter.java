@@ -33,39 +33,34 @@ public class PayPalPaymentAdapter extends AbstractPaymentProcessor {
     protected PaymentResponseDTO doProcessPayment(Order order) {
         log.info("PAYPAL ADAPTER: Processing payment for order {} via PayPal", order.getId());
         
-        try {
-            // ADAPTER PATTERN: Convert our data to PayPal's expected format
-            String payerEmail = "user" + order.getUserId().toString().substring(0, 8) + "@example.com";
-            String description = "Order #" + order.getId() + " - " + order.getItems().size() + " items";
-            
-            PayPalPaymentGateway.PayPalPaymentRequest paypalRequest = 
-                new PayPalPaymentGateway.PayPalPaymentRequest(
-                    payerEmail, 
-                    order.getTotal(), 
-                    "USD", 
-                    description
-                );
-            
-            // Call PayPal's API using their specific method and parameters
-            PayPalPaymentGateway.PayPalTransactionResponse paypalResult = 
-                paypalGateway.executePayment(paypalRequest);
-            
-            // ADAPTER PATTERN: Convert PayPal's response to our standard format
-            OrderStatus orderStatus = convertPayPalStateToOrderStatus(paypalResult.state);
-            
-            log.info("PAYPAL ADAPTER: Payment processed - PayPal State: {}, Our Status: {}", 
-                    paypalResult.state, orderStatus);
-            
-            return new PaymentResponseDTO(order.getId(), orderStatus);
-            
-        } catch (Exception e) {
-            log.error("PAYPAL ADAPTER: Payment processing failed for order {}", order.getId(), e);
-            return new PaymentResponseDTO(order.getId(), OrderStatus.CANCELLED);
-        }
+        // ADAPTER PATTERN: Convert our data to PayPal's expected format
+        String payerEmail = "user" + order.getUserId().toString().substring(0, 8) + "@example.com";
+        String description = "Order #" + order.getId() + " - " + order.getItems().size() + " items";
+        
+        PayPalPaymentGateway.PayPalPaymentRequest paypalRequest = 
+            new PayPalPaymentGateway.PayPalPaymentRequest(
+                payerEmail, 
+                order.getTotal(), 
+                "USD", 
+                description
+            );
+        
+        // Call PayPal's API using their specific method and parameters;
+        // failures propagate, so the gateway guard can retry them and count them against PayPal's breaker
+        PayPalPaymentGateway.PayPalTransactionResponse paypalResult = 
+            paypalGateway.executePayment(paypalRequest);
+        
+        // ADAPTER PATTERN: Convert PayPal's response to our standard format
+        OrderStatus orderStatus = convertPayPalStateToOrderStatus(paypalResult.state);
+        
+        log.info("PAYPAL ADAPTER: Payment processed - PayPal State: {}, Our Status: {}", 
+                paypalResult.state, orderStatus);
+        
+        return new PaymentResponseDTO(order.getId(), orderStatus);
     }
     
     @Override
-    protected String getProviderName() {
+    public String getProviderName() {
         return "PayPal";
     }
     
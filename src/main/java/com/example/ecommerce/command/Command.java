@@ -36,6 +36,15 @@ public interface Command {
         return false;
     }
     
+    /**
+     * Returns the compact form of this command for the command journal.
+     * 
+     * @return the snapshot, or null if the command is not journaled
+     */
+    default CommandSnapshot snapshot() {
+        return null;
+    }
+    
     /**
      * Returns a description of what this command does.
      * Useful for logging and debugging.
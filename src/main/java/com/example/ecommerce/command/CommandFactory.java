@@ -4,10 +4,10 @@ import com.example.ecommerce.command.order.CancelOrderCommand;
 import com.example.ecommerce.command.order.CreateOrderCommand;
 import com.example.ecommerce.dto.request.CreateOrderRequestDTO;
 import com.example.ecommerce.observer.OrderStatusPublisher;
-import com.example.ecommerce.proxy.ProductServiceContract;
 import com.example.ecommerce.repository.OrderRepository;
 import com.example.ecommerce.service.InventoryService;
 import com.example.ecommerce.service.OrderValidationService;
+import com.example.ecommerce.service.PaymentDeadlineScheduler;
 import com.example.ecommerce.state.OrderStateManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -26,10 +26,10 @@ public class CommandFactory {
     // Direct dependencies for commands
     private final OrderRepository orderRepository;
     private final InventoryService inventoryService;
-    private final ProductServiceContract productService;
     private final OrderValidationService orderValidationService;
     private final OrderStatusPublisher orderStatusPublisher;
     private final OrderStateManager orderStateManager;
+    private final PaymentDeadlineScheduler paymentDeadlineScheduler;
     
     /**
      * Creates a command for creating a new order.
@@ -43,9 +43,9 @@ public class CommandFactory {
         return new CreateOrderCommand(
             orderRepository,
             inventoryService,
-            productService,
             orderValidationService,
             orderStatusPublisher,
+            paymentDeadlineScheduler,
             userId,
             request
         );
@@ -68,4 +68,19 @@ public class CommandFactory {
             reason
         );
     }
+    
+    /**
+     * Rebuilds an executed command from its journal snapshot.
+     * The rebuilt command can be undone but not executed again.
+     * 
+     * @param userId the user who executed the command
+     * @param snapshot the command's snapshot
+     * @return the rebuilt command
+     */
+    public Command rehydrate(UUID userId, CommandSnapshot snapshot) {
+        return switch (snapshot.type()) {
+            case CREATE_ORDER -> new CreateOrderCommand(orderRepository, orderStatusPublisher, userId, snapshot.orderId());
+            case CANCEL_ORDER -> cancelOrderCommand(snapshot.orderId(), snapshot.reason());
+        };
+    }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.example.ecommerce.command;
+
+/**
+ * Bounded undo history of one user, kept as a ring buffer.
+ *
+ * Once the history is full, recording a command overwrites the oldest one, so a user
+ * never holds on to more than {@code depth} commands. Access is synchronized on the
+ * history itself, so users never contend with each other.
+ */
+final class CommandHistory {
+
+    private final Command[] commands;
+    private int head;
+    private int size;
+
+    CommandHistory(int depth) {
+        this.commands = new Command[depth];
+    }
+
+    /**
+     * Records a command as the most recent one, dropping the oldest if the history is full.
+     */
+    synchronized void push(Command command) {
+        commands[head] = command;
+        head = (head + 1) % commands.length;
+        size = Math.min(size + 1, commands.length);
+    }
+
+    /**
+     * Removes and returns the most recent command, or {@code null} if there is none.
+     */
+    synchronized Command pop() {
+        if (size == 0) {
+            return null;
+        }
+        head = (head - 1 + commands.length) % commands.length;
+        Command command = commands[head];
+        commands[head] = null;
+        size--;
+        return command;
+    }
+
+    /**
+     * Returns the most recent command without removing it, or {@code null} if there is none.
+     */
+    synchronized Command peek() {
+        return size == 0 ? null : commands[(head - 1 + commands.length) % commands.length];
+    }
+
+    synchronized int size() {
+        return size;
+    }
+}
\ No newline at end of file
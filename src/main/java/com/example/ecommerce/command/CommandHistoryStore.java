@@ -0,0 +1,50 @@
+package com.example.ecommerce.command;
+
+import java.util.UUID;
+
+/**
+ * Keeps the undo history of every user for {@link CommandInvoker}.
+ *
+ * Implementations:
+ * - {@link InMemoryCommandHistoryStore}: bounded per-user ring buffers on this node only
+ * - {@link JournalCommandHistoryStore}: a shared, durable command journal in the database
+ */
+public interface CommandHistoryStore {
+
+    /**
+     * Records a successfully executed command as the user's most recent one.
+     *
+     * @param userId the user who executed the command
+     * @param command the executed command
+     */
+    void record(UUID userId, Command command);
+
+    /**
+     * Removes the user's most recent undoable command from the history and returns it,
+     * so no one else can undo it concurrently.
+     *
+     * @param userId the user
+     * @return the command, or null if there is none
+     */
+    Command claimLast(UUID userId);
+
+    /**
+     * Puts back a command returned by {@link #claimLast(UUID)} whose undo failed.
+     *
+     * @param userId the user
+     * @param command the command
+     */
+    void restore(UUID userId, Command command);
+
+    /**
+     * @param userId the user
+     * @return the number of the user's commands that can be undone
+     */
+    int undoableCount(UUID userId);
+
+    /**
+     * @param userId the user
+     * @return the user's most recent undoable command without removing it, or null if there is none
+     */
+    Command peekLast(UUID userId);
+}
\ No newline at end of file
@@ -1,124 +1,119 @@
 package com.example.ecommerce.command;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Stack;
+import java.util.UUID;
 
 /**
  * Command Invoker that executes commands and maintains command history.
  * Supports undo operations for commands that support it.
+ *
+ * Every user has their own undo history, kept by the configured {@link CommandHistoryStore}
+ * ({@code app.commands.history.store}: {@code journal} or {@code memory}).
  */
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class CommandInvoker {
-    
-    private final Stack<Command> commandHistory = new Stack<>();
-    private final List<CommandResult> executionResults = new ArrayList<>();
-    
+
+    private final CommandHistoryStore historyStore;
+
     /**
-     * Executes a command and stores it in history if successful and supports undo.
-     * 
+     * Executes a command and stores it in the user's history if successful and supports undo.
+     *
+     * @param userId the user on whose behalf the command runs
      * @param command the command to execute
      * @return the result of command execution
      */
-    public CommandResult execute(Command command) {
+    public CommandResult execute(UUID userId, Command command) {
         try {
             log.info("INVOKER: Executing command: {}", command.getDescription());
-            
+
             CommandResult result = command.execute();
-            
-            // Store execution result
-            executionResults.add(result);
-            
+
             if (result.isSuccess()) {
-                // Only store in history if command supports undo and was successful
+                // Only successful commands are recorded; the store decides what it keeps
+                historyStore.record(userId, command);
                 if (command.supportsUndo()) {
-                    commandHistory.push(command);
                     log.debug("INVOKER: Command added to history (supports undo): {}", command.getDescription());
                 } else {
                     log.debug("INVOKER: Command executed but not added to history (no undo support): {}", command.getDescription());
                 }
             } else {
-                log.warn("INVOKER: Command failed, not added to history: {} - Error: {}", 
+                log.warn("INVOKER: Command failed, not added to history: {} - Error: {}",
                         command.getDescription(), result.getMessage());
             }
-            
+
             return result;
-            
+
         } catch (Exception e) {
-            log.error("INVOKER: Exception during command execution: {} - Error: {}", 
+            log.error("INVOKER: Exception during command execution: {} - Error: {}",
                     command.getDescription(), e.getMessage());
-            
-            CommandResult errorResult = CommandResult.failure("Command execution failed: " + e.getMessage(), e);
-            executionResults.add(errorResult);
-            return errorResult;
+
+            return CommandResult.failure("Command execution failed: " + e.getMessage(), e);
         }
     }
-    
+
     /**
-     * Undoes the last command that supports undo operations.
-     * 
+     * Undoes the user's last command that supports undo operations.
+     *
+     * @param userId the user whose command to undo
      * @return the result of the undo operation
      */
-    public CommandResult undoLast() {
-        if (commandHistory.isEmpty()) {
-            log.warn("INVOKER: No commands available to undo");
+    public CommandResult undoLast(UUID userId) {
+        Command lastCommand = historyStore.claimLast(userId);
+        if (lastCommand == null) {
+            log.warn("INVOKER: No commands available to undo for user: {}", userId);
             return CommandResult.failure("No commands available to undo");
         }
-        
-        Command lastCommand = commandHistory.pop();
-        
+
         try {
             log.info("INVOKER: Undoing last command: {}", lastCommand.getDescription());
-            
+
             CommandResult result = lastCommand.undo();
-            executionResults.add(result);
-            
+
             if (result.isSuccess()) {
                 log.info("INVOKER: Successfully undone command: {}", lastCommand.getDescription());
             } else {
-                log.warn("INVOKER: Failed to undo command: {} - Error: {}", 
+                log.warn("INVOKER: Failed to undo command: {} - Error: {}",
                         lastCommand.getDescription(), result.getMessage());
                 // Put the command back in history since undo failed
-                commandHistory.push(lastCommand);
+                historyStore.restore(userId, lastCommand);
             }
-            
+
             return result;
-            
+
         } catch (Exception e) {
-            log.error("INVOKER: Exception during undo operation: {} - Error: {}", 
+            log.error("INVOKER: Exception during undo operation: {} - Error: {}",
                     lastCommand.getDescription(), e.getMessage());
-            
+
             // Put the command back in history since undo failed
-            commandHistory.push(lastCommand);
-            
-            CommandResult errorResult = CommandResult.failure("Undo operation failed: " + e.getMessage(), e);
-            executionResults.add(errorResult);
-            return errorResult;
+            historyStore.restore(userId, lastCommand);
+
+            return CommandResult.failure("Undo operation failed: " + e.getMessage(), e);
         }
     }
-    
+
     /**
-     * Returns the number of commands that can be undone.
-     * 
+     * Returns the number of the user's commands that can be undone.
+     *
+     * @param userId the user
      * @return count of undoable commands
      */
-    public int getUndoableCommandCount() {
-        return commandHistory.size();
+    public int getUndoableCommandCount(UUID userId) {
+        return historyStore.undoableCount(userId);
     }
-    
+
     /**
-     * Returns a description of the last command that can be undone.
-     * 
+     * Returns a description of the user's last command that can be undone.
+     *
+     * @param userId the user
      * @return description of the last undoable command, or null if none
      */
-    public String getLastUndoableCommandDescription() {
-        if (commandHistory.isEmpty()) {
-            return null;
-        }
-        return commandHistory.peek().getDescription();
+    public String getLastUndoableCommandDescription(UUID userId) {
+        Command lastCommand = historyStore.peekLast(userId);
+        return lastCommand != null ? lastCommand.getDescription() : null;
     }
 }
\ No newline at end of file
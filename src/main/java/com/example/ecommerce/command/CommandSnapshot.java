@@ -0,0 +1,16 @@
+package com.example.ecommerce.command;
+
+import com.example.ecommerce.enums.CommandType;
+
+import java.util.UUID;
+
+/**
+ * Compact, serializable form of an executed command: just enough to rebuild it
+ * with {@link CommandFactory#rehydrate(UUID, CommandSnapshot)}.
+ *
+ * @param type the kind of command
+ * @param orderId the order the command acted on
+ * @param reason the reason given for the command, if any
+ */
+public record CommandSnapshot(CommandType type, UUID orderId, String reason) {
+}
@@ -0,0 +1,87 @@
+package com.example.ecommerce.command;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Command history kept in the heap of this node.
+ *
+ * Every user has their own undo history, bounded to the configured depth. Histories
+ * of users who stay idle for longer than the TTL expire, and the number of histories
+ * kept is capped as well, so memory stays flat however many commands are executed.
+ * Histories are lost on restart and are not visible to other nodes.
+ */
+@Component
+@ConditionalOnProperty(name = "app.commands.history.store", havingValue = "memory")
+public class InMemoryCommandHistoryStore implements CommandHistoryStore {
+
+    private final Cache<UUID, CommandHistory> histories;
+    private final int depth;
+
+    @Autowired
+    public InMemoryCommandHistoryStore(@Value("${app.commands.history.depth:10}") int depth,
+                                       @Value("${app.commands.history.ttl:30m}") Duration ttl,
+                                       @Value("${app.commands.history.max-users:100000}") long maxUsers,
+                                       MeterRegistry meterRegistry) {
+        this(depth, ttl, maxUsers, Ticker.systemTicker());
+        CaffeineCacheMetrics.monitor(meterRegistry, histories, "commands.history");
+    }
+
+    InMemoryCommandHistoryStore(int depth, Duration ttl, long maxUsers, Ticker ticker) {
+        this.depth = Math.max(1, depth);
+        this.histories = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(ttl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void record(UUID userId, Command command) {
+        if (command.supportsUndo()) {
+            histories.get(userId, id -> new CommandHistory(depth)).push(command);
+        }
+    }
+
+    @Override
+    public Command claimLast(UUID userId) {
+        CommandHistory history = histories.getIfPresent(userId);
+        return history != null ? history.pop() : null;
+    }
+
+    @Override
+    public void restore(UUID userId, Command command) {
+        histories.get(userId, id -> new CommandHistory(depth)).push(command);
+    }
+
+    @Override
+    public int undoableCount(UUID userId) {
+        CommandHistory history = histories.getIfPresent(userId);
+        return history != null ? history.size() : 0;
+    }
+
+    @Override
+    public Command peekLast(UUID userId) {
+        CommandHistory history = histories.getIfPresent(userId);
+        return history != null ? history.peek() : null;
+    }
+
+    /**
+     * Returns the number of commands currently retained across all users.
+     */
+    long retainedCommandCount() {
+        histories.cleanUp();
+        return histories.asMap().values().stream().mapToLong(CommandHistory::size).sum();
+    }
+}
\ No newline at end of file
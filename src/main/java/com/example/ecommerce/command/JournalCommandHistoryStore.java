@@ -0,0 +1,267 @@
+package com.example.ecommerce.command;
+
+import com.example.ecommerce.domain.CommandJournalEntry;
+import com.example.ecommerce.repository.CommandJournalRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command history kept in the shared, append-only command journal.
+ *
+ * Any node can undo a command executed on any other node, and histories survive restarts.
+ * Commands are journaled once their transaction commits, through a queue drained by a
+ * single writer thread: whatever accumulates while one batch is being written goes out
+ * in the next {@code INSERT} batch, so order creation never waits for the journal.
+ * A command undone right after it was created may not be journaled yet, and a crash
+ * loses the entries still queued; both only cost the ability to undo those commands.
+ *
+ * Undo claims an entry by marking it undone under a row lock, so it happens once however
+ * many nodes are asked to undo concurrently.
+ */
+@Component
+@ConditionalOnProperty(name = "app.commands.history.store", havingValue = "journal", matchIfMissing = true)
+@Slf4j
+public class JournalCommandHistoryStore implements CommandHistoryStore {
+
+    private static final int MAX_REASON_LENGTH = 255;
+
+    private final CommandJournalRepository journalRepository;
+    private final CommandFactory commandFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary batchSizes;
+    private final Duration ttl;
+    private final Duration retention;
+    private final int batchSize;
+    private final BlockingQueue<CommandJournalEntry> pending;
+    private volatile boolean running;
+    private volatile Instant lastPurge = Instant.EPOCH;
+    private Thread writer;
+
+    public JournalCommandHistoryStore(CommandJournalRepository journalRepository,
+                                      CommandFactory commandFactory,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.commands.history.ttl:30m}") Duration ttl,
+                                      @Value("${app.commands.journal.retention:7d}") Duration retention,
+                                      @Value("${app.commands.journal.batch-size:100}") int batchSize,
+                                      @Value("${app.commands.journal.queue-capacity:10000}") int queueCapacity) {
+        this.journalRepository = journalRepository;
+        this.commandFactory = commandFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Claims and restores must commit even when the caller's transaction rolls back
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSizes = DistributionSummary.builder("commands.journal.batch.size")
+                .description("Number of journal entries written per batch")
+                .register(meterRegistry);
+        this.ttl = ttl;
+        this.retention = retention;
+        this.batchSize = Math.max(1, batchSize);
+        this.pending = new ArrayBlockingQueue<>(queueCapacity);
+        meterRegistry.gaugeCollectionSize("commands.journal.pending", Tags.empty(), pending);
+    }
+
+    @Override
+    public void record(UUID userId, Command command) {
+        CommandSnapshot snapshot = command.snapshot();
+        if (snapshot == null) {
+            return;
+        }
+        CommandJournalEntry entry = CommandJournalEntry.builder()
+                .userId(userId)
+                .commandType(snapshot.type())
+                .undoable(command.supportsUndo())
+                .orderId(snapshot.orderId())
+                .reason(truncate(snapshot.reason()))
+                .createdAt(Instant.now())
+                .build();
+        afterCommit(() -> enqueue(entry));
+    }
+
+    /**
+     * Claims in a new transaction, even when called inside one: the entry's undo mark is
+     * the claim, so the row lock is only held while the mark is written, not while the
+     * command is undone, and rolling back the undo leaves the claim in place.
+     */
+    @Override
+    public Command claimLast(UUID userId) {
+        Instant now = Instant.now();
+        return transactionTemplate.execute(status -> journalRepository.claimLastUndoable(userId, now.minus(ttl), now)
+                .map(entry -> (Command) new JournaledCommand(entry.getId(), rehydrate(entry)))
+                .orElse(null));
+    }
+
+    @Override
+    public void restore(UUID userId, Command command) {
+        if (command instanceof JournaledCommand journaled) {
+            transactionTemplate.executeWithoutResult(status -> journalRepository.clearUndone(journaled.entryId()));
+        }
+    }
+
+    @Override
+    public int undoableCount(UUID userId) {
+        long count = journalRepository.countByUserIdAndUndoableTrueAndUndoneAtIsNullAndCreatedAtAfter(
+                userId, Instant.now().minus(ttl));
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Command peekLast(UUID userId) {
+        return journalRepository
+                .findFirstByUserIdAndUndoableTrueAndUndoneAtIsNullAndCreatedAtAfterOrderByIdDesc(
+                        userId, Instant.now().minus(ttl))
+                .map(this::rehydrate)
+                .orElse(null);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::run, "command-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops the writer once every queued entry has been written.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * Writes up to one batch of queued entries.
+     *
+     * @return the number of entries written
+     */
+    int flush() {
+        List<CommandJournalEntry> batch = new ArrayList<>(batchSize);
+        pending.drainTo(batch, batchSize);
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+        return batch.size();
+    }
+
+    private void run() {
+        while (running || !pending.isEmpty()) {
+            try {
+                CommandJournalEntry first = pending.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    purgeIfDue();
+                    continue;
+                }
+                List<CommandJournalEntry> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                pending.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("JOURNAL: Command journal writer failed", e);
+            }
+        }
+    }
+
+    private void enqueue(CommandJournalEntry entry) {
+        if (!pending.offer(entry)) {
+            // Queue full: write on the caller's thread rather than drop the entry
+            write(List.of(entry));
+        }
+    }
+
+    private void write(List<CommandJournalEntry> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> journalRepository.saveAll(batch));
+            batchSizes.record(batch.size());
+        } catch (RuntimeException e) {
+            log.error("JOURNAL: Failed to write {} command journal entries; they cannot be undone", batch.size(), e);
+        }
+    }
+
+    private void purgeIfDue() {
+        Instant now = Instant.now();
+        if (lastPurge.isAfter(now.minus(Duration.ofHours(1)))) {
+            return;
+        }
+        lastPurge = now;
+        Integer deleted = transactionTemplate.execute(status ->
+                journalRepository.deleteCreatedBefore(now.minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.info("JOURNAL: Purged {} command journal entries", deleted);
+        }
+    }
+
+    private Command rehydrate(CommandJournalEntry entry) {
+        return commandFactory.rehydrate(entry.getUserId(),
+                new CommandSnapshot(entry.getCommandType(), entry.getOrderId(), entry.getReason()));
+    }
+
+    private static String truncate(String reason) {
+        return reason == null || reason.length() <= MAX_REASON_LENGTH ? reason : reason.substring(0, MAX_REASON_LENGTH);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * A command rebuilt from the journal, remembering which entry it came from.
+     */
+    private record JournaledCommand(Long entryId, Command command) implements Command {
+
+        @Override
+        public CommandResult execute() throws Exception {
+            return command.execute();
+        }
+
+        @Override
+        public CommandResult undo() throws Exception {
+            return command.undo();
+        }
+
+        @Override
+        public boolean supportsUndo() {
+            return command.supportsUndo();
+        }
+
+        @Override
+        public String getDescription() {
+            return command.getDescription();
+        }
+    }
+}
\ No newline at end of file
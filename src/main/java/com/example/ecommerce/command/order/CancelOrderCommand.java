@@ -2,9 +2,11 @@ package com.example.ecommerce.command.order;
 
 import com.example.ecommerce.command.Command;
 import com.example.ecommerce.command.CommandResult;
+import com.example.ecommerce.command.CommandSnapshot;
 import com.example.ecommerce.constants.MessageConstants;
 import com.example.ecommerce.domain.Order;
 import com.example.ecommerce.dto.response.OrderResponseDTO;
+import com.example.ecommerce.enums.CommandType;
 import com.example.ecommerce.enums.OrderStatus;
 import com.example.ecommerce.mapper.MapperFacade;
 import com.example.ecommerce.observer.OrderStatusPublisher;
@@ -107,6 +109,11 @@ public class CancelOrderCommand implements Command {
         return CommandResult.failure(MessageConstants.ORDER_CANCELLATION_UNDO_NOT_SUPPORTED);
     }
     
+    @Override
+    public CommandSnapshot snapshot() {
+        return new CommandSnapshot(CommandType.CANCEL_ORDER, orderId, reason);
+    }
+    
     @Override
     public boolean supportsUndo() {
         return false; // Cancellation undo is typically not supported
@@ -2,25 +2,31 @@ package com.example.ecommerce.command.order;
 
 import com.example.ecommerce.command.Command;
 import com.example.ecommerce.command.CommandResult;
+import com.example.ecommerce.command.CommandSnapshot;
 import com.example.ecommerce.constants.MessageConstants;
 import com.example.ecommerce.domain.Order;
 import com.example.ecommerce.domain.OrderItem;
+import com.example.ecommerce.domain.Product;
 import com.example.ecommerce.dto.request.CreateOrderRequestDTO;
 import com.example.ecommerce.dto.response.OrderResponseDTO;
+import com.example.ecommerce.enums.CommandType;
 import com.example.ecommerce.factory.OrderFactory;
 import com.example.ecommerce.factory.OrderItemFactory;
 import com.example.ecommerce.mapper.MapperFacade;
 import com.example.ecommerce.observer.OrderStatusPublisher;
-import com.example.ecommerce.proxy.ProductServiceContract;
 import com.example.ecommerce.repository.OrderRepository;
 import com.example.ecommerce.service.InventoryService;
 import com.example.ecommerce.service.OrderValidationService;
+import com.example.ecommerce.service.PaymentDeadlineScheduler;
+import com.example.ecommerce.validation.OrderValidationContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -35,9 +41,9 @@ public class CreateOrderCommand implements Command {
     // Direct dependencies - no OrderService needed
     private final OrderRepository orderRepository;
     private final InventoryService inventoryService;
-    private final ProductServiceContract productService;
     private final OrderValidationService orderValidationService;
     private final OrderStatusPublisher orderStatusPublisher;
+    private final PaymentDeadlineScheduler paymentDeadlineScheduler;
     
     // Command parameters
     private final UUID userId;
@@ -45,6 +51,21 @@ public class CreateOrderCommand implements Command {
     
     // Store the created order for potential undo
     private Order createdOrder;
+
+    // Constructor for a command that was already executed, rebuilt from the command journal
+    public CreateOrderCommand(OrderRepository orderRepository,
+                              OrderStatusPublisher orderStatusPublisher,
+                              UUID userId,
+                              UUID orderId) {
+        this.orderRepository = orderRepository;
+        this.inventoryService = null;
+        this.orderValidationService = null;
+        this.orderStatusPublisher = orderStatusPublisher;
+        this.paymentDeadlineScheduler = null;
+        this.userId = userId;
+        this.request = null; // Only undo is supported
+        this.createdOrder = Order.builder().id(orderId).userId(userId).build();
+    }
     
     @Override
     @Transactional
@@ -53,7 +74,8 @@ public class CreateOrderCommand implements Command {
             log.info("COMMAND: Executing CreateOrderCommand for user: {} with {} items", userId, request.getItems().size());
             
             // CHAIN OF RESPONSIBILITY: Validate the order request
-            var validationResult = orderValidationService.validateOrderRequest(request);
+            OrderValidationContext context = orderValidationService.createContext(request);
+            var validationResult = orderValidationService.validateOrderRequest(context);
             if (!validationResult.isValid()) {
                 String errorMessage = String.format("%s: %s", MessageConstants.ORDER_VALIDATION_FAILED,
                         String.join(", ", validationResult.getErrors()));
@@ -67,22 +89,22 @@ public class CreateOrderCommand implements Command {
             Order order = OrderFactory.createNewOrder(userId, BigDecimal.ZERO, null);
             log.debug("COMMAND: Created order object for user: {}", userId);
 
-            // Create items and calculate total
-            List<OrderItem> items = request.getItems().stream().map(reqItem -> {
-                // Get product (validation already confirmed product existence)
-                var product = productService.findById(reqItem.getProductId());
-                
-                // Reserve stock (validation already confirmed availability)
-                inventoryService.reserveStock(product.getId(), reqItem.getQuantity());
-                log.debug("COMMAND: Reserved {} units of product: {}", reqItem.getQuantity(), product.getId());
+            // Reserve stock for all lines at once (validation already confirmed availability)
+            Map<UUID, Integer> quantities = request.getItems().stream()
+                    .collect(Collectors.toMap(CreateOrderRequestDTO.Item::getProductId,
+                            CreateOrderRequestDTO.Item::getQuantity, Integer::sum, LinkedHashMap::new));
+            inventoryService.reserveStock(quantities);
+            log.debug("COMMAND: Reserved stock for {} products in one operation", quantities.size());
 
+            // Create items
+            List<OrderItem> items = request.getItems().stream().map(reqItem -> {
+                // Reuse the snapshot loaded during validation
+                Product product = context.getProduct(reqItem.getProductId());
                 return OrderItemFactory.createNewOrderItem(order, product.getId(), reqItem.getQuantity(), product.getPrice());
             }).collect(Collectors.toList());
 
             // Calculate total from items
-            BigDecimal total = items.stream()
-                    .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal total = calculateTotal(items);
 
             // Set the calculated total and items
             order.setTotal(total);
@@ -96,6 +118,9 @@ public class CreateOrderCommand implements Command {
             log.info("COMMAND: Successfully created order: {} for user: {} with total: {}", 
                     createdOrder.getId(), userId, total);
 
+            // Cancel the order at its payment deadline unless it is paid first
+            paymentDeadlineScheduler.register(createdOrder.getId(), createdOrder.getCreatedAt());
+
             OrderResponseDTO response = MapperFacade.toResponseDTO(createdOrder);
             return CommandResult.success(MessageConstants.ORDER_CREATED_SUCCESS, response);
             
@@ -139,6 +164,26 @@ public class CreateOrderCommand implements Command {
         }
     }
     
+    /**
+     * Sums price times quantity over the order lines.
+     * 
+     * @param items the order lines
+     * @return the order total; zero for no lines
+     */
+    public static BigDecimal calculateTotal(List<OrderItem> items) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderItem item : items) {
+            total = total.add(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        return total;
+    }
+    
+    @Override
+    public CommandSnapshot snapshot() {
+        return createdOrder == null ? null
+                : new CommandSnapshot(CommandType.CREATE_ORDER, createdOrder.getId(), null);
+    }
+    
     @Override
     public boolean supportsUndo() {
         return true;
@@ -146,6 +191,9 @@ public class CreateOrderCommand implements Command {
     
     @Override
     public String getDescription() {
+        if (request == null) {
+            return String.format("Create order: %s for user: %s", createdOrder.getId(), userId);
+        }
         return String.format("Create order for user: %s with %d items", 
                 userId, request.getItems().size());
     }
@@ -1,13 +1,16 @@
 package com.example.ecommerce.config;
 
 import com.example.ecommerce.constants.CommonConstants;
+import com.example.ecommerce.security.JwtAuthentication;
+import com.example.ecommerce.security.JwtClaims;
 import com.example.ecommerce.service.JwtService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,6 +19,10 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * A filter that processes incoming HTTP requests to validate JWT tokens.
@@ -24,24 +31,46 @@ import java.io.IOException;
  * validates it using {@link JwtService}, and sets the authenticated
  * {@link SecurityContextHolder}
  * if the token is valid.
+ *
+ * The authentication carries the verified claims (see {@link JwtAuthentication}),
+ * so controllers can read the user ID without verifying the token again.
+ * Users listed in {@code app.security.admin-emails} are also granted {@code ADMIN},
+ * which the operational endpoints require.
  */
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final List<GrantedAuthority> USER_AUTHORITIES = AuthorityUtils.createAuthorityList("USER");
+    private static final List<GrantedAuthority> ADMIN_AUTHORITIES = AuthorityUtils.createAuthorityList("USER", "ADMIN");
+
     /**
      * Service for handling JWT-related operations such as extracting subjects.
      */
     private final JwtService jwtService;
 
+    /**
+     * Emails of the administrators, lower-cased.
+     */
+    private final Set<String> adminEmails;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   @Value("${app.security.admin-emails:}") Set<String> adminEmails) {
+        this.jwtService = jwtService;
+        this.adminEmails = adminEmails.stream()
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
     /**
      * Performs the JWT authentication filtering for each incoming request.
      *
      * Steps:
      * <ol>
      *   <li>Checks the {@code Authorization} header for a Bearer token.</li>
-     *   <li>Extracts the email (subject) from the JWT using {@link JwtService}.</li>
-     *   <li>If valid, creates a {@link UsernamePasswordAuthenticationToken} with the user details
+     *   <li>Verifies the JWT and extracts its claims using {@link JwtService}.</li>
+     *   <li>If valid, creates a {@link JwtAuthentication} with the user details and claims
      *       and sets it in the {@link SecurityContextHolder}.</li>
      *   <li>If no valid token is found, the request continues without authentication.</li>
      * </ol>
@@ -63,18 +92,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        String token = header.substring(7);
-        String email = jwtService.extractSubject(token);
+        String token = header.substring(CommonConstants.BEARER_PREFIX.length());
+        JwtClaims claims = jwtService.verify(token);
+        String email = claims.subject();
 
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = User
                     .withUsername(email)
                     .password(CommonConstants.EMPTY_STRING)
-                    .authorities("USER")
+                    .authorities(adminEmails.contains(email.toLowerCase(Locale.ROOT))
+                            ? ADMIN_AUTHORITIES : USER_AUTHORITIES)
                     .build();
 
-            UsernamePasswordAuthenticationToken auth =
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            JwtAuthentication auth = new JwtAuthentication(userDetails, token, claims);
 
             auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(auth);
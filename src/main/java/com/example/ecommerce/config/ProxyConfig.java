@@ -1,36 +1,74 @@
 package com.example.ecommerce.config;
 
+import com.example.ecommerce.proxy.BinaryProductCacheCodec;
+import com.example.ecommerce.proxy.JsonProductCacheCodec;
+import com.example.ecommerce.proxy.ProductCacheCodec;
+import com.example.ecommerce.proxy.ProductNearCache;
 import com.example.ecommerce.proxy.ProductServiceContract;
-import com.example.ecommerce.proxy.ProductServiceCachingProxy;
 import com.example.ecommerce.service.ProductService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 /**
  * Configuration for Proxy Pattern implementations.
  * This handles the selection between proxied and direct service access.
+ * The caching proxy and its near cache are components of their own, active
+ * unless caching is disabled; this class adds the beans they need around them.
  */
 @Configuration
 public class ProxyConfig {
     
     /**
-     * PROXY PATTERN: Caching proxy enabled
-     * This wraps the ProductService with caching capabilities
+     * Codec for products stored in Redis: {@code binary} (compact, default) or {@code json}.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.caching.enabled", havingValue = "true", matchIfMissing = true)
+    public ProductCacheCodec productCacheCodec(
+            ObjectMapper objectMapper,
+            @Value("${app.caching.codec:binary}") String codec) {
+        
+        return switch (codec) {
+            case "binary" -> new BinaryProductCacheCodec();
+            case "json" -> new JsonProductCacheCodec(objectMapper);
+            default -> throw new IllegalArgumentException("Unknown app.caching.codec: " + codec);
+        };
+    }
+    
+    /**
+     * Redis template that stores codec output as raw bytes.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.caching.enabled", havingValue = "true", matchIfMissing = true)
+    public RedisTemplate<String, byte[]> productCacheRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        return template;
+    }
+    
+    /**
+     * Subscribes the near cache to invalidations published by other nodes.
      */
     @Bean
-    @Primary
     @ConditionalOnProperty(name = "app.caching.enabled", havingValue = "true", matchIfMissing = true)
-    public ProductServiceContract cachingProxy(
-            ProductService productService,
-            RedisTemplate<String, String> redisTemplate,
-            ObjectMapper objectMapper) {
+    public RedisMessageListenerContainer productCacheInvalidationListener(
+            RedisConnectionFactory connectionFactory,
+            ProductNearCache productNearCache) {
         
-        System.out.println("🚀 CREATING ProductServiceCachingProxy - Caching is ENABLED");
-        return new ProductServiceCachingProxy(productService, redisTemplate, objectMapper);
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(productNearCache, new ChannelTopic(productNearCache.getChannel()));
+        return container;
     }
     
     /**
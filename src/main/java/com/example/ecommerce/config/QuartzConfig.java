@@ -1,22 +1,30 @@
 package com.example.ecommerce.config;
 
 import com.example.ecommerce.jobs.CancelUnpaidOrdersJob;
+import com.example.ecommerce.jobs.OrderOutboxRelayJob;
 import org.quartz.JobBuilder;
 import org.quartz.JobDetail;
 import org.quartz.SimpleScheduleBuilder;
 import org.quartz.Trigger;
 import org.quartz.TriggerBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 /**
  * Quartz configuration for scheduling background jobs.
  *
  * Registers the {@link CancelUnpaidOrdersJob} as a durable job
- * and defines a trigger that executes the job every 5 minutes.
+ * and defines a trigger that executes the job at a low, configurable frequency.
+ *
+ * Unpaid orders are normally cancelled at their exact deadline by
+ * {@link com.example.ecommerce.service.PaymentDeadlineScheduler}; this job only
+ * reconciles orders whose deadline was lost, for example during a Redis outage.
  *
- * This ensures that unpaid orders older than the cutoff time
- * are regularly cancelled and their reserved inventory is released.
+ * Also registers the {@link OrderOutboxRelayJob}, which delivers order
+ * status changes from the outbox to after-commit observers.
  */
 @Configuration
 public class QuartzConfig {
@@ -35,21 +43,51 @@ public class QuartzConfig {
     }
 
     /**
-     * Configures a Quartz trigger that fires every 5 minutes
-     * to execute {@link CancelUnpaidOrdersJob}.
+     * Configures a Quartz trigger that executes {@link CancelUnpaidOrdersJob}
+     * as a reconciliation pass, every 30 minutes by default.
      *
+     * @param interval the time between reconciliation runs
      * @return a Quartz {@link Trigger} for scheduling the job
      */
     @Bean
-    public Trigger cancelUnpaidOrdersTrigger() {
-        // Run every 5 minutes (adjustable as needed)
+    public Trigger cancelUnpaidOrdersTrigger(@Value("${app.orders.reconciliation-interval:30m}") Duration interval) {
         return TriggerBuilder.newTrigger()
                 .forJob(cancelUnpaidOrdersJobDetail())
                 .withIdentity("cancelUnpaidOrdersTrigger")
                 .withSchedule(SimpleScheduleBuilder.simpleSchedule()
-                        .withIntervalInMinutes(5)
+                        .withIntervalInMilliseconds(interval.toMillis())
                         .repeatForever())
                 .build();
     }
 
-}
+    /**
+     * Defines the durable job detail for {@link OrderOutboxRelayJob}.
+     *
+     * @return a Quartz {@link JobDetail} representing the outbox relay job
+     */
+    @Bean
+    public JobDetail orderOutboxRelayJobDetail() {
+        return JobBuilder.newJob(OrderOutboxRelayJob.class)
+                .withIdentity("orderOutboxRelayJob")
+                .storeDurably()
+                .build();
+    }
+
+    /**
+     * Configures a Quartz trigger that polls the order outbox
+     * at the configured interval.
+     *
+     * @param pollInterval the time between two relay runs
+     * @return a Quartz {@link Trigger} for scheduling the job
+     */
+    @Bean
+    public Trigger orderOutboxRelayTrigger(@Value("${app.outbox.poll-interval:1s}") Duration pollInterval) {
+        return TriggerBuilder.newTrigger()
+                .forJob(orderOutboxRelayJobDetail())
+                .withIdentity("orderOutboxRelayTrigger")
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withIntervalInMilliseconds(pollInterval.toMillis())
+                        .repeatForever())
+                .build();
+    }
+}
\ No newline at end of file
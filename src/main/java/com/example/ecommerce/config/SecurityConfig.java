@@ -32,6 +32,7 @@ public class SecurityConfig {
      *
      * - Disables CSRF protection (since the app likely uses JWT-based authentication).<br>
      * - Allows unauthenticated access to {@code /api/auth/**} endpoints.<br>
+     * - Restricts the actuator endpoints other than health to {@code ADMIN}.<br>
      * - Requires authentication for all other endpoints.<br>
      * - Registers the {@link JwtAuthenticationFilter} to process requests
      *   before {@link UsernamePasswordAuthenticationFilter}.
@@ -47,6 +48,8 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/ws/**").permitAll()  // SOAP endpoints
                         .requestMatchers("/api/soap-integration/**").permitAll()  // SOAP integration REST endpoints
+                        .requestMatchers("/actuator/health").permitAll()  // Health probes
+                        .requestMatchers("/actuator/**").hasAuthority("ADMIN")  // Metrics and other operational endpoints
                         .anyRequest().authenticated())
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
@@ -21,4 +21,29 @@ public final class CommonConstants {
      * The standard {@code "Bearer "} prefix for token-based authentication.
      */
     public static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * The HTTP header carrying the client-chosen key that makes a request safe to retry.
+     */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * Number of products returned per catalogue page when the client does not ask for a size.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    /**
+     * Upper bound on the catalogue page size a client may request.
+     */
+    public static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * Number of orders returned per order history page when the client does not ask for a size.
+     */
+    public static final int DEFAULT_ORDER_PAGE_SIZE = 20;
+
+    /**
+     * Upper bound on the order history page size a client may request.
+     */
+    public static final int MAX_ORDER_PAGE_SIZE = 100;
 }
@@ -43,6 +43,7 @@ public final class MessageConstants {
     public static final String ORDER_CANCELLATION_FAILED = "Order cancellation failed";
     public static final String ORDER_UPDATE_FAILED = "Order update failed";
     public static final String ORDER_ACCESS_DENIED = "Access denied to order";
+    public static final String ORDER_CURSOR_INVALID = "Invalid order cursor";
     
     // Product Error Messages
     public static final String PRODUCT_NOT_FOUND = "Product not found";
@@ -54,6 +55,7 @@ public final class MessageConstants {
     // Inventory Error Messages
     public static final String INVENTORY_NOT_FOUND_FOR_PRODUCT = "No inventory for product";
     public static final String INVENTORY_INSUFFICIENT_STOCK = "Insufficient stock";
+    public static final String INVENTORY_INVALID_QUANTITY = "Quantity must be positive";
     
     // Payment Error Messages
     public static final String PAYMENT_PROVIDER_UNKNOWN = "Unknown payment provider";
@@ -61,6 +63,11 @@ public final class MessageConstants {
     public static final String PAYMENT_FAILED = "Payment processing failed";
     public static final String PAYMENT_PROVIDER_INVALID = "Invalid payment provider";
     public static final String PAYMENT_INSUFFICIENT_FUNDS = "Insufficient funds";
+    public static final String PAYMENT_PROVIDER_BUSY = "Payment provider is busy, please retry";
+    public static final String PAYMENT_PROVIDER_CIRCUIT_OPEN = "Payment provider is temporarily unavailable, please retry later";
+    public static final String PAYMENT_PROVIDER_TIMED_OUT = "Payment provider did not respond in time, please retry";
+    public static final String PAYMENT_PROVIDER_FAILED = "Payment provider could not be reached, please retry";
+    public static final String ORDER_CHANGED_DURING_PAYMENT = "Order changed while its payment was being processed";
     
     // Auth Error Messages
     public static final String REGISTRATION_FAILED = "User registration failed";
@@ -77,6 +84,11 @@ public final class MessageConstants {
     public static final String BAD_REQUEST = "Bad request";
     public static final String RESOURCE_NOT_FOUND = "Resource not found";
     public static final String ACCESS_DENIED = "Access denied";
+
+    // Idempotency Messages
+    public static final String IDEMPOTENCY_KEY_INVALID = "Idempotency key must be at most 255 characters";
+    public static final String IDEMPOTENCY_KEY_REUSED = "Idempotency key was already used for a different request";
+    public static final String IDEMPOTENCY_REQUEST_IN_PROGRESS = "A request with this idempotency key is still being processed";
     
     // Command Messages
     public static final String COMMAND_EXECUTED_SUCCESS = "Command executed successfully";
@@ -123,6 +135,7 @@ public final class MessageConstants {
     public static final String ORDER_NOT_FOUND_CODE = "ORDER_NOT_FOUND";
     public static final String ORDER_ACCESS_DENIED_CODE = "ORDER_ACCESS_DENIED";
     public static final String UNDO_FAILED_CODE = "UNDO_FAILED";
+    public static final String ORDER_CURSOR_INVALID_CODE = "ORDER_CURSOR_INVALID";
     
     // Product Error Codes
     public static final String PRODUCT_CREATION_FAILED_CODE = "PRODUCT_CREATION_FAILED";
@@ -133,6 +146,7 @@ public final class MessageConstants {
     // Payment Error Codes
     public static final String PAYMENT_FAILED_CODE = "PAYMENT_FAILED";
     public static final String PAYMENT_PROVIDER_INVALID_CODE = "PAYMENT_PROVIDER_INVALID";
+    public static final String PAYMENT_PROVIDER_UNAVAILABLE_CODE = "PAYMENT_PROVIDER_UNAVAILABLE";
     
     // Auth Error Codes
     public static final String REGISTRATION_FAILED_CODE = "REGISTRATION_FAILED";
@@ -144,4 +158,9 @@ public final class MessageConstants {
     public static final String VALIDATION_FAILED_CODE = "VALIDATION_FAILED";
     public static final String UNAUTHORIZED_ACCESS_CODE = "UNAUTHORIZED_ACCESS";
     public static final String INTERNAL_SERVER_ERROR_CODE = "INTERNAL_SERVER_ERROR";
+
+    // Idempotency Error Codes
+    public static final String IDEMPOTENCY_KEY_INVALID_CODE = "IDEMPOTENCY_KEY_INVALID";
+    public static final String IDEMPOTENCY_KEY_REUSED_CODE = "IDEMPOTENCY_KEY_REUSED";
+    public static final String IDEMPOTENCY_REQUEST_IN_PROGRESS_CODE = "IDEMPOTENCY_REQUEST_IN_PROGRESS";
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.example.ecommerce.controller;
 
 import com.example.ecommerce.dto.response.ApiResponse;
+import com.example.ecommerce.constants.MessageConstants;
+import com.example.ecommerce.idempotency.IdempotencyException;
+import com.example.ecommerce.payment.PaymentUnavailableException;
 import com.example.ecommerce.security.OwnershipValidationException;
 import com.example.ecommerce.security.ResourceNotFoundException;
 import lombok.extern.slf4j.Slf4j;
@@ -30,6 +33,25 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage(), "RESOURCE_NOT_FOUND"));
     }
     
+    @ExceptionHandler(IdempotencyException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIdempotency(IdempotencyException ex) {
+        log.warn("Idempotency check failed: {}", ex.getMessage());
+        HttpStatus status = switch (ex.getReason()) {
+            case INVALID_KEY -> HttpStatus.BAD_REQUEST;
+            case KEY_REUSED -> HttpStatus.UNPROCESSABLE_ENTITY;
+            case IN_PROGRESS -> HttpStatus.CONFLICT;
+        };
+        return ResponseEntity.status(status)
+                .body(ApiResponse.error(ex.getMessage(), ex.getErrorCode()));
+    }
+    
+    @ExceptionHandler(PaymentUnavailableException.class)
+    public ResponseEntity<ApiResponse<Void>> handlePaymentUnavailable(PaymentUnavailableException ex) {
+        log.warn("Payment provider unavailable: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error(ex.getMessage(), MessageConstants.PAYMENT_PROVIDER_UNAVAILABLE_CODE));
+    }
+    
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ApiResponse<Void>> handleRuntimeException(RuntimeException ex) {
         log.error("Unexpected error occurred: {}", ex.getMessage(), ex);
@@ -3,16 +3,20 @@ package com.example.ecommerce.controller;
 import com.example.ecommerce.command.CommandResult;
 import com.example.ecommerce.constants.CommonConstants;
 import com.example.ecommerce.constants.MessageConstants;
+import com.example.ecommerce.enums.IdempotencyScope;
 import com.example.ecommerce.enums.OrderStatus;
 import com.example.ecommerce.dto.request.CreateOrderRequestDTO;
+import com.example.ecommerce.dto.response.OrderPageResponseDTO;
 import com.example.ecommerce.dto.response.OrderResponseDTO;
 import com.example.ecommerce.dto.request.CancellationRequestDTO;
 import com.example.ecommerce.dto.response.ApiResponse;
 import com.example.ecommerce.dto.response.AvailableActionsResponseDTO;
 import com.example.ecommerce.dto.response.TransitionCheckResponseDTO;
 import com.example.ecommerce.dto.response.UndoInfoResponseDTO;
+import com.example.ecommerce.idempotency.IdempotencyService;
 import com.example.ecommerce.security.OwnershipValidationService;
 import com.example.ecommerce.service.OrderService;
+import com.example.ecommerce.util.OrderCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -22,9 +26,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -39,41 +43,63 @@ public class OrderController {
 
     private final OrderService orderService;
     private final OwnershipValidationService ownershipValidationService;
+    private final IdempotencyService idempotencyService;
 
     /**
-     * Retrieves all orders for the authenticated user.
+     * Retrieves one page of the authenticated user's orders, newest first, using keyset pagination.
      *
      * @param token the JWT authorization header containing the Bearer token
-     * @return a standardized API response containing the user's orders
+     * @param after the {@code nextCursor} of the previous page; omit for the first page
+     * @param size the number of orders per page, capped at {@link CommonConstants#MAX_ORDER_PAGE_SIZE}
+     * @return a standardized API response containing the page and the cursor of the next one
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<OrderResponseDTO>>> getOrders(
-            @RequestHeader(CommonConstants.AUTH_HEADER) String token) {
+    public ResponseEntity<ApiResponse<OrderPageResponseDTO>> getOrders(
+            @RequestHeader(CommonConstants.AUTH_HEADER) String token,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size) {
 
         UUID userId = ownershipValidationService.extractUserIdFromToken(token);
-        List<OrderResponseDTO> orders = orderService.getOrdersByUser(userId);
+        int pageSize = size == null ? CommonConstants.DEFAULT_ORDER_PAGE_SIZE
+                : Math.max(1, Math.min(size, CommonConstants.MAX_ORDER_PAGE_SIZE));
 
-        
-        log.debug("ORDER CONTROLLER: Retrieved {} orders for user {}", orders.size(), userId);
-        return ResponseEntity.ok(ApiResponse.success(orders, MessageConstants.ORDER_RETRIEVED_SUCCESS));
+        OrderCursor cursor;
+        try {
+            cursor = after == null ? null : OrderCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(MessageConstants.ORDER_CURSOR_INVALID,
+                    MessageConstants.ORDER_CURSOR_INVALID_CODE));
+        }
+
+        OrderPageResponseDTO page = orderService.getOrderHistory(userId, cursor, pageSize);
+
+        log.debug("ORDER CONTROLLER: Retrieved page of {} orders for user {}", page.getItems().size(), userId);
+        return ResponseEntity.ok(ApiResponse.success(page, MessageConstants.ORDER_RETRIEVED_SUCCESS));
     }
 
     /**
      * Creates a new order for the authenticated user using Command Pattern.
      *
+     * A retry carrying the same {@code Idempotency-Key} gets the order created by the
+     * first request instead of creating (and reserving stock for) another one.
+     *
      * @param token the JWT authorization header containing the Bearer token
+     * @param idempotencyKey optional client-chosen key that makes the request safe to retry
      * @param request the request containing order details
      * @return a standardized API response containing the created order
      */
     @PostMapping
     public ResponseEntity<ApiResponse<OrderResponseDTO>> createOrder(
             @RequestHeader(CommonConstants.AUTH_HEADER) String token,
+            @RequestHeader(value = CommonConstants.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody CreateOrderRequestDTO request) {
 
         UUID userId = ownershipValidationService.extractUserIdFromToken(token);
         
         // COMMAND PATTERN: Use integrated OrderService command method
-        CommandResult result = orderService.createOrderWithCommand(userId, request);
+        CommandResult result = idempotencyService.executeCommand(IdempotencyScope.CREATE_ORDER, userId,
+                idempotencyKey, request, OrderResponseDTO.class,
+                () -> orderService.createOrderWithCommand(userId, request));
         
         if (result.isSuccess()) {
             log.info("ORDER CONTROLLER: Order created successfully via command pattern");
@@ -104,10 +130,11 @@ public class OrderController {
         log.info("ORDER CONTROLLER: Received cancel request for order {} with reason: {}", orderId, request.getReason());
         
         // Centralized ownership validation
-        ownershipValidationService.validateOrderOwnership(token, orderId);
+        UUID userId = ownershipValidationService.extractUserIdFromToken(token);
+        ownershipValidationService.validateOrderOwnership(userId, orderId);
         
         // COMMAND PATTERN: Use integrated OrderService command method
-        CommandResult result = orderService.cancelOrderWithCommand(orderId, request.getReason());
+        CommandResult result = orderService.cancelOrderWithCommand(userId, orderId, request.getReason());
         
         if (result.isSuccess()) {
             log.info("ORDER CONTROLLER: Successfully cancelled order {} via command pattern", orderId);
@@ -178,7 +205,7 @@ public class OrderController {
     }
 
     /**
-     * Undoes the last command that supports undo operations.
+     * Undoes the caller's last command that supports undo operations.
      * 
      * @param token the JWT authorization header containing the Bearer token
      * @return a standardized API response containing the result of the undo operation
@@ -189,11 +216,11 @@ public class OrderController {
         
         log.info("ORDER CONTROLLER: Received undo request");
         
-        // Validate user authentication (basic check)
+        // Undo history is kept per user, so only the caller's own commands can be undone
         UUID userId = ownershipValidationService.extractUserIdFromToken(token);
         
         // COMMAND PATTERN: Use integrated OrderService undo method
-        CommandResult result = orderService.undoLastCommand();
+        CommandResult result = orderService.undoLastCommand(userId);
         
         if (result.isSuccess()) {
             log.info("ORDER CONTROLLER: Successfully undone last command for user: {}", userId);
@@ -205,7 +232,7 @@ public class OrderController {
     }
 
     /**
-     * Gets information about commands that can be undone.
+     * Gets information about the caller's commands that can be undone.
      *
      * COMMAND PATTERN: Provides visibility into command history.
      * 
@@ -220,12 +247,10 @@ public class OrderController {
         UUID userId = ownershipValidationService.extractUserIdFromToken(token);
         
         // COMMAND PATTERN: Use integrated OrderService command history method
-        String historySummary = orderService.getCommandHistorySummary();
-        boolean hasUndoableCommands = orderService.hasUndoableCommands();
-        
-        // Parse the summary to extract details (simple approach)
-        int undoableCount = hasUndoableCommands ? 1 : 0; // Simplified for demo
-        String lastCommand = hasUndoableCommands ? "Available" : null;
+        String historySummary = orderService.getCommandHistorySummary(userId);
+        int undoableCount = orderService.getUndoableCommandCount(userId);
+        boolean hasUndoableCommands = undoableCount > 0;
+        String lastCommand = orderService.getLastUndoableCommandDescription(userId);
         
         UndoInfoResponseDTO response = UndoInfoResponseDTO.builder()
                 .undoableCommandCount(undoableCount)
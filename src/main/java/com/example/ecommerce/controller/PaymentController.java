@@ -4,6 +4,10 @@ import com.example.ecommerce.constants.CommonConstants;
 import com.example.ecommerce.constants.MessageConstants;
 import com.example.ecommerce.dto.response.ApiResponse;
 import com.example.ecommerce.dto.response.PaymentResponseDTO;
+import com.example.ecommerce.enums.IdempotencyScope;
+import com.example.ecommerce.idempotency.IdempotencyException;
+import com.example.ecommerce.idempotency.IdempotencyService;
+import com.example.ecommerce.payment.PaymentUnavailableException;
 import com.example.ecommerce.security.OwnershipValidationService;
 import com.example.ecommerce.service.PaymentService;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +20,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -29,27 +34,39 @@ public class PaymentController {
 
     private final PaymentService paymentService;
     private final OwnershipValidationService ownershipValidationService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Initiates a payment for the specific order.
      *
-     * @param authHeader the authorization header containing the JWT token
-     * @param orderId    the unique identifier of the order to be paid
-     * @param provider   the payment provider to use (default: {@code mockPayment})
+     * A retry carrying the same {@code Idempotency-Key} gets the outcome of the first
+     * attempt instead of charging again.
+     *
+     * @param authHeader     the authorization header containing the JWT token
+     * @param idempotencyKey optional client-chosen key that makes the request safe to retry
+     * @param orderId        the unique identifier of the order to be paid
+     * @param provider       the payment provider to use (default: {@code mockPayment})
      * @return a standardized API response containing the payment outcome
      */
     @PostMapping("/{orderId}")
     public ResponseEntity<ApiResponse<PaymentResponseDTO>> pay(
             @RequestHeader(CommonConstants.AUTH_HEADER) String authHeader,
+            @RequestHeader(value = CommonConstants.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @PathVariable UUID orderId,
             @RequestParam(defaultValue = "mockPayment") String provider) {
 
         try {
-            ownershipValidationService.validateOrderOwnership(authHeader, orderId);
-            PaymentResponseDTO paymentResponse = paymentService.pay(orderId, provider);
+            UUID userId = ownershipValidationService.extractUserIdFromToken(authHeader);
+            ownershipValidationService.validateOrderOwnership(userId, orderId);
+            PaymentResponseDTO paymentResponse = idempotencyService.execute(IdempotencyScope.PAYMENT, userId,
+                    idempotencyKey, Map.of("orderId", orderId, "provider", provider), PaymentResponseDTO.class,
+                    () -> paymentService.pay(orderId, provider));
             
             log.info("PAYMENT CONTROLLER: Payment processed successfully for order {} using provider {}", orderId, provider);
             return ResponseEntity.ok(ApiResponse.success(paymentResponse, MessageConstants.PAYMENT_PROCESSED_SUCCESS));
+        } catch (IdempotencyException | PaymentUnavailableException e) {
+            // Nothing was charged and the order is untouched; GlobalExceptionHandler maps these
+            throw e;
         } catch (Exception e) {
             log.error("PAYMENT CONTROLLER: Payment failed for order {}: {}", orderId, e.getMessage());
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage(), MessageConstants.PAYMENT_FAILED_CODE));
@@ -1,15 +1,19 @@
 package com.example.ecommerce.controller;
 
+import com.example.ecommerce.constants.CommonConstants;
 import com.example.ecommerce.constants.MessageConstants;
 import com.example.ecommerce.domain.Product;
 import com.example.ecommerce.dto.request.CreateProductRequestDTO;
 import com.example.ecommerce.dto.response.ApiResponse;
+import com.example.ecommerce.dto.response.ProductPageResponseDTO;
 import com.example.ecommerce.dto.response.ProductResponseDTO;
 import com.example.ecommerce.mapper.MapperFacade;
 import com.example.ecommerce.proxy.ProductServiceContract;
 import com.example.ecommerce.util.ResponseUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,8 +22,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -34,21 +42,58 @@ import java.util.stream.Collectors;
 public class ProductController {
 
     private final ProductServiceContract productService;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Retrieves all products.
+     * Retrieves one page of products using keyset pagination.
      *
-     * @return a standardized API response containing a list of all products
+     * @param after the {@code nextCursor} of the previous page; omit for the first page
+     * @param size the number of products per page, capped at {@link CommonConstants#MAX_PAGE_SIZE}
+     * @return a standardized API response containing the page and the cursor of the next one
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ProductResponseDTO>>> getAll() {
-        List<Product> products = productService.findAll();
+    public ResponseEntity<ApiResponse<ProductPageResponseDTO>> getAll(
+            @RequestParam(required = false) UUID after,
+            @RequestParam(required = false) Integer size) {
+        int pageSize = size == null ? CommonConstants.DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(size, CommonConstants.MAX_PAGE_SIZE));
+        
+        // Fetch one extra row to learn whether another page follows
+        List<Product> products = productService.findPage(after, pageSize + 1);
+        boolean hasMore = products.size() > pageSize;
         List<ProductResponseDTO> productDTOs = products.stream()
+                .limit(pageSize)
                 .map(MapperFacade::toResponseDTO)
                 .collect(Collectors.toList());
+        UUID nextCursor = hasMore ? productDTOs.get(productDTOs.size() - 1).getId() : null;
+        
+        log.debug("PRODUCT CONTROLLER: Retrieved page of {} products after {}", productDTOs.size(), after);
+        return ResponseUtil.success(new ProductPageResponseDTO(productDTOs, nextCursor),
+                MessageConstants.PRODUCTS_RETRIEVED_SUCCESS);
+    }
+
+    /**
+     * Streams the whole catalogue as newline-delimited JSON, one product per line.
+     * Products are written as they are read from a database cursor, so memory use
+     * does not grow with the size of the catalogue.
+     *
+     * @return a streaming response of {@code application/x-ndjson}
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        StreamingResponseBody body = out -> productService.forEachProduct(product -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(MapperFacade.toResponseDTO(product)));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
         
-        log.debug("PRODUCT CONTROLLER: Retrieved {} products", productDTOs.size());
-        return ResponseUtil.success(productDTOs, MessageConstants.PRODUCTS_RETRIEVED_SUCCESS);
+        log.debug("PRODUCT CONTROLLER: Streaming product catalogue");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     /**
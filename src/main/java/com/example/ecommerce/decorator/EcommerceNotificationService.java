@@ -10,22 +10,21 @@ import java.util.List;
 /**
  * E-commerce specific notification service that integrates with business operations.
  * Uses the Decorator pattern to send notifications through multiple channels.
+ * Notifications are queued and sent in the background, see {@link NotificationDispatcher}.
  */
 @Service
 public class EcommerceNotificationService {
     
-    private final NotificationServiceFactory notificationFactory;
+    private final NotificationDispatcher notificationDispatcher;
     
-    public EcommerceNotificationService(NotificationServiceFactory notificationFactory) {
-        this.notificationFactory = notificationFactory;
+    public EcommerceNotificationService(NotificationDispatcher notificationDispatcher) {
+        this.notificationDispatcher = notificationDispatcher;
     }
     
     /**
      * Sends order confirmation notification to customer.
      */
     public void sendOrderConfirmation(Order order, User customer) {
-        NotificationService service = notificationFactory.createOrderNotificationService();
-        
         String subject = "Order Confirmation - Order #" + order.getId();
         String message = String.format(
             "Thank you for your order!\n\n" +
@@ -38,15 +37,13 @@ public class EcommerceNotificationService {
             order.getStatus()
         );
         
-        service.sendNotification(customer.getEmail(), subject, message);
+        notificationDispatcher.dispatch(NotificationServiceFactory.ORDER_CHANNELS, customer.getEmail(), subject, message);
     }
     
     /**
      * Sends order status update notification.
      */
     public void sendOrderStatusUpdate(Order order, User customer, String newStatus) {
-        NotificationService service = notificationFactory.createOrderNotificationService();
-        
         String subject = "Order Update - Order #" + order.getId();
         String message = String.format(
             "Hello,\n\n" +
@@ -57,15 +54,13 @@ public class EcommerceNotificationService {
             newStatus
         );
         
-        service.sendNotification(customer.getEmail(), subject, message);
+        notificationDispatcher.dispatch(NotificationServiceFactory.ORDER_CHANNELS, customer.getEmail(), subject, message);
     }
     
     /**
      * Sends low inventory alert to administrators.
      */
     public void sendLowInventoryAlert(Product product, int currentStock, int threshold) {
-        NotificationService service = notificationFactory.createAdminNotificationService();
-        
         String subject = "Low Inventory Alert - " + product.getName();
         String message = String.format(
             "INVENTORY ALERT\n\n" +
@@ -79,15 +74,13 @@ public class EcommerceNotificationService {
             threshold
         );
         
-        service.sendNotification("admin@ecommerce.com", subject, message);
+        notificationDispatcher.dispatch(NotificationServiceFactory.ADMIN_CHANNELS, "admin@ecommerce.com", subject, message);
     }
     
     /**
      * Sends payment failure notification.
      */
     public void sendPaymentFailureNotification(Order order, User customer, String reason) {
-        NotificationService service = notificationFactory.createUrgentNotificationService();
-        
         String subject = "Payment Issue - Order #" + order.getId();
         String message = String.format(
             "Hello,\n\n" +
@@ -99,19 +92,13 @@ public class EcommerceNotificationService {
             reason
         );
 
-        service.sendNotification(customer.getEmail(), subject, message);
+        notificationDispatcher.dispatch(NotificationServiceFactory.URGENT_CHANNELS, customer.getEmail(), subject, message);
     }
     
     /**
      * Sends welcome notification to new users.
      */
     public void sendWelcomeNotification(User user) {
-        NotificationService service = notificationFactory.createNotificationService(
-            List.of(
-                NotificationServiceFactory.NotificationChannel.PUSH
-            )
-        );
-        
         String subject = "Welcome to Our E-commerce Store!";
         String message = """
                 Welcome!
@@ -121,6 +108,7 @@ public class EcommerceNotificationService {
                 
                 Happy shopping!""";
         
-        service.sendNotification(user.getEmail(), subject, message);
+        notificationDispatcher.dispatch(List.of(NotificationServiceFactory.NotificationChannel.PUSH),
+            user.getEmail(), subject, message);
     }
 }
\ No newline at end of file
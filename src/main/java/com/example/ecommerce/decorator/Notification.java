@@ -0,0 +1,7 @@
+package com.example.ecommerce.decorator;
+
+/**
+ * A notification waiting to be sent on one channel.
+ */
+public record Notification(String recipient, String subject, String message) {
+}
\ No newline at end of file
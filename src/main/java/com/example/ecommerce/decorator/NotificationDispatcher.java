@@ -0,0 +1,325 @@
+package com.example.ecommerce.decorator;
+
+import com.example.ecommerce.decorator.NotificationServiceFactory.NotificationChannel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sends notifications asynchronously, each channel on its own.
+ *
+ * Every channel has a bounded queue drained by a dedicated sender thread, so a
+ * notification fans out to all its channels at once and a slow or failing channel
+ * only holds up itself. A sender takes whatever has queued up, waiting up to the
+ * channel's batch window for more, and sends all notifications for the same recipient
+ * as one message: a burst of low-stock alerts becomes a single Slack post.
+ *
+ * Failed sends are retried with exponentially growing delays; notifications that still
+ * cannot be sent, or that find their channel's queue full, are dead-lettered: logged,
+ * counted and kept in a bounded per-channel store for inspection.
+ *
+ * Settings come from {@code app.notifications.*} and can be overridden per channel under
+ * {@code app.notifications.channels.<channel>.*}, the channel being its lower-cased name
+ * (e.g. {@code slack}). Queue depth, batch sizes, sent, retried and dead-lettered
+ * notifications are exported per channel as {@code notifications.*} metrics.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private static final String PREFIX = "app.notifications.";
+
+    private final Map<NotificationChannel, ChannelSender> senders = new EnumMap<>(NotificationChannel.class);
+    private volatile boolean running;
+
+    @Autowired
+    public NotificationDispatcher(NotificationServiceFactory notificationFactory, MeterRegistry meterRegistry,
+                                  Environment environment) {
+        this(notificationFactory::getChannelService, meterRegistry, channel -> Policy.from(environment, channel));
+    }
+
+    NotificationDispatcher(Function<NotificationChannel, NotificationService> channelServices,
+                           MeterRegistry meterRegistry,
+                           Function<NotificationChannel, Policy> policies) {
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            senders.put(channel, new ChannelSender(channel, channelServices.apply(channel),
+                    policies.apply(channel), meterRegistry));
+        }
+    }
+
+    /**
+     * Queues a notification on email, the base channel, and on each of the given channels.
+     *
+     * @param channels the channels on top of email, such as {@link NotificationServiceFactory#ORDER_CHANNELS}
+     */
+    public void dispatch(List<NotificationChannel> channels, String recipient, String subject, String message) {
+        Notification notification = new Notification(recipient, subject, message);
+        senders.get(NotificationChannel.EMAIL).enqueue(notification);
+        for (NotificationChannel channel : channels) {
+            if (channel != NotificationChannel.EMAIL) {
+                senders.get(channel).enqueue(notification);
+            }
+        }
+    }
+
+    /**
+     * @return the notifications dead-lettered on a channel, oldest first
+     */
+    public List<Notification> getDeadLetters(NotificationChannel channel) {
+        return List.copyOf(senders.get(channel).deadLetters);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        senders.values().forEach(ChannelSender::start);
+    }
+
+    /**
+     * Stops the senders once every queued notification has been sent.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        for (ChannelSender sender : senders.values()) {
+            sender.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        }
+    }
+
+    /**
+     * Sends up to one batch of the notifications queued on a channel, without waiting for more.
+     *
+     * @return the number of notifications taken off the queue
+     */
+    int flush(NotificationChannel channel) {
+        ChannelSender sender = senders.get(channel);
+        List<Notification> batch = new ArrayList<>(sender.policy.batchSize());
+        sender.queue.drainTo(batch, sender.policy.batchSize());
+        if (!batch.isEmpty()) {
+            sender.send(batch);
+        }
+        return batch.size();
+    }
+
+    /**
+     * A channel's queue, sender thread and meters.
+     */
+    private final class ChannelSender {
+
+        private final NotificationChannel channel;
+        private final NotificationService service;
+        private final Policy policy;
+        private final BlockingQueue<Notification> queue;
+        private final BlockingQueue<Notification> deadLetters;
+        private final Counter sent;
+        private final Counter retries;
+        private final Counter failed;
+        private final Counter rejected;
+        private final DistributionSummary batchSizes;
+        private Thread thread;
+
+        ChannelSender(NotificationChannel channel, NotificationService service, Policy policy,
+                      MeterRegistry meterRegistry) {
+            String name = channel.name().toLowerCase(Locale.ROOT);
+            this.channel = channel;
+            this.service = service;
+            this.policy = policy;
+            this.queue = new ArrayBlockingQueue<>(policy.queueCapacity());
+            this.deadLetters = new ArrayBlockingQueue<>(policy.deadLetterCapacity());
+            meterRegistry.gaugeCollectionSize("notifications.queue.size", Tags.of("channel", name), queue);
+            meterRegistry.gaugeCollectionSize("notifications.dead.letters", Tags.of("channel", name), deadLetters);
+            this.sent = Counter.builder("notifications.sent")
+                    .description("Notifications sent")
+                    .tag("channel", name)
+                    .register(meterRegistry);
+            this.retries = Counter.builder("notifications.retries")
+                    .description("Retried notification sends")
+                    .tag("channel", name)
+                    .register(meterRegistry);
+            this.failed = deadLettered(meterRegistry, name, "failed");
+            this.rejected = deadLettered(meterRegistry, name, "queue_full");
+            this.batchSizes = DistributionSummary.builder("notifications.batch.size")
+                    .description("Notifications taken off the queue per batch")
+                    .tag("channel", name)
+                    .register(meterRegistry);
+        }
+
+        void start() {
+            thread = new Thread(this::run, "notifications-" + channel.name().toLowerCase(Locale.ROOT));
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void join(long millis) throws InterruptedException {
+            if (thread != null) {
+                thread.join(millis);
+            }
+        }
+
+        void enqueue(Notification notification) {
+            if (!queue.offer(notification)) {
+                log.error("NOTIFICATIONS: {} queue full, dead-lettering notification to {}",
+                        channel, notification.recipient());
+                rejected.increment();
+                deadLetter(notification);
+            }
+        }
+
+        private void run() {
+            while (running || !queue.isEmpty()) {
+                try {
+                    Notification first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    List<Notification> batch = new ArrayList<>(policy.batchSize());
+                    batch.add(first);
+                    fill(batch);
+                    send(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    log.error("NOTIFICATIONS: {} sender failed", channel, e);
+                }
+            }
+        }
+
+        private void fill(List<Notification> batch) throws InterruptedException {
+            long deadline = System.nanoTime() + policy.batchWindow().toNanos();
+            while (batch.size() < policy.batchSize()) {
+                queue.drainTo(batch, policy.batchSize() - batch.size());
+                long remaining = deadline - System.nanoTime();
+                if (batch.size() >= policy.batchSize() || remaining <= 0 || !running) {
+                    return;
+                }
+                Notification next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+            }
+        }
+
+        void send(List<Notification> batch) {
+            batchSizes.record(batch.size());
+            Map<String, List<Notification>> byRecipient = batch.stream()
+                    .collect(Collectors.groupingBy(Notification::recipient, LinkedHashMap::new, Collectors.toList()));
+            byRecipient.values().forEach(this::sendCombined);
+        }
+
+        private void sendCombined(List<Notification> notifications) {
+            Notification combined = notifications.size() == 1 ? notifications.get(0) : combine(notifications);
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    service.sendNotification(combined.recipient(), combined.subject(), combined.message());
+                    sent.increment(notifications.size());
+                    return;
+                } catch (RuntimeException e) {
+                    if (attempt >= policy.maxAttempts()) {
+                        log.error("NOTIFICATIONS: {} send to {} failed after {} attempt(s), dead-lettering {} notification(s)",
+                                channel, combined.recipient(), attempt, notifications.size(), e);
+                        failed.increment(notifications.size());
+                        notifications.forEach(this::deadLetter);
+                        return;
+                    }
+                    long delay = policy.backoff().toMillis() << Math.min(attempt - 1, 20);
+                    log.warn("NOTIFICATIONS: {} send to {} failed ({}), retrying in {}ms",
+                            channel, combined.recipient(), e.getMessage(), delay);
+                    retries.increment();
+                    if (!sleep(delay)) {
+                        notifications.forEach(this::deadLetter);
+                        return;
+                    }
+                }
+            }
+        }
+
+        private void deadLetter(Notification notification) {
+            // Bounded: the oldest dead letter makes room for the newest
+            while (!deadLetters.offer(notification)) {
+                deadLetters.poll();
+            }
+        }
+    }
+
+    private static Notification combine(List<Notification> notifications) {
+        String message = notifications.stream()
+                .map(notification -> notification.subject() + "\n" + notification.message())
+                .collect(Collectors.joining("\n\n"));
+        return new Notification(notifications.get(0).recipient(),
+                notifications.size() + " notifications: " + notifications.get(0).subject(), message);
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Counter deadLettered(MeterRegistry meterRegistry, String channel, String reason) {
+        return Counter.builder("notifications.dead.lettered")
+                .description("Notifications given up on")
+                .tags("channel", channel, "reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queueing, batching and retry settings for one channel.
+     */
+    public record Policy(int queueCapacity,
+                         int batchSize,
+                         Duration batchWindow,
+                         int maxAttempts,
+                         Duration backoff,
+                         int deadLetterCapacity) {
+
+        public Policy {
+            queueCapacity = Math.max(1, queueCapacity);
+            batchSize = Math.max(1, batchSize);
+            maxAttempts = Math.max(1, maxAttempts);
+            deadLetterCapacity = Math.max(1, deadLetterCapacity);
+        }
+
+        static Policy from(Environment environment, NotificationChannel channel) {
+            String own = PREFIX + "channels." + channel.name().toLowerCase(Locale.ROOT) + ".";
+            return new Policy(
+                    setting(environment, own, "queue-capacity", Integer.class, 1000),
+                    setting(environment, own, "batch-size", Integer.class, 1),
+                    setting(environment, own, "batch-window", Duration.class, Duration.ZERO),
+                    setting(environment, own, "max-attempts", Integer.class, 3),
+                    setting(environment, own, "backoff", Duration.class, Duration.ofMillis(500)),
+                    setting(environment, own, "dead-letter-capacity", Integer.class, 1000));
+        }
+
+        private static <V> V setting(Environment environment, String own, String name, Class<V> type, V fallback) {
+            return environment.getProperty(own + name, type,
+                    environment.getProperty(PREFIX + name, type, fallback));
+        }
+    }
+}
\ No newline at end of file
@@ -1,69 +1,74 @@
 package com.example.ecommerce.decorator;
 
 import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Factory for creating decorated notification services.
  * Demonstrates the Decorator pattern by allowing dynamic composition of notification channels.
+ *
+ * Decorators hold no per-call state, so each channel's service is built once and then shared.
  */
 @Component
 public class NotificationServiceFactory {
-    
-    private final BasicNotificationService basicService;
-    
-    public NotificationServiceFactory(BasicNotificationService basicService) {
-        this.basicService = basicService;
-    }
-    
+
     /**
-     * Creates a notification service with specified channels.
-     * 
-     * @param channels List of notification channels to include
-     * @return Decorated notification service
+     * Channels for order-related notifications: Email (base) + Push.
      */
-    public NotificationService createNotificationService(List<NotificationChannel> channels) {
-        NotificationService service = basicService;
-        
-        for (NotificationChannel channel : channels) {
-            service = decorateWithChannel(service, channel);
-        }
-        
-        return service;
-    }
-    
+    public static final List<NotificationChannel> ORDER_CHANNELS = List.of(
+        NotificationChannel.PUSH
+    );
+
     /**
-     * Creates a notification service for order-related notifications.
-     * Email (base) + Push notifications.
+     * Channels for urgent notifications: Email (base) + SMS + Push + Slack for maximum reach.
      */
-    public NotificationService createOrderNotificationService() {
-        return createNotificationService(List.of(
-            NotificationChannel.PUSH
-        ));
-    }
-    
+    public static final List<NotificationChannel> URGENT_CHANNELS = List.of(
+        NotificationChannel.SMS,
+        NotificationChannel.PUSH,
+        NotificationChannel.SLACK
+    );
+
+    /**
+     * Channels for admin notifications: Email (base) + Slack for internal communications.
+     */
+    public static final List<NotificationChannel> ADMIN_CHANNELS = List.of(
+        NotificationChannel.SLACK
+    );
+
     /**
-     * Creates a notification service for urgent notifications.
-     * Email (base) + SMS + Push + Slack for maximum reach.
+     * Base for single-channel services, so they send on their own channel only.
      */
-    public NotificationService createUrgentNotificationService() {
-        return createNotificationService(List.of(
-            NotificationChannel.SMS,
-            NotificationChannel.PUSH,
-            NotificationChannel.SLACK
-        ));
+    private static final NotificationService NO_EMAIL = new NotificationService() {
+        @Override
+        public void sendNotification(String recipient, String subject, String message) {
+        }
+
+        @Override
+        public String getNotificationDetails() {
+            return "";
+        }
+    };
+
+    private final Map<NotificationChannel, NotificationService> channelServices = new EnumMap<>(NotificationChannel.class);
+
+    public NotificationServiceFactory(BasicNotificationService basicService) {
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            channelServices.put(channel, channel == NotificationChannel.EMAIL
+                    ? basicService
+                    : decorateWithChannel(NO_EMAIL, channel));
+        }
     }
-    
+
     /**
-     * Creates a notification service for admin notifications.
-     * Email (base) + Slack for internal communications.
+     * Returns a notification service sending on a single channel, without the email base.
      */
-    public NotificationService createAdminNotificationService() {
-        return createNotificationService(List.of(
-            NotificationChannel.SLACK
-        ));
+    public NotificationService getChannelService(NotificationChannel channel) {
+        return channelServices.get(channel);
     }
-    
+
     private NotificationService decorateWithChannel(NotificationService service, NotificationChannel channel) {
         return switch (channel) {
             case EMAIL -> service; // Email is already the base service
@@ -72,7 +77,7 @@ public class NotificationServiceFactory {
             case SLACK -> new SlackNotificationDecorator(service);
         };
     }
-    
+
     public enum NotificationChannel {
         EMAIL, SMS, PUSH, SLACK
     }
@@ -0,0 +1,83 @@
+package com.example.ecommerce.domain;
+
+import com.example.ecommerce.enums.CommandType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Entity representing one executed command in the append-only command journal.
+ *
+ * The journal is shared by all nodes, so a command can be undone on any of them
+ * and survives restarts. Rows are never updated except to mark them undone.
+ */
+@Entity
+@Table(name = "command_journal")
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class CommandJournalEntry {
+
+    /**
+     * The position of the entry in the journal.
+     * Drawn from a sequence in blocks of 50 so batched inserts need no round trip per row.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "command_journal_seq")
+    @SequenceGenerator(name = "command_journal_seq", sequenceName = "command_journal_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * The identifier of the user who executed the command.
+     */
+    @Column(nullable = false)
+    private UUID userId;
+
+    /**
+     * The kind of command.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CommandType commandType;
+
+    /**
+     * Whether the command can be undone.
+     */
+    @Column(nullable = false)
+    private boolean undoable;
+
+    /**
+     * The order the command acted on.
+     */
+    @Column(nullable = false)
+    private UUID orderId;
+
+    /**
+     * The reason given for the command, if any.
+     */
+    private String reason;
+
+    /**
+     * When the command was executed.
+     */
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    /**
+     * When the command was undone, or {@code null} if it has not been.
+     */
+    private Instant undoneAt;
+}
@@ -0,0 +1,54 @@
+package com.example.ecommerce.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Entity representing an idempotency key held in the database.
+ *
+ * Used when Redis is unavailable, so retried requests stay safe through a Redis outage.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class IdempotencyKeyEntry {
+
+    /**
+     * The key, namespaced by operation and user.
+     */
+    @Id
+    private String idempotencyKey;
+
+    /**
+     * The hash of the request that first used the key.
+     */
+    @Column(nullable = false)
+    private String fingerprint;
+
+    /**
+     * Whether the request has finished and its response is stored.
+     */
+    @Column(nullable = false)
+    private boolean completed;
+
+    /**
+     * The serialized response, once completed.
+     */
+    private String response;
+
+    /**
+     * When the in-flight lease or the stored response runs out.
+     */
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
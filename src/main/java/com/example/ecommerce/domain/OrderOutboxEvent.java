@@ -0,0 +1,172 @@
+package com.example.ecommerce.domain;
+
+import com.example.ecommerce.enums.OrderStatus;
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Entity representing an order status change waiting to be delivered to
+ * after-commit observers (transactional outbox).
+ *
+ * A row is written in the same transaction as the status change itself and
+ * is marked processed by the relay once every interested observer has handled it.
+ * Observers that already handled it are recorded, so a retry only goes to the rest.
+ */
+@Entity
+@Table(name = "order_outbox")
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class OrderOutboxEvent {
+
+    /**
+     * The unique identifier of the event.
+     */
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    /**
+     * The identifier of the order whose status changed.
+     */
+    @Column(nullable = false)
+    private UUID orderId;
+
+    /**
+     * The identifier of the user who placed the order.
+     */
+    @Column(nullable = false)
+    private UUID userId;
+
+    /**
+     * The order total at the time of the change.
+     */
+    @Column(nullable = false)
+    private BigDecimal total;
+
+    /**
+     * The status before the change.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus oldStatus;
+
+    /**
+     * The status after the change.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus newStatus;
+
+    /**
+     * The timestamp when the change was recorded.
+     */
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    /**
+     * The earliest time the relay may (re)try the event.
+     */
+    @Column(nullable = false)
+    private Instant availableAt;
+
+    /**
+     * The timestamp when the event was delivered or given up on; null while pending.
+     */
+    private Instant processedAt;
+
+    /**
+     * The number of failed delivery attempts so far.
+     */
+    @Column(nullable = false)
+    private int attempts;
+
+    /**
+     * The error of the most recent failed attempt, if any.
+     */
+    private String lastError;
+
+    /**
+     * The names of the observers that have handled the event so far.
+     */
+    @ElementCollection
+    @CollectionTable(name = "order_outbox_deliveries", joinColumns = @JoinColumn(name = "event_id"))
+    @Column(name = "observer")
+    @Builder.Default
+    private Set<String> deliveredTo = new HashSet<>();
+
+    /**
+     * Records a status change of the given order.
+     *
+     * @param order the order that changed
+     * @param oldStatus the previous status
+     * @param newStatus the new status
+     * @return a new pending event
+     */
+    public static OrderOutboxEvent of(Order order, OrderStatus oldStatus, OrderStatus newStatus) {
+        Instant now = Instant.now();
+        return OrderOutboxEvent.builder()
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .total(order.getTotal())
+                .oldStatus(oldStatus)
+                .newStatus(newStatus)
+                .createdAt(now)
+                .availableAt(now)
+                .build();
+    }
+
+    /**
+     * @param observer the observer's name
+     * @return true if the observer has already handled the event
+     */
+    public boolean isDeliveredTo(String observer) {
+        return deliveredTo.contains(observer);
+    }
+
+    /**
+     * Records that the observer has handled the event, so retries skip it.
+     *
+     * @param observer the observer's name
+     */
+    public void markDeliveredTo(String observer) {
+        deliveredTo.add(observer);
+    }
+
+    /**
+     * Rebuilds the order as observers saw it when the change happened.
+     *
+     * Items are not part of the event, so the order has none: after-commit observers
+     * only get its identity, owner, total and status. Observers that need the items,
+     * like {@link com.example.ecommerce.observer.InventoryReleaseObserver}, run in the
+     * transaction instead, or load them in their prefetch.
+     *
+     * @return a detached order carrying the event's data, without items
+     */
+    public Order toOrder() {
+        return Order.builder()
+                .id(orderId)
+                .userId(userId)
+                .total(total)
+                .status(newStatus)
+                .build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.example.ecommerce.dto.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Read-only projection of an order item together with the ID of its order.
+ *
+ * @param orderId the ID of the order the item belongs to
+ * @param productId the ordered product
+ * @param quantity the ordered quantity
+ * @param price the unit price at the time of ordering
+ */
+public record OrderItemView(UUID orderId, UUID productId, int quantity, BigDecimal price) {
+}
@@ -0,0 +1,19 @@
+package com.example.ecommerce.dto.projection;
+
+import com.example.ecommerce.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Read-only projection of the scalar columns of an order, used for order history pages.
+ *
+ * @param id the order ID
+ * @param userId the ID of the user who placed the order
+ * @param total the order total
+ * @param status the current status
+ * @param createdAt when the order was created
+ */
+public record OrderSummaryView(UUID id, UUID userId, BigDecimal total, OrderStatus status, Instant createdAt) {
+}
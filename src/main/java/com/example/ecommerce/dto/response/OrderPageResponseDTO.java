@@ -0,0 +1,29 @@
+package com.example.ecommerce.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for one page of a user's order history.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPageResponseDTO {
+
+    /**
+     * The orders on this page, newest first.
+     */
+    private List<OrderResponseDTO> items;
+
+    /**
+     * The cursor to pass as {@code after} to fetch the next page,
+     * or {@code null} if this is the last page.
+     */
+    private String nextCursor;
+}
@@ -4,6 +4,7 @@ import com.example.ecommerce.enums.OrderStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -17,6 +18,7 @@ import java.util.UUID;
  */
 @Data
 @Builder
+@NoArgsConstructor
 @AllArgsConstructor
 public class OrderResponseDTO {
     private UUID id;
@@ -31,6 +33,7 @@ public class OrderResponseDTO {
      */
     @Data
     @Builder
+    @NoArgsConstructor
     @AllArgsConstructor
     public static class OrderItemResponse {
         private UUID productId;
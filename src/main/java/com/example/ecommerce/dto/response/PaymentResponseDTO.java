@@ -4,6 +4,7 @@ import com.example.ecommerce.enums.OrderStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.UUID;
 
@@ -12,6 +13,7 @@ import java.util.UUID;
  */
 @Data
 @Builder
+@NoArgsConstructor
 @AllArgsConstructor
 public class PaymentResponseDTO {
 
@@ -0,0 +1,30 @@
+package com.example.ecommerce.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response DTO for one page of the product catalogue.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPageResponseDTO {
+
+    /**
+     * The products on this page, in ID order.
+     */
+    private List<ProductResponseDTO> items;
+
+    /**
+     * The cursor to pass as {@code after} to fetch the next page,
+     * or {@code null} if this is the last page.
+     */
+    private UUID nextCursor;
+}
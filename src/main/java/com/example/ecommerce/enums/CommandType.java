@@ -0,0 +1,16 @@
+package com.example.ecommerce.enums;
+
+/**
+ * Kinds of commands that can be written to the command journal.
+ */
+public enum CommandType {
+    /**
+     * An order was created; undone by cancelling it.
+     */
+    CREATE_ORDER,
+
+    /**
+     * An order was cancelled; kept for the audit trail only.
+     */
+    CANCEL_ORDER
+}
@@ -0,0 +1,19 @@
+package com.example.ecommerce.enums;
+
+/**
+ * Operations that accept an idempotency key.
+ *
+ * Keys are namespaced by scope and user, so the same key sent to two different
+ * operations, or by two different users, never collides.
+ */
+public enum IdempotencyScope {
+    /**
+     * Order creation, over REST or SOAP.
+     */
+    CREATE_ORDER,
+
+    /**
+     * Payment of an order.
+     */
+    PAYMENT
+}
@@ -3,32 +3,185 @@ package com.example.ecommerce.event;
 import com.example.ecommerce.decorator.EcommerceNotificationService;
 import com.example.ecommerce.domain.Product;
 import com.example.ecommerce.proxy.ProductServiceContract;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Handles low inventory events by sending notifications.
  * This decouples InventoryService from ProductService.
+ *
+ * Events arrive once the reserving transaction commits and are only recorded on the
+ * committing thread; alerts go out in the background. Each product moves from idle to
+ * pending on its first event, collecting further events for the coalescing window, and
+ * then to alerted once its alert is sent. An alerted product stays quiet for the
+ * cooldown, so stock flapping around the threshold does not alert again and again.
+ * An alert that fails to send stays pending and is retried after another window.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class LowInventoryEventHandler {
-    
+
     private final ProductServiceContract productService;
     private final EcommerceNotificationService notificationService;
-    
-    @EventListener
+    private final Duration window;
+    private final Cache<UUID, Boolean> alerted;
+    private final Map<UUID, LowInventoryEvent> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Counter sent;
+    private final Counter coalesced;
+    private final Counter suppressed;
+
+    @Autowired
+    public LowInventoryEventHandler(ProductServiceContract productService,
+                                    EcommerceNotificationService notificationService,
+                                    @Value("${app.inventory.low-stock-alerts.window:30s}") Duration window,
+                                    @Value("${app.inventory.low-stock-alerts.cooldown:15m}") Duration cooldown,
+                                    MeterRegistry meterRegistry) {
+        this(productService, notificationService, window, cooldown, Ticker.systemTicker(), meterRegistry);
+    }
+
+    LowInventoryEventHandler(ProductServiceContract productService,
+                             EcommerceNotificationService notificationService,
+                             Duration window,
+                             Duration cooldown,
+                             Ticker ticker,
+                             MeterRegistry meterRegistry) {
+        this.productService = productService;
+        this.notificationService = notificationService;
+        this.window = window;
+        this.alerted = Caffeine.newBuilder()
+                .expireAfterWrite(cooldown)
+                .ticker(ticker)
+                .build();
+        this.scheduler = new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("low-inventory-alerts-"));
+        this.sent = alerts(meterRegistry, "sent");
+        this.coalesced = alerts(meterRegistry, "coalesced");
+        this.suppressed = alerts(meterRegistry, "suppressed");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
     public void handleLowInventoryEvent(LowInventoryEvent event) {
+        UUID productId = event.getProductId();
+        if (alerted.getIfPresent(productId) != null) {
+            log.debug("Low inventory alert for product {} suppressed, one was sent recently", productId);
+            suppressed.increment();
+            return;
+        }
+        if (pending.put(productId, event) != null) {
+            coalesced.increment();
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Sends one alert for every pending product, with the latest stock reported for it.
+     *
+     * @return the number of alerts sent
+     */
+    int flush() {
+        // Cleared first, so events arriving during this flush schedule the next one
+        flushScheduled.set(false);
+        List<LowInventoryEvent> due = new ArrayList<>();
+        for (UUID productId : List.copyOf(pending.keySet())) {
+            LowInventoryEvent event = pending.remove(productId);
+            if (event == null) {
+                continue;
+            }
+            if (alerted.getIfPresent(productId) != null) {
+                // Arrived while the previous flush was sending this product's alert
+                suppressed.increment();
+            } else {
+                due.add(event);
+            }
+        }
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        Map<UUID, Product> products;
         try {
-            Product product = productService.findById(event.getProductId());
-            log.warn("Low inventory detected for product {} - Current stock: {}", 
-                product.getName(), event.getCurrentStock());
-            notificationService.sendLowInventoryAlert(product, event.getCurrentStock(), event.getThreshold());
+            products = productService.findAllById(
+                    due.stream().map(LowInventoryEvent::getProductId).toList()).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
         } catch (RuntimeException e) {
-            log.warn("Could not find product {} for low inventory alert", event.getProductId());
+            log.error("Failed to look up products for {} low inventory alert(s), retrying", due.size(), e);
+            due.forEach(this::retry);
+            return 0;
+        }
+
+        int count = 0;
+        for (LowInventoryEvent event : due) {
+            Product product = products.get(event.getProductId());
+            if (product == null) {
+                log.warn("Could not find product {} for low inventory alert", event.getProductId());
+                continue;
+            }
+            log.warn("Low inventory detected for product {} - Current stock: {}",
+                product.getName(), event.getCurrentStock());
+            try {
+                notificationService.sendLowInventoryAlert(product, event.getCurrentStock(), event.getThreshold());
+            } catch (RuntimeException e) {
+                log.error("Failed to send low inventory alert for product {}, retrying", product.getName(), e);
+                retry(event);
+                continue;
+            }
+            alerted.put(event.getProductId(), Boolean.TRUE);
+            count++;
         }
+        sent.increment(count);
+        return count;
+    }
+
+    /**
+     * Puts an unsent alert back for the next flush, unless a newer event for its product is already pending.
+     */
+    private void retry(LowInventoryEvent event) {
+        pending.putIfAbsent(event.getProductId(), event);
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (!scheduler.isShutdown() && flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, window.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends the alerts still pending rather than waiting out their window.
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        flush();
+    }
+
+    private static Counter alerts(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("inventory.low.stock.alerts")
+                .description("Low inventory events by what became of them")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package com.example.ecommerce.external;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 
 /**
  * Simulates PayPal's payment gateway API.
@@ -13,6 +15,15 @@ import java.math.BigDecimal;
 @Slf4j
 public class PayPalPaymentGateway {
     
+    private final Duration latency;
+    
+    /**
+     * @param latency simulated network delay of every call; raise it to exercise timeouts
+     */
+    public PayPalPaymentGateway(@Value("${app.payment.paypal.simulated-latency:300ms}") Duration latency) {
+        this.latency = latency;
+    }
+    
     /**
      * PayPal's API method for processing payments.
      * Notice: Different method name, parameters, and response structure than Stripe.
@@ -22,7 +33,7 @@ public class PayPalPaymentGateway {
         
         // Simulate PayPal API call
         try {
-            Thread.sleep(300); // Simulate network delay
+            Thread.sleep(latency.toMillis()); // Simulate network delay
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
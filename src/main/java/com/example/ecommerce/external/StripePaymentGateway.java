@@ -1,9 +1,11 @@
 package com.example.ecommerce.external;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 
 /**
  * Simulates Stripe's payment gateway API.
@@ -13,6 +15,15 @@ import java.math.BigDecimal;
 @Slf4j
 public class StripePaymentGateway {
     
+    private final Duration latency;
+    
+    /**
+     * @param latency simulated network delay of every call; raise it to exercise timeouts
+     */
+    public StripePaymentGateway(@Value("${app.payment.stripe.simulated-latency:200ms}") Duration latency) {
+        this.latency = latency;
+    }
+    
     /**
      * Stripe's API method for creating a payment intent.
      * Notice: Different method name and parameters than our internal API.
@@ -22,7 +33,7 @@ public class StripePaymentGateway {
         
         // Simulate Stripe API call
         try {
-            Thread.sleep(200); // Simulate network delay
+            Thread.sleep(latency.toMillis()); // Simulate network delay
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
@@ -0,0 +1,73 @@
+package com.example.ecommerce.idempotency;
+
+import com.example.ecommerce.repository.IdempotencyKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Idempotency keys kept in the {@code idempotency_keys} table.
+ *
+ * The fallback for when Redis is unavailable; keys claimed in Redis are written through
+ * here too, so it knows every key. Every call commits on its own, so a claim is visible
+ * to other nodes before the request it guards starts. Expired keys are
+ * purged at most once an hour, piggybacking on claims.
+ */
+@Component
+@Slf4j
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    private static final Duration PURGE_INTERVAL = Duration.ofHours(1);
+
+    private final IdempotencyKeyRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicReference<Instant> lastPurge = new AtomicReference<>(Instant.EPOCH);
+
+    public DatabaseIdempotencyStore(IdempotencyKeyRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public boolean tryBegin(String key, String fingerprint, Duration lease) {
+        Instant now = Instant.now();
+        purgeIfDue(now);
+        Integer claimed = transactionTemplate.execute(status ->
+                repository.claim(key, fingerprint, now.plus(lease), now));
+        return claimed != null && claimed > 0;
+    }
+
+    @Override
+    public IdempotencyRecord find(String key) {
+        return repository.findLive(key, Instant.now()).orElse(null);
+    }
+
+    @Override
+    public void complete(String key, String fingerprint, String response, Duration retention) {
+        transactionTemplate.executeWithoutResult(status ->
+                repository.complete(key, fingerprint, response, Instant.now().plus(retention)));
+    }
+
+    @Override
+    public void release(String key, String fingerprint) {
+        transactionTemplate.executeWithoutResult(status -> repository.release(key, fingerprint));
+    }
+
+    private void purgeIfDue(Instant now) {
+        Instant previous = lastPurge.get();
+        if (previous.isAfter(now.minus(PURGE_INTERVAL)) || !lastPurge.compareAndSet(previous, now)) {
+            return;
+        }
+        Integer deleted = transactionTemplate.execute(status -> repository.deleteExpiredBefore(now));
+        if (deleted != null && deleted > 0) {
+            log.info("IDEMPOTENCY: Purged {} expired idempotency keys", deleted);
+        }
+    }
+}
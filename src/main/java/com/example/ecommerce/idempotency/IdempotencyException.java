@@ -0,0 +1,47 @@
+package com.example.ecommerce.idempotency;
+
+import com.example.ecommerce.constants.MessageConstants;
+
+/**
+ * Thrown when a request cannot be served under the idempotency key it carries.
+ */
+public class IdempotencyException extends RuntimeException {
+
+    /**
+     * Why the request was rejected.
+     */
+    public enum Reason {
+        /** The key is malformed. */
+        INVALID_KEY,
+        /** The key was first used for a request with a different payload. */
+        KEY_REUSED,
+        /** The first request with the key has not finished in time. */
+        IN_PROGRESS
+    }
+
+    private final Reason reason;
+
+    public IdempotencyException(Reason reason) {
+        super(switch (reason) {
+            case INVALID_KEY -> MessageConstants.IDEMPOTENCY_KEY_INVALID;
+            case KEY_REUSED -> MessageConstants.IDEMPOTENCY_KEY_REUSED;
+            case IN_PROGRESS -> MessageConstants.IDEMPOTENCY_REQUEST_IN_PROGRESS;
+        });
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * @return the API error code for this rejection
+     */
+    public String getErrorCode() {
+        return switch (reason) {
+            case INVALID_KEY -> MessageConstants.IDEMPOTENCY_KEY_INVALID_CODE;
+            case KEY_REUSED -> MessageConstants.IDEMPOTENCY_KEY_REUSED_CODE;
+            case IN_PROGRESS -> MessageConstants.IDEMPOTENCY_REQUEST_IN_PROGRESS_CODE;
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.ecommerce.idempotency;
+
+/**
+ * What an {@link IdempotencyStore} knows about a key.
+ *
+ * @param fingerprint the hash of the request that first used the key
+ * @param completed whether that request has finished
+ * @param response the serialized response, once completed
+ */
+public record IdempotencyRecord(String fingerprint, boolean completed, String response) {
+}
@@ -0,0 +1,342 @@
+package com.example.ecommerce.idempotency;
+
+import com.example.ecommerce.command.CommandResult;
+import com.example.ecommerce.enums.IdempotencyScope;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs an operation at most once per client-supplied idempotency key.
+ *
+ * The first request with a key claims it, runs the operation and stores the response;
+ * a retry with the same key and payload gets the stored response replayed instead of
+ * running the operation again. A duplicate arriving while the first request is still
+ * running waits for it: on the same node through a shared future, across nodes by
+ * polling the store. Failed operations store nothing, so they can simply be retried.
+ *
+ * Keys live in Redis and are written through to the database, which takes over when
+ * Redis is unreachable. The database thus holds every claim, so a retry that falls back
+ * while Redis flaps still finds the first request's key, and a key claimed in the
+ * database during an outage wins over a later claim in Redis.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    /**
+     * Longest key a client may send.
+     */
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final long MIN_POLL_MILLIS = 10;
+    private static final long MAX_POLL_MILLIS = 200;
+
+    private final IdempotencyStore primaryStore;
+    private final IdempotencyStore fallbackStore;
+    private final ObjectMapper objectMapper;
+    private final Duration lease;
+    private final Duration retention;
+    private final Duration waitTimeout;
+    private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IdempotencyService(RedisIdempotencyStore redisStore,
+                              DatabaseIdempotencyStore databaseStore,
+                              ObjectMapper objectMapper,
+                              @Value("${app.idempotency.lease:30s}") Duration lease,
+                              @Value("${app.idempotency.retention:24h}") Duration retention,
+                              @Value("${app.idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this((IdempotencyStore) redisStore, databaseStore, objectMapper, lease, retention, waitTimeout);
+    }
+
+    IdempotencyService(IdempotencyStore primaryStore,
+                       IdempotencyStore fallbackStore,
+                       ObjectMapper objectMapper,
+                       Duration lease,
+                       Duration retention,
+                       Duration waitTimeout) {
+        this.primaryStore = primaryStore;
+        this.fallbackStore = fallbackStore;
+        this.objectMapper = objectMapper;
+        this.lease = lease;
+        this.retention = retention;
+        this.waitTimeout = waitTimeout;
+    }
+
+    /**
+     * Runs the operation unless a request with the same key already did.
+     *
+     * @param scope the operation the key belongs to
+     * @param userId the user sending the request
+     * @param idempotencyKey the client's key; without one the operation simply runs
+     * @param request the request payload, used to detect a key reused for a different request
+     * @param responseType the type of the operation's result
+     * @param operation the operation; throwing releases the key
+     * @return the operation's result, or the result stored by the first request
+     * @throws IdempotencyException if the key is invalid, was used for another payload,
+     *                              or its first request did not finish within the wait timeout
+     */
+    public <T> T execute(IdempotencyScope scope, UUID userId, String idempotencyKey, Object request,
+                         Class<T> responseType, Supplier<T> operation) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return operation.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyException(IdempotencyException.Reason.INVALID_KEY);
+        }
+
+        String key = scope.name() + ":" + userId + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+
+        Flight mine = new Flight(fingerprint);
+        Flight existing;
+        while ((existing = inFlight.putIfAbsent(key, mine)) != null) {
+            // A duplicate on this node: wait for it rather than poll the store
+            verifyFingerprint(existing.fingerprint(), fingerprint);
+            String response = awaitLocal(existing, deadline);
+            if (response != null) {
+                log.info("IDEMPOTENCY: Replaying response for key {}", key);
+                return read(response, responseType);
+            }
+        }
+
+        try {
+            return runOnce(key, fingerprint, deadline, responseType, operation, mine.response()::complete);
+        } catch (RuntimeException | Error e) {
+            mine.response().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Runs a command unless a request with the same key already did.
+     * Only successful results are stored; a failed command releases the key.
+     *
+     * @param dataType the type of the command result's data
+     * @return the command's result, or a successful result carrying the stored data
+     * @see #execute(IdempotencyScope, UUID, String, Object, Class, Supplier)
+     */
+    @SuppressWarnings("unchecked")
+    public CommandResult executeCommand(IdempotencyScope scope, UUID userId, String idempotencyKey, Object request,
+                                        Class<?> dataType, Supplier<CommandResult> command) {
+        AtomicReference<CommandResult> executed = new AtomicReference<>();
+        try {
+            Object data = execute(scope, userId, idempotencyKey, request, (Class<Object>) dataType, () -> {
+                CommandResult result = command.get();
+                executed.set(result);
+                if (!result.isSuccess()) {
+                    throw new CommandFailedException();
+                }
+                return result.getData();
+            });
+            CommandResult result = executed.get();
+            return result != null ? result : CommandResult.success(data);
+        } catch (CommandFailedException e) {
+            return executed.get();
+        }
+    }
+
+    private <T> T runOnce(String key, String fingerprint, long deadline, Class<T> responseType,
+                          Supplier<T> operation, Consumer<String> onResponse) {
+        long pollMillis = MIN_POLL_MILLIS;
+        while (true) {
+            Attempt attempt = begin(key, fingerprint);
+            if (attempt.claimed()) {
+                T result;
+                try {
+                    result = operation.get();
+                } catch (RuntimeException | Error e) {
+                    release(attempt.stores(), key, fingerprint);
+                    throw e;
+                }
+                String response = write(result);
+                complete(attempt.stores(), key, fingerprint, response);
+                onResponse.accept(response);
+                return result;
+            }
+
+            IdempotencyRecord record = attempt.record();
+            if (record != null) {
+                verifyFingerprint(record.fingerprint(), fingerprint);
+                if (record.completed()) {
+                    log.info("IDEMPOTENCY: Replaying response for key {}", key);
+                    onResponse.accept(record.response());
+                    return read(record.response(), responseType);
+                }
+            }
+
+            // Held by a request on another node (or just released): wait and look again
+            if (System.nanoTime() - deadline >= 0) {
+                throw new IdempotencyException(IdempotencyException.Reason.IN_PROGRESS);
+            }
+            sleep(pollMillis);
+            pollMillis = Math.min(pollMillis * 2, MAX_POLL_MILLIS);
+        }
+    }
+
+    private Attempt begin(String key, String fingerprint) {
+        Attempt attempt;
+        try {
+            attempt = begin(primaryStore, key, fingerprint);
+        } catch (DataAccessException e) {
+            log.warn("IDEMPOTENCY: Primary store unavailable, falling back to the database: {}", e.getMessage());
+            return begin(fallbackStore, key, fingerprint);
+        }
+        return attempt.claimed() ? writeThrough(key, fingerprint) : attempt;
+    }
+
+    /**
+     * Claims a key just claimed in the primary store in the fallback as well. If the
+     * fallback already holds it, a request claimed it there while the primary was down:
+     * the primary claim is given up and the caller goes by the fallback's record.
+     */
+    private Attempt writeThrough(String key, String fingerprint) {
+        Attempt fallback;
+        try {
+            fallback = begin(fallbackStore, key, fingerprint);
+        } catch (DataAccessException e) {
+            log.warn("IDEMPOTENCY: Could not write key {} through to the database: {}", key, e.getMessage());
+            return new Attempt(List.of(primaryStore), true, null);
+        }
+        if (fallback.claimed()) {
+            return new Attempt(List.of(primaryStore, fallbackStore), true, null);
+        }
+        release(List.of(primaryStore), key, fingerprint);
+        return fallback;
+    }
+
+    private Attempt begin(IdempotencyStore store, String key, String fingerprint) {
+        if (store.tryBegin(key, fingerprint, lease)) {
+            return new Attempt(List.of(store), true, null);
+        }
+        return new Attempt(List.of(), false, store.find(key));
+    }
+
+    private void complete(List<IdempotencyStore> stores, String key, String fingerprint, String response) {
+        for (IdempotencyStore store : stores) {
+            try {
+                store.complete(key, fingerprint, response, retention);
+            } catch (RuntimeException e) {
+                // The operation has succeeded; only replays of it are lost
+                log.error("IDEMPOTENCY: Failed to store response for key {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    private void release(List<IdempotencyStore> stores, String key, String fingerprint) {
+        for (IdempotencyStore store : stores) {
+            try {
+                store.release(key, fingerprint);
+            } catch (RuntimeException e) {
+                log.error("IDEMPOTENCY: Failed to release key {}, it frees up when its lease ends: {}",
+                        key, e.getMessage());
+            }
+        }
+    }
+
+    private String awaitLocal(Flight flight, long deadline) {
+        try {
+            return flight.response().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            // The first request failed and stored nothing; try again ourselves
+            return null;
+        } catch (TimeoutException e) {
+            throw new IdempotencyException(IdempotencyException.Reason.IN_PROGRESS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyException(IdempotencyException.Reason.IN_PROGRESS);
+        }
+    }
+
+    private static void verifyFingerprint(String stored, String fingerprint) {
+        if (!stored.equals(fingerprint)) {
+            throw new IdempotencyException(IdempotencyException.Reason.KEY_REUSED);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyException(IdempotencyException.Reason.IN_PROGRESS);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // Sorted map keys, so every node computes the same fingerprint for the same request
+            byte[] canonical = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                    .writeValueAsBytes(request);
+            return HexFormat.of().formatHex(digest.digest(canonical));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize response", e);
+        }
+    }
+
+    private <T> T read(String response, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(response, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot deserialize stored response", e);
+        }
+    }
+
+    /**
+     * A request running on this node, which local duplicates wait on.
+     */
+    private record Flight(String fingerprint, CompletableFuture<String> response) {
+        Flight(String fingerprint) {
+            this(fingerprint, new CompletableFuture<>());
+        }
+    }
+
+    /**
+     * The outcome of trying to claim a key: either claimed in the given stores, or what the store holds.
+     */
+    private record Attempt(List<IdempotencyStore> stores, boolean claimed, IdempotencyRecord record) {
+    }
+
+    /**
+     * Carries a failed command out of the operation so its key is released.
+     */
+    private static final class CommandFailedException extends RuntimeException {
+        CommandFailedException() {
+            super(null, null, false, false);
+        }
+    }
+}
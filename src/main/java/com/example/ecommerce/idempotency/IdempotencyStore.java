@@ -0,0 +1,49 @@
+package com.example.ecommerce.idempotency;
+
+import java.time.Duration;
+
+/**
+ * Storage of idempotency keys and the responses recorded for them.
+ *
+ * A key starts in flight when a request claims it and becomes completed once the
+ * response is stored. An in-flight key is only held for its lease, so a node that
+ * dies mid-request does not block the key forever.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Claims the key for a new request unless it is already in flight or completed.
+     *
+     * @param key the namespaced key
+     * @param fingerprint the hash of the request
+     * @param lease how long the claim holds if the request never finishes
+     * @return {@code true} if the caller now owns the key
+     */
+    boolean tryBegin(String key, String fingerprint, Duration lease);
+
+    /**
+     * Looks the key up.
+     *
+     * @param key the namespaced key
+     * @return the record, or {@code null} if the key is unknown or has expired
+     */
+    IdempotencyRecord find(String key);
+
+    /**
+     * Stores the response of a claimed key.
+     *
+     * @param key the namespaced key
+     * @param fingerprint the hash of the request
+     * @param response the serialized response
+     * @param retention how long the response is replayed
+     */
+    void complete(String key, String fingerprint, String response, Duration retention);
+
+    /**
+     * Gives up a claimed key without a response, so the request can be retried.
+     *
+     * @param key the namespaced key
+     * @param fingerprint the hash of the request
+     */
+    void release(String key, String fingerprint);
+}
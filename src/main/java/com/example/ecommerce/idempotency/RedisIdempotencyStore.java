@@ -0,0 +1,77 @@
+package com.example.ecommerce.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Idempotency keys kept in Redis, the fast path shared by all nodes.
+ *
+ * Each key holds {@code P|<fingerprint>} while in flight, with the lease as its TTL,
+ * and {@code C|<fingerprint>|<response>} once completed, with the retention as its TTL.
+ * Completing and releasing only touch a key still in flight for the same request,
+ * so an owner whose lease ran out cannot clobber whoever claimed the key next.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisIdempotencyStore implements IdempotencyStore {
+
+    static final String KEY_PREFIX = "idempotency:";
+
+    private static final String IN_FLIGHT = "P|";
+    private static final String COMPLETED = "C|";
+
+    private static final RedisScript<Long> COMPLETE_IF_OWNED = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> DELETE_IF_OWNED = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    @Override
+    public boolean tryBegin(String key, String fingerprint, Duration lease) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(KEY_PREFIX + key, IN_FLIGHT + fingerprint, lease));
+    }
+
+    @Override
+    public IdempotencyRecord find(String key) {
+        String value = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+        if (value == null) {
+            return null;
+        }
+        if (value.startsWith(IN_FLIGHT)) {
+            return new IdempotencyRecord(value.substring(IN_FLIGHT.length()), false, null);
+        }
+        int separator = value.indexOf('|', COMPLETED.length());
+        return new IdempotencyRecord(value.substring(COMPLETED.length(), separator), true,
+                value.substring(separator + 1));
+    }
+
+    @Override
+    public void complete(String key, String fingerprint, String response, Duration retention) {
+        redisTemplate.execute(COMPLETE_IF_OWNED, List.of(KEY_PREFIX + key),
+                IN_FLIGHT + fingerprint, COMPLETED + fingerprint + "|" + response,
+                String.valueOf(retention.toMillis()));
+    }
+
+    @Override
+    public void release(String key, String fingerprint) {
+        redisTemplate.execute(DELETE_IF_OWNED, List.of(KEY_PREFIX + key), IN_FLIGHT + fingerprint);
+    }
+}
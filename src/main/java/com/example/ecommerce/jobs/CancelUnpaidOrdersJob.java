@@ -1,9 +1,10 @@
 package com.example.ecommerce.jobs;
 
-import com.example.ecommerce.domain.Order;
-import com.example.ecommerce.service.OrderService;
+import com.example.ecommerce.service.PaymentDeadlineScheduler;
+import com.example.ecommerce.service.UnpaidOrderSweeper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
@@ -11,30 +12,34 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
-import java.util.List;
 
 /**
  * Quartz job that cancels orders which remain unpaid beyond a cutoff time.
- * 
- * IMPROVED ARCHITECTURE:
- * - Uses OrderService instead of direct repository access
- * - Follows proper layered architecture principles
- * - Configurable timeout via application properties
- * - Better error handling and logging
  *
- * The job uses {@link OrderService} to:
+ * Orders are normally cancelled at their deadline by {@link PaymentDeadlineScheduler};
+ * this job is the low-frequency reconciliation fallback for deadlines that were never
+ * registered or were claimed by a node that died before cancelling the order.
+ *
+ * The job only computes the cutoff from {@code app.orders.unpaid-timeout-minutes} and
+ * hands it to {@link UnpaidOrderSweeper}, which loops until no stale order is left:
  * <ul>
- *   <li>Find unpaid orders older than the configured threshold</li>
- *   <li>Cancel orders using proper business logic</li>
- *   <li>Trigger observer notifications for inventory release</li>
+ *   <li>claim up to {@code app.orders.sweep.chunk-size} pending orders older than the
+ *       cutoff with {@code FOR UPDATE SKIP LOCKED}, in a transaction of their own</li>
+ *   <li>cancel the claimed orders that are still pending with one conditional update</li>
+ *   <li>notify the observers for the whole chunk, releasing its stock, and commit</li>
  * </ul>
+ * Memory and transaction length stay bounded by the chunk size however large the backlog.
+ *
+ * Safe to run on every replica at once: sweepers claim disjoint sets of orders
+ * through row locks, and runs never overlap on one node.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
+@DisallowConcurrentExecution
 public class CancelUnpaidOrdersJob implements Job {
 
-    private final OrderService orderService;
+    private final UnpaidOrderSweeper unpaidOrderSweeper;
     
     @Value("${app.orders.unpaid-timeout-minutes:60}")
     private int unpaidTimeoutMinutes;
@@ -47,24 +52,19 @@ public class CancelUnpaidOrdersJob implements Job {
             // Calculate cutoff time based on configuration
             Instant cutOff = Instant.now().minusSeconds(unpaidTimeoutMinutes * 60L);
             
-            // Use service layer instead of direct repository access
-            List<Order> unpaidOrders = orderService.findUnpaidOrdersOlderThan(cutOff);
+            // Sweep in committed chunks instead of one transaction over every stale order
+            int cancelled = unpaidOrderSweeper.cancelUnpaidOrdersOlderThan(cutOff);
             
-            if (unpaidOrders.isEmpty()) {
+            if (cancelled == 0) {
                 log.info("No unpaid orders found older than {}", cutOff);
                 return;
             }
             
-            log.info("Found {} unpaid orders to cancel", unpaidOrders.size());
-            
-            // Use service method for bulk cancellation with proper business logic
-            orderService.cancelOrders(unpaidOrders, "Automatic cancellation - payment timeout");
-            
-            log.info("Successfully cancelled {} unpaid orders", unpaidOrders.size());
+            log.info("Successfully cancelled {} unpaid orders - Reason: Automatic cancellation - payment timeout", cancelled);
             
         } catch (Exception e) {
             log.error("Error executing unpaid orders cancellation job", e);
             throw new JobExecutionException("Failed to cancel unpaid orders", e);
         }
     }
-}
+}
\ No newline at end of file
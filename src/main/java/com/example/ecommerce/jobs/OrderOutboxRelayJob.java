@@ -0,0 +1,52 @@
+package com.example.ecommerce.jobs;
+
+import com.example.ecommerce.observer.OrderOutboxRelay;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Quartz job that drains the order outbox.
+ *
+ * Each run keeps relaying batches while they come back full, up to a configured
+ * number of batches, so a backlog is worked off without waiting for the next trigger.
+ * Runs never overlap on one node; relays on other nodes skip the rows it has claimed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@DisallowConcurrentExecution
+public class OrderOutboxRelayJob implements Job {
+
+    private final OrderOutboxRelay relay;
+
+    @Value("${app.outbox.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Override
+    public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
+        try {
+            int relayed = 0;
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                int claimed = relay.relayBatch();
+                relayed += claimed;
+                if (claimed < relay.getBatchSize()) {
+                    break;
+                }
+            }
+            if (relayed > 0) {
+                log.info("Relayed {} order outbox events", relayed);
+            }
+
+            relay.purgeIfDue();
+        } catch (Exception e) {
+            log.error("Error relaying order outbox events", e);
+            throw new JobExecutionException("Failed to relay order outbox events", e);
+        }
+    }
+}
\ No newline at end of file
@@ -2,11 +2,15 @@ package com.example.ecommerce.mapper;
 
 import com.example.ecommerce.domain.Order;
 import com.example.ecommerce.domain.Product;
+import com.example.ecommerce.dto.projection.OrderItemView;
+import com.example.ecommerce.dto.projection.OrderSummaryView;
 import com.example.ecommerce.dto.response.OrderResponseDTO;
 import com.example.ecommerce.dto.response.ProductResponseDTO;
 import lombok.NonNull;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Central facade for accessing all entity mappers in the application.
  * New mappers can be easily added later.
@@ -23,6 +27,10 @@ public final class MapperFacade {
         return orderMapper.toResponseDTO(order);
     }
 
+    public static OrderResponseDTO toResponseDTO(@NonNull OrderSummaryView order, @NonNull List<OrderItemView> items) {
+        return orderMapper.toResponseDTO(order, items);
+    }
+
     public static ProductResponseDTO toResponseDTO(@NonNull Product product) {
         return productMapper.toResponseDTO(product);
     }
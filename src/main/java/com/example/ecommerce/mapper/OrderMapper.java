@@ -1,10 +1,14 @@
 package com.example.ecommerce.mapper;
 
 import com.example.ecommerce.domain.Order;
+import com.example.ecommerce.dto.projection.OrderItemView;
+import com.example.ecommerce.dto.projection.OrderSummaryView;
 import com.example.ecommerce.dto.response.OrderResponseDTO;
 import lombok.NonNull;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Mapper responsible for converting {@link Order} entities
  * into {@link OrderResponseDTO} objects.
@@ -29,4 +33,28 @@ public class OrderMapper implements Mapper<Order, OrderResponseDTO> {
                 ).toList())
                 .build();
     }
+
+    /**
+     * Builds the response for an order read through projections instead of as an entity.
+     *
+     * @param order the order's scalar columns
+     * @param items the order's items
+     * @return the order response
+     */
+    public OrderResponseDTO toResponseDTO(@NonNull OrderSummaryView order, @NonNull List<OrderItemView> items) {
+        return OrderResponseDTO.builder()
+                .id(order.id())
+                .userId(order.userId())
+                .status(order.status())
+                .total(order.total())
+                .createdAt(order.createdAt())
+                .items(items.stream().map(i ->
+                        OrderResponseDTO.OrderItemResponse.builder()
+                                .productId(i.productId())
+                                .quantity(i.quantity())
+                                .price(i.price())
+                                .build()
+                ).toList())
+                .build();
+    }
 }
@@ -0,0 +1,20 @@
+package com.example.ecommerce.observer;
+
+/**
+ * When and on which thread an {@link OrderStatusObserver} is notified.
+ */
+public enum DispatchMode {
+
+    /**
+     * Notified synchronously on the caller's thread, inside its transaction.
+     * For observers whose work must commit or roll back together with the status change.
+     */
+    IN_TRANSACTION,
+
+    /**
+     * Notified on the observer's own executor once the caller's transaction has committed.
+     * Never notified for a rolled-back change; retried on failure, so observers must be idempotent.
+     * The order is rebuilt from the outbox and carries no items.
+     */
+    AFTER_COMMIT
+}
\ No newline at end of file
@@ -8,6 +8,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 /**
  * Observer that releases inventory when orders are cancelled.
  */
@@ -31,6 +36,22 @@ public class InventoryReleaseObserver implements OrderStatusObserver {
         }
     }
     
+    @Override
+    public void onBulkStatusChange(List<Order> orders, OrderStatus oldStatus, OrderStatus newStatus) {
+        if (newStatus == OrderStatus.CANCELLED) {
+            Map<UUID, Integer> quantities = new LinkedHashMap<>();
+            for (Order order : orders) {
+                for (OrderItem item : order.getItems()) {
+                    quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+                }
+            }
+            
+            // One set-based release for the whole batch instead of one update per item
+            inventoryService.releaseStock(quantities);
+            log.info("Released inventory of {} products for {} cancelled orders", quantities.size(), orders.size());
+        }
+    }
+    
     @Override
     public boolean shouldNotify(OrderStatus oldStatus, OrderStatus newStatus) {
         return newStatus == OrderStatus.CANCELLED;
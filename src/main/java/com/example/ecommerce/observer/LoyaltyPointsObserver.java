@@ -44,6 +44,11 @@ public class LoyaltyPointsObserver implements OrderStatusObserver {
                (oldStatus == OrderStatus.PAID && newStatus == OrderStatus.CANCELLED);
     }
     
+    @Override
+    public DispatchMode dispatchMode() {
+        return DispatchMode.AFTER_COMMIT;
+    }
+    
     private int calculateLoyaltyPoints(BigDecimal orderTotal) {
         // 1 point per dollar spent
         return orderTotal.intValue();
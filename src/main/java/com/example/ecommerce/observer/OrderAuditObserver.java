@@ -43,4 +43,9 @@ public class OrderAuditObserver implements OrderStatusObserver {
         // We want to audit ALL status changes
         return !oldStatus.equals(newStatus); // Only if status actually changed
     }
+    
+    @Override
+    public DispatchMode dispatchMode() {
+        return DispatchMode.AFTER_COMMIT;
+    }
 }
\ No newline at end of file
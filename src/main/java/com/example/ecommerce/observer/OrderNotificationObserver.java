@@ -9,6 +9,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * Observer that handles notifications when order status changes.
  * Now uses the Decorator pattern notification system for flexible multichannel notifications.
@@ -41,9 +44,20 @@ public class OrderNotificationObserver implements OrderStatusObserver {
         }
     }
     
+    @Override
+    public void prefetch(List<Order> orders) {
+        // One query for the batch's customers; the deliveries then find them cached
+        userService.findAllById(orders.stream().map(Order::getUserId).collect(Collectors.toSet()));
+    }
+    
     @Override
     public boolean shouldNotify(OrderStatus oldStatus, OrderStatus newStatus) {
         // Only notify for important status changes
         return newStatus == OrderStatus.PAID || newStatus == OrderStatus.CANCELLED;
     }
+    
+    @Override
+    public DispatchMode dispatchMode() {
+        return DispatchMode.AFTER_COMMIT;
+    }
 }
\ No newline at end of file
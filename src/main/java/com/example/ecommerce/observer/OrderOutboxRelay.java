@@ -0,0 +1,326 @@
+package com.example.ecommerce.observer;
+
+import com.example.ecommerce.domain.Order;
+import com.example.ecommerce.domain.OrderOutboxEvent;
+import com.example.ecommerce.repository.OrderOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Delivers outbox events to {@link DispatchMode#AFTER_COMMIT} observers.
+ *
+ * Each batch is claimed with {@code FOR UPDATE SKIP LOCKED} in a short transaction that
+ * leases it: the events are rescheduled past the delivery timeout, so concurrent relays
+ * leave them alone while they are delivered, and a relay that dies only delays them.
+ * Delivery runs outside any transaction; the outcomes are recorded in a second one,
+ * with bulk updates rather than by saving the detached events back.
+ *
+ * Delivery is tracked per observer. An event is marked processed once every interested
+ * observer has handled it; when some fail, the retry only goes to those, so an observer
+ * sees an event once unless its own delivery failed (at-least-once per observer).
+ * Deliveries still running at the timeout are cancelled rather than left to finish late.
+ *
+ * Every observer has its own single-threaded executor with a bounded queue, so one slow
+ * observer does not hold up the others and each sees events in order. A full queue runs
+ * the delivery on the relay thread instead. Queue depth and execution times are exported
+ * per observer as {@code order.observer.*} metrics.
+ */
+@Component
+@Slf4j
+public class OrderOutboxRelay {
+
+    private static final String METRIC_PREFIX = "order.observer";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OrderOutboxRepository outboxRepository;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final List<OrderStatusObserver> observers = new ArrayList<>();
+    private final Map<OrderStatusObserver, ExecutorService> executors = new IdentityHashMap<>();
+    private final List<ThreadPoolExecutor> pools = new ArrayList<>();
+    @Getter
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration deliveryTimeout;
+    private final Duration retention;
+    private volatile Instant lastPurge = Instant.EPOCH;
+
+    public OrderOutboxRelay(List<OrderStatusObserver> observers,
+                            OrderOutboxRepository outboxRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.outbox.batch-size:100}") int batchSize,
+                            @Value("${app.outbox.max-attempts:5}") int maxAttempts,
+                            @Value("${app.outbox.retry-backoff:5s}") Duration retryBackoff,
+                            @Value("${app.outbox.delivery-timeout:30s}") Duration deliveryTimeout,
+                            @Value("${app.outbox.retention:7d}") Duration retention,
+                            @Value("${app.observers.async.queue-capacity:500}") int queueCapacity,
+                            PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        this.deliveryTimeout = deliveryTimeout;
+        this.retention = retention;
+
+        for (OrderStatusObserver observer : observers) {
+            if (observer.dispatchMode() != DispatchMode.AFTER_COMMIT) {
+                continue;
+            }
+            String name = observerName(observer);
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    new CustomizableThreadFactory("observer-" + name + "-"),
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+            pools.add(pool);
+            this.observers.add(observer);
+            executors.put(observer, ExecutorServiceMetrics.monitor(meterRegistry, pool, METRIC_PREFIX,
+                    METRIC_PREFIX, Tags.of("observer", name)));
+        }
+    }
+
+    /**
+     * Claims one batch of due events, delivers it and records the outcome of every event.
+     *
+     * @return the number of events claimed; a full batch means more may be waiting
+     */
+    public int relayBatch() {
+        List<OrderOutboxEvent> batch = transactionTemplate.execute(status -> claim());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Order> orders = batch.stream().map(OrderOutboxEvent::toOrder).toList();
+        prefetch(batch, orders);
+
+        // Hand the whole batch to the observers first so they work on it in parallel
+        List<Map<String, Future<?>>> deliveries = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            OrderOutboxEvent event = batch.get(i);
+            Order order = orders.get(i);
+            Map<String, Future<?>> futures = new LinkedHashMap<>();
+            for (OrderStatusObserver observer : observers) {
+                if (isDue(observer, event)) {
+                    futures.put(observerName(observer), executors.get(observer).submit(() ->
+                            deliver(observer, order, event)));
+                }
+            }
+            deliveries.add(futures);
+        }
+
+        long deadline = System.nanoTime() + deliveryTimeout.toNanos();
+        List<String> errors = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            OrderOutboxEvent event = batch.get(i);
+            List<String> failures = new ArrayList<>();
+            for (Map.Entry<String, Future<?>> delivery : deliveries.get(i).entrySet()) {
+                String error = await(delivery.getValue(), deadline);
+                if (error == null) {
+                    event.markDeliveredTo(delivery.getKey());
+                } else {
+                    failures.add(delivery.getKey() + ": " + error);
+                }
+            }
+            errors.add(failures.isEmpty() ? null : String.join("; ", failures));
+        }
+
+        Instant now = Instant.now();
+        List<UUID> processed = new ArrayList<>();
+        List<OrderOutboxEvent> failed = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OrderOutboxEvent event = batch.get(i);
+            if (errors.get(i) == null) {
+                event.setProcessedAt(now);
+                event.setLastError(null);
+                processed.add(event.getId());
+                meterRegistry.counter("order.outbox.events", "outcome", "processed").increment();
+            } else {
+                recordFailure(event, errors.get(i), now);
+                failed.add(event);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> saveOutcomes(processed, now, failed));
+        log.debug("OUTBOX: Relayed batch of {} events", batch.size());
+        return batch.size();
+    }
+
+    /**
+     * Deletes processed events older than the retention period, at most once an hour.
+     */
+    @Transactional
+    public void purgeIfDue() {
+        Instant now = Instant.now();
+        if (lastPurge.isAfter(now.minus(Duration.ofHours(1)))) {
+            return;
+        }
+        lastPurge = now;
+        int deleted = outboxRepository.deleteProcessedBefore(now.minus(retention));
+        if (deleted > 0) {
+            log.info("OUTBOX: Purged {} processed events", deleted);
+        }
+    }
+
+    /**
+     * Stops accepting deliveries and waits for queued ones to finish.
+     */
+    @PreDestroy
+    public void shutdown() {
+        pools.forEach(ThreadPoolExecutor::shutdown);
+        for (ThreadPoolExecutor pool : pools) {
+            try {
+                if (!pool.awaitTermination(10, TimeUnit.SECONDS)) {
+                    pool.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Claims the due events and leases them for twice the delivery timeout, leaving
+     * room to record the outcomes before other relays may pick them up again.
+     */
+    private List<OrderOutboxEvent> claim() {
+        Instant now = Instant.now();
+        List<UUID> ids = outboxRepository.claimBatch(now, batchSize);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        outboxRepository.lease(ids, now.plus(deliveryTimeout.multipliedBy(2)));
+        return outboxRepository.findWithDeliveriesByIdIn(ids);
+    }
+
+    /**
+     * Writes the outcomes of a batch without loading its events again. Processed events
+     * take one statement; failed ones, which should be rare, are updated one by one
+     * together with the observers that did handle them.
+     */
+    private void saveOutcomes(List<UUID> processed, Instant processedAt, List<OrderOutboxEvent> failed) {
+        if (!processed.isEmpty()) {
+            outboxRepository.markProcessed(processed, processedAt);
+        }
+        for (OrderOutboxEvent event : failed) {
+            outboxRepository.recordFailure(event.getId(), event.getAttempts(), event.getLastError(),
+                    event.getAvailableAt(), event.getProcessedAt());
+            for (String observer : event.getDeliveredTo()) {
+                outboxRepository.markDeliveredTo(event.getId(), observer);
+            }
+        }
+    }
+
+    /**
+     * Lets each observer load what it needs for its share of the batch. Runs on the relay
+     * thread one observer after another, so observers needing the same data find it
+     * already loaded by the first; a failed prefetch only means per-order lookups.
+     */
+    private void prefetch(List<OrderOutboxEvent> batch, List<Order> orders) {
+        for (OrderStatusObserver observer : observers) {
+            List<Order> relevant = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                if (isDue(observer, batch.get(i))) {
+                    relevant.add(orders.get(i));
+                }
+            }
+            if (relevant.isEmpty()) {
+                continue;
+            }
+            try {
+                observer.prefetch(relevant);
+            } catch (RuntimeException e) {
+                log.warn("OUTBOX: Observer {} could not prefetch {} orders: {}",
+                        observerName(observer), relevant.size(), e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isDue(OrderStatusObserver observer, OrderOutboxEvent event) {
+        return observer.shouldNotify(event.getOldStatus(), event.getNewStatus())
+                && !event.isDeliveredTo(observerName(observer));
+    }
+
+    private void deliver(OrderStatusObserver observer, Order order, OrderOutboxEvent event) {
+        String name = observerName(observer);
+        try {
+            observer.onStatusChanged(order, event.getOldStatus(), event.getNewStatus());
+            meterRegistry.counter(METRIC_PREFIX + ".deliveries", "observer", name, "outcome", "success").increment();
+        } catch (RuntimeException e) {
+            meterRegistry.counter(METRIC_PREFIX + ".deliveries", "observer", name, "outcome", "failed").increment();
+            log.warn("OUTBOX: Observer {} failed for order {}: {}", name, order.getId(), e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for one delivery until the deadline, cancelling it if it is still running then.
+     *
+     * @return null if the delivery succeeded, otherwise a description of the failure
+     */
+    private static String await(Future<?> future, long deadline) {
+        try {
+            future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return String.valueOf(e.getCause());
+        } catch (TimeoutException e) {
+            // Cancelled, so it cannot finish late on top of its retry; it may have completed just now
+            return future.cancel(true) ? "Delivery timed out" : await(future, deadline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return "Relay interrupted";
+        }
+    }
+
+    private void recordFailure(OrderOutboxEvent event, String error, Instant now) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+
+        if (attempts >= maxAttempts) {
+            // Dead-lettered: kept with its error for inspection, no longer retried
+            event.setProcessedAt(now);
+            meterRegistry.counter("order.outbox.events", "outcome", "dead").increment();
+            log.error("OUTBOX: Giving up on event {} for order {} after {} attempts: {}",
+                    event.getId(), event.getOrderId(), attempts, error);
+        } else {
+            event.setAvailableAt(now.plus(retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 10))));
+            meterRegistry.counter("order.outbox.events", "outcome", "retried").increment();
+        }
+    }
+
+    private static String observerName(OrderStatusObserver observer) {
+        return ClassUtils.getUserClass(observer).getSimpleName();
+    }
+}
\ No newline at end of file
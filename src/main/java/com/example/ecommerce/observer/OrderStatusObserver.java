@@ -3,6 +3,8 @@ package com.example.ecommerce.observer;
 import com.example.ecommerce.domain.Order;
 import com.example.ecommerce.enums.OrderStatus;
 
+import java.util.List;
+
 /**
  * Observer interface for order status changes.
  * Implementations can react to order status transitions.
@@ -18,6 +20,31 @@ public interface OrderStatusObserver {
      */
     void onStatusChanged(Order order, OrderStatus oldStatus, OrderStatus newStatus);
     
+    /**
+     * Called when several orders undergo the same status change at once,
+     * for example when stale orders are swept in bulk.
+     * Defaults to notifying each order individually; override to handle the batch in one go.
+     *
+     * @param orders the orders that changed
+     * @param oldStatus the previous status
+     * @param newStatus the new status
+     */
+    default void onBulkStatusChange(List<Order> orders, OrderStatus oldStatus, OrderStatus newStatus) {
+        for (Order order : orders) {
+            onStatusChanged(order, oldStatus, newStatus);
+        }
+    }
+    
+    /**
+     * Called with a batch of orders that are about to be delivered one by one,
+     * so the observer can load what it needs for the whole batch in one go.
+     * Does nothing by default.
+     *
+     * @param orders the orders about to be delivered
+     */
+    default void prefetch(List<Order> orders) {
+    }
+    
     /**
      * Determines if this observer should be notified for the given status change.
      *
@@ -28,4 +55,13 @@ public interface OrderStatusObserver {
     default boolean shouldNotify(OrderStatus oldStatus, OrderStatus newStatus) {
         return true;
     }
+    
+    /**
+     * Determines when this observer is notified relative to the caller's transaction.
+     *
+     * @return {@link DispatchMode#IN_TRANSACTION} unless overridden
+     */
+    default DispatchMode dispatchMode() {
+        return DispatchMode.IN_TRANSACTION;
+    }
 }
\ No newline at end of file
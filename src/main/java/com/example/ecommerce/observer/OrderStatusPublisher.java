@@ -1,43 +1,101 @@
 package com.example.ecommerce.observer;
 
 import com.example.ecommerce.domain.Order;
+import com.example.ecommerce.domain.OrderOutboxEvent;
 import com.example.ecommerce.enums.OrderStatus;
+import com.example.ecommerce.repository.OrderOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 
 import java.util.List;
 
 /**
  * Publisher that notifies observers when order status changes occur.
+ *
+ * {@link DispatchMode#IN_TRANSACTION} observers run immediately on the caller's thread.
+ * For {@link DispatchMode#AFTER_COMMIT} observers the change is written to the outbox
+ * in the caller's transaction, and {@link OrderOutboxRelay} delivers it once committed.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class OrderStatusPublisher {
-    
+
     private final List<OrderStatusObserver> observers;
-    
+    private final OrderOutboxRepository outboxRepository;
+
     /**
      * Notifies all registered observers of an order status change.
+     * Should be called inside the transaction that changes the order.
      *
      * @param order the order that changed
      * @param oldStatus the previous status
      * @param newStatus the new status
      */
     public void notifyStatusChange(Order order, OrderStatus oldStatus, OrderStatus newStatus) {
-        log.info("Publishing order status change: Order {} from {} to {}", 
+        log.info("Publishing order status change: Order {} from {} to {}",
                 order.getId(), oldStatus, newStatus);
-        
-        observers.stream()
-                .filter(observer -> observer.shouldNotify(oldStatus, newStatus))
-                .forEach(observer -> {
-                    try {
-                        observer.onStatusChanged(order, oldStatus, newStatus);
-                    } catch (Exception e) {
-                        log.error("Error notifying observer {} for order {}", 
-                                observer.getClass().getSimpleName(), order.getId(), e);
-                    }
-                });
+
+        boolean deferred = false;
+        for (OrderStatusObserver observer : observers) {
+            if (!observer.shouldNotify(oldStatus, newStatus)) {
+                continue;
+            }
+            if (observer.dispatchMode() == DispatchMode.AFTER_COMMIT) {
+                deferred = true;
+                continue;
+            }
+            try {
+                observer.onStatusChanged(order, oldStatus, newStatus);
+            } catch (Exception e) {
+                log.error("Error notifying observer {} for order {}",
+                        ClassUtils.getUserClass(observer).getSimpleName(), order.getId(), e);
+            }
+        }
+
+        if (deferred) {
+            outboxRepository.save(OrderOutboxEvent.of(order, oldStatus, newStatus));
+        }
+    }
+
+    /**
+     * Notifies all registered observers that several orders underwent the same status change.
+     * In-transaction observers receive the whole batch at once and the outbox rows are
+     * written together. Should be called inside the transaction that changes the orders.
+     *
+     * @param orders the orders that changed
+     * @param oldStatus the previous status
+     * @param newStatus the new status
+     */
+    public void notifyStatusChanges(List<Order> orders, OrderStatus oldStatus, OrderStatus newStatus) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        log.info("Publishing status change of {} orders from {} to {}", orders.size(), oldStatus, newStatus);
+
+        boolean deferred = false;
+        for (OrderStatusObserver observer : observers) {
+            if (!observer.shouldNotify(oldStatus, newStatus)) {
+                continue;
+            }
+            if (observer.dispatchMode() == DispatchMode.AFTER_COMMIT) {
+                deferred = true;
+                continue;
+            }
+            try {
+                observer.onBulkStatusChange(orders, oldStatus, newStatus);
+            } catch (Exception e) {
+                log.error("Error notifying observer {} for {} orders",
+                        ClassUtils.getUserClass(observer).getSimpleName(), orders.size(), e);
+            }
+        }
+
+        if (deferred) {
+            outboxRepository.saveAll(orders.stream()
+                    .map(order -> OrderOutboxEvent.of(order, oldStatus, newStatus))
+                    .toList());
+        }
     }
 }
\ No newline at end of file
@@ -9,6 +9,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * Observer that handles payment failure notifications when orders are cancelled.
  */
@@ -34,9 +37,19 @@ public class PaymentFailureObserver implements OrderStatusObserver {
         }
     }
     
+    @Override
+    public void prefetch(List<Order> orders) {
+        userService.findAllById(orders.stream().map(Order::getUserId).collect(Collectors.toSet()));
+    }
+    
     @Override
     public boolean shouldNotify(OrderStatus oldStatus, OrderStatus newStatus) {
         // Only notify when order is cancelled (payment failure)
         return newStatus == OrderStatus.CANCELLED;
     }
+    
+    @Override
+    public DispatchMode dispatchMode() {
+        return DispatchMode.AFTER_COMMIT;
+    }
 }
\ No newline at end of file
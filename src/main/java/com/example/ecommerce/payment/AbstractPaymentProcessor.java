@@ -5,8 +5,12 @@ import com.example.ecommerce.domain.Order;
 import com.example.ecommerce.enums.OrderStatus;
 import com.example.ecommerce.dto.response.PaymentResponseDTO;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Abstract base class implementing the Template Method pattern for payment processing.
@@ -15,6 +19,17 @@ import java.math.BigDecimal;
 @Slf4j
 public abstract class AbstractPaymentProcessor implements PaymentStrategy {
     
+    private PaymentGatewayGuard gatewayGuard;
+    
+    /**
+     * Puts the provider call behind the given guard's timeout, circuit breaker and retries.
+     * Without a guard (e.g. in unit tests) the provider is called directly.
+     */
+    @Autowired(required = false)
+    public void setGatewayGuard(PaymentGatewayGuard gatewayGuard) {
+        this.gatewayGuard = gatewayGuard;
+    }
+    
     /**
      * Template method defining the payment processing flow.
      * This method cannot be overridden by subclasses.
@@ -30,9 +45,45 @@ public abstract class AbstractPaymentProcessor implements PaymentStrategy {
         // Step 2: Pre-process (can be overridden)
         preProcess(order);
         
-        // Step 3: Process payment (must be implemented by subclasses)
-        PaymentResponseDTO response = doProcessPayment(order);
+        // Step 3: Process payment (must be implemented by subclasses), guarded if configured
+        PaymentResponseDTO response = gatewayGuard == null ? doProcessPayment(order) : join(
+                gatewayGuard.call(getProviderName(), () -> doProcessPayment(order)));
+        
+        // Steps 4 and 5: Post-process and log
+        return complete(order, response);
+    }
+    
+    /**
+     * Asynchronous variant of the template method.
+     * Validation and pre-processing run on the caller's thread, so invalid orders fail fast;
+     * the provider call and the remaining steps run on the given executor.
+     */
+    @Override
+    public final CompletableFuture<PaymentResponseDTO> processPaymentAsync(Order order, Executor executor) {
+        log.info("Starting asynchronous payment processing for order: {} using provider: {}", 
+                order.getId(), getProviderName());
         
+        validateOrder(order);
+        preProcess(order);
+        
+        CompletableFuture<PaymentResponseDTO> response = gatewayGuard == null
+                ? CompletableFuture.supplyAsync(() -> doProcessPayment(order), executor)
+                : gatewayGuard.call(getProviderName(), () -> doProcessPayment(order), executor);
+        return response.thenApply(result -> complete(order, result));
+    }
+    
+    private static PaymentResponseDTO join(CompletableFuture<PaymentResponseDTO> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private PaymentResponseDTO complete(Order order, PaymentResponseDTO response) {
         // Step 4: Post-process (can be overridden)
         postProcess(order, response);
         
@@ -99,10 +150,4 @@ public abstract class AbstractPaymentProcessor implements PaymentStrategy {
         
         // In a real implementation, this might write to an audit table
     }
-    
-    /**
-     * Returns the name of the payment provider.
-     * Used for logging and identification purposes.
-     */
-    protected abstract String getProviderName();
 }
\ No newline at end of file
@@ -0,0 +1,155 @@
+package com.example.ecommerce.payment;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker over a rolling window of the most recent calls to one provider.
+ *
+ * While closed, every call is let through and its outcome recorded; once the window
+ * holds enough calls and the share of failures reaches the threshold, the breaker opens
+ * and rejects calls outright. After the open duration it lets a few trial calls through
+ * (half-open): if they all succeed it closes again, a single failure reopens it.
+ */
+public class CircuitBreaker {
+
+    /**
+     * Breaker states, in the order exported by the state gauge.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int position;
+    private int calls;
+    private int failures;
+    private long openUntil;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, int halfOpenCalls) {
+        this(windowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                   Duration openDuration, int halfOpenCalls, LongSupplier nanoClock) {
+        this.window = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, window.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Asks to make a call. Every permitted call must be followed by exactly one of
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #release()}.
+     *
+     * @return {@code true} if the call may go ahead
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openUntil < 0) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenCalls) {
+                return false;
+            }
+            trialsStarted++;
+        }
+        return true;
+    }
+
+    /**
+     * Records a call the provider answered.
+     */
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++trialsSucceeded >= halfOpenCalls) {
+                state = State.CLOSED;
+                clearWindow();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+            openIfFailing();
+        }
+    }
+
+    /**
+     * Records a call that failed or timed out.
+     */
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            openIfFailing();
+        }
+    }
+
+    /**
+     * Gives back a permit for a call that was never made.
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && trialsStarted > 0) {
+            trialsStarted--;
+        }
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openUntil >= 0) {
+            // Due for trial calls; reported as such even before the next call arrives
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (calls == window.length) {
+            if (window[position]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        window[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % window.length;
+    }
+
+    private void openIfFailing() {
+        if (calls >= minimumCalls && (double) failures / calls >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntil = nanoClock.getAsLong() + openNanos;
+        clearWindow();
+    }
+
+    private void clearWindow() {
+        position = 0;
+        calls = 0;
+        failures = 0;
+    }
+}
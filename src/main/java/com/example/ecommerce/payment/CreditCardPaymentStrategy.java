@@ -55,7 +55,7 @@ public class CreditCardPaymentStrategy extends AbstractPaymentProcessor {
     }
     
     @Override
-    protected String getProviderName() {
+    public String getProviderName() {
         return "CreditCard";
     }
     
@@ -35,7 +35,7 @@ public class MockPaymentStrategy extends AbstractPaymentProcessor {
     }
 
     @Override
-    protected String getProviderName() {
+    public String getProviderName() {
         return "MockPayment";
     }
 
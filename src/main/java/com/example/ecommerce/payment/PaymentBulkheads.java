@@ -0,0 +1,87 @@
+package com.example.ecommerce.payment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One bounded executor per payment provider, on which gateway calls run.
+ *
+ * A slow or hanging provider can only tie up its own threads, never the request threads
+ * or another provider's calls. When all threads of a provider are busy and its queue is
+ * full, new payments are rejected right away instead of piling up. Queue depth and
+ * execution times are exported per provider as {@code payment.gateway.*} metrics.
+ */
+@Component
+public class PaymentBulkheads {
+
+    private static final String METRIC_PREFIX = "payment.gateway";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxConcurrent;
+    private final int queueCapacity;
+    private final Map<String, ExecutorService> executors = new ConcurrentHashMap<>();
+    private final List<ThreadPoolExecutor> pools = new CopyOnWriteArrayList<>();
+
+    public PaymentBulkheads(MeterRegistry meterRegistry,
+                            @Value("${app.payment.bulkhead.max-concurrent:50}") int maxConcurrent,
+                            @Value("${app.payment.bulkhead.queue-capacity:500}") int queueCapacity) {
+        this.meterRegistry = meterRegistry;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+
+    /**
+     * Returns the executor for gateway calls of the given provider.
+     *
+     * @param provider the provider name, as returned by {@link PaymentStrategy#getProviderName()}
+     * @return the provider's executor; rejects tasks when the provider is saturated
+     */
+    public Executor forProvider(String provider) {
+        return executors.computeIfAbsent(provider, this::createExecutor);
+    }
+
+    /**
+     * Stops accepting gateway calls and waits for running ones to finish.
+     */
+    @PreDestroy
+    public void shutdown() {
+        pools.forEach(ThreadPoolExecutor::shutdown);
+        for (ThreadPoolExecutor pool : pools) {
+            try {
+                if (!pool.awaitTermination(10, TimeUnit.SECONDS)) {
+                    pool.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    private ExecutorService createExecutor(String provider) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("payment-" + provider + "-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        // Idle providers give their threads back
+        pool.allowCoreThreadTimeOut(true);
+        pools.add(pool);
+        return ExecutorServiceMetrics.monitor(meterRegistry, pool, METRIC_PREFIX, METRIC_PREFIX,
+                Tags.of("provider", provider));
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.ecommerce.payment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Resilience layer around the provider call of {@link AbstractPaymentProcessor}.
+ *
+ * Every call runs on the provider's bulkhead (see {@link PaymentBulkheads}) under a
+ * per-provider timeout, timed from when the call leaves the bulkhead queue; a call that
+ * overruns it is interrupted and counts as a failure. A call the caller cancels while it
+ * is still queued is never made and does not count at all.
+ * Failures feed a per-provider {@link CircuitBreaker}, so a provider that keeps failing
+ * or hanging is skipped outright until it recovers instead of tying up threads. Failed
+ * calls are retried with exponentially growing, fully jittered delays; timed-out calls
+ * only when configured, since the provider may have charged the order after all.
+ *
+ * Settings come from {@code app.payment.resilience.*} and can be overridden per provider
+ * under {@code app.payment.resilience.providers.<provider>.*}, the provider being its
+ * lower-cased name (e.g. {@code stripe}). Call latencies, breaker states, rejections and
+ * retries are exported per provider as {@code payment.gateway.*} metrics.
+ */
+@Component
+@Slf4j
+public class PaymentGatewayGuard {
+
+    private static final String PREFIX = "app.payment.resilience.";
+
+    private final PaymentBulkheads paymentBulkheads;
+    private final MeterRegistry meterRegistry;
+    private final Function<String, Policy> policies;
+    private final ScheduledThreadPoolExecutor timers;
+    private final Map<String, ProviderGuard> guards = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PaymentGatewayGuard(PaymentBulkheads paymentBulkheads, MeterRegistry meterRegistry, Environment environment) {
+        this(paymentBulkheads, meterRegistry, provider -> Policy.from(environment, provider));
+    }
+
+    PaymentGatewayGuard(PaymentBulkheads paymentBulkheads, MeterRegistry meterRegistry,
+                        Function<String, Policy> policies) {
+        this.paymentBulkheads = paymentBulkheads;
+        this.meterRegistry = meterRegistry;
+        this.policies = policies;
+        this.timers = new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("payment-timeouts-"));
+        this.timers.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Calls a provider on its own bulkhead.
+     *
+     * @see #call(String, Supplier, Executor)
+     */
+    public <T> CompletableFuture<T> call(String provider, Supplier<T> call) {
+        return call(provider, call, paymentBulkheads.forProvider(provider));
+    }
+
+    /**
+     * Calls a provider with its timeout, circuit breaker and retries applied.
+     * {@link IllegalArgumentException} and {@link IllegalStateException} are taken as the
+     * provider rejecting the request itself: they are neither retried nor counted as failures.
+     *
+     * @param provider the provider's name
+     * @param call the provider call; interrupted when it overruns the timeout
+     * @param executor the executor to run the call on
+     * @return a future completed with the call's result, or failed with a
+     *         {@link PaymentUnavailableException} if the provider could not be used;
+     *         cancelling it abandons the call
+     */
+    public <T> CompletableFuture<T> call(String provider, Supplier<T> call, Executor executor) {
+        ProviderGuard guard = guards.computeIfAbsent(provider, this::createGuard);
+        return attempt(guard, call, executor, 1);
+    }
+
+    /**
+     * @return the state of the provider's circuit breaker
+     */
+    public CircuitBreaker.State getState(String provider) {
+        ProviderGuard guard = guards.get(provider);
+        return guard == null ? CircuitBreaker.State.CLOSED : guard.breaker().getState();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timers.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> attempt(ProviderGuard guard, Supplier<T> call, Executor executor, int attempt) {
+        if (!guard.breaker().tryAcquire()) {
+            guard.circuitOpen().increment();
+            return CompletableFuture.failedFuture(
+                    new PaymentUnavailableException(guard.provider(), PaymentUnavailableException.Reason.CIRCUIT_OPEN));
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicLong startedAt = new AtomicLong();
+        long timeout = guard.policy().timeout().toNanos();
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            // Timed from here, so time spent queued on the bulkhead is not taken for provider latency
+            startedAt.set(System.nanoTime());
+            ScheduledFuture<?> timer = timers.schedule(() -> result.completeExceptionally(new TimeoutException()),
+                    timeout, TimeUnit.NANOSECONDS);
+            try {
+                result.complete(call.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                timer.cancel(false);
+            }
+            return null;
+        });
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            guard.breaker().release();
+            guard.busy().increment();
+            return CompletableFuture.failedFuture(
+                    new PaymentUnavailableException(guard.provider(), PaymentUnavailableException.Reason.BUSY));
+        }
+        // Interrupts a call that overran its timeout; a call given up on while still queued never starts
+        result.whenComplete((value, error) -> {
+            if (error instanceof TimeoutException || error instanceof CancellationException) {
+                task.cancel(true);
+            }
+        });
+
+        CompletableFuture<T> outcome = result.handle((value, error) -> {
+            if (error instanceof CancellationException) {
+                // Given up on by the caller, which says nothing about the provider
+                guard.breaker().release();
+                return CompletableFuture.<T>failedFuture(error);
+            }
+            long elapsed = System.nanoTime() - startedAt.get();
+            if (error == null || isRequestRejection(error)) {
+                guard.breaker().onSuccess();
+                guard.success().record(elapsed, TimeUnit.NANOSECONDS);
+                return error == null ? CompletableFuture.completedFuture(value) : CompletableFuture.<T>failedFuture(error);
+            }
+
+            boolean timedOut = error instanceof TimeoutException;
+            guard.breaker().onFailure();
+            (timedOut ? guard.timeout() : guard.failure()).record(elapsed, TimeUnit.NANOSECONDS);
+
+            if (attempt < guard.policy().maxAttempts() && (!timedOut || guard.policy().retryOnTimeout())) {
+                long delay = backoff(guard.policy(), attempt);
+                log.warn("PAYMENT GATEWAY: {} call {} ({}), retrying in {}ms", guard.provider(),
+                        timedOut ? "timed out" : "failed", error.getMessage(), delay);
+                guard.retries().increment();
+                return retryAfter(delay, () -> attempt(guard, call, executor, attempt + 1));
+            }
+
+            log.error("PAYMENT GATEWAY: {} call {} after {} attempt(s)", guard.provider(),
+                    timedOut ? "timed out" : "failed", attempt, error);
+            return CompletableFuture.<T>failedFuture(error instanceof PaymentUnavailableException ? error
+                    : new PaymentUnavailableException(guard.provider(), timedOut
+                            ? PaymentUnavailableException.Reason.TIMED_OUT
+                            : PaymentUnavailableException.Reason.FAILED, error));
+        }).thenCompose(Function.identity());
+        outcome.whenComplete((value, error) -> {
+            if (outcome.isCancelled()) {
+                result.cancel(false);
+            }
+        });
+        return outcome;
+    }
+
+    private <T> CompletableFuture<T> retryAfter(long delayMillis, Supplier<CompletableFuture<T>> retry) {
+        CompletableFuture<T> next = new CompletableFuture<>();
+        timers.schedule(() -> retry.get().whenComplete((value, error) -> {
+            if (error != null) {
+                next.completeExceptionally(error);
+            } else {
+                next.complete(value);
+            }
+        }), delayMillis, TimeUnit.MILLISECONDS);
+        return next;
+    }
+
+    private static long backoff(Policy policy, int attempt) {
+        // Full jitter: anywhere between no wait and the exponential delay for this attempt
+        long ceiling = Math.min(policy.maxBackoff().toMillis(), policy.backoff().toMillis() << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static boolean isRequestRejection(Throwable error) {
+        return error instanceof IllegalArgumentException || error instanceof IllegalStateException;
+    }
+
+    private ProviderGuard createGuard(String provider) {
+        Policy policy = policies.apply(provider);
+        CircuitBreaker breaker = new CircuitBreaker(policy.windowSize(), policy.minimumCalls(),
+                policy.failureRateThreshold(), policy.openDuration(), policy.halfOpenCalls());
+        Gauge.builder("payment.gateway.circuit.state", breaker, b -> b.getState().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .tag("provider", provider)
+                .register(meterRegistry);
+        return new ProviderGuard(provider, policy, breaker,
+                callTimer(provider, "success"), callTimer(provider, "failure"), callTimer(provider, "timeout"),
+                rejections(provider, "circuit_open"), rejections(provider, "busy"),
+                Counter.builder("payment.gateway.retries").tag("provider", provider).register(meterRegistry));
+    }
+
+    private Timer callTimer(String provider, String outcome) {
+        return Timer.builder("payment.gateway.calls")
+                .description("Latency of payment provider calls")
+                .tags("provider", provider, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter rejections(String provider, String reason) {
+        return Counter.builder("payment.gateway.rejections")
+                .description("Provider calls not made because the provider was unavailable")
+                .tags("provider", provider, "reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Resilience settings for one provider.
+     */
+    public record Policy(Duration timeout,
+                         int maxAttempts,
+                         Duration backoff,
+                         Duration maxBackoff,
+                         boolean retryOnTimeout,
+                         int windowSize,
+                         int minimumCalls,
+                         double failureRateThreshold,
+                         Duration openDuration,
+                         int halfOpenCalls) {
+
+        static Policy from(Environment environment, String provider) {
+            String own = PREFIX + "providers." + provider.toLowerCase(Locale.ROOT) + ".";
+            return new Policy(
+                    setting(environment, own, "timeout", Duration.class, Duration.ofSeconds(2)),
+                    setting(environment, own, "max-attempts", Integer.class, 2),
+                    setting(environment, own, "backoff", Duration.class, Duration.ofMillis(100)),
+                    setting(environment, own, "max-backoff", Duration.class, Duration.ofSeconds(1)),
+                    setting(environment, own, "retry-on-timeout", Boolean.class, false),
+                    setting(environment, own, "window-size", Integer.class, 50),
+                    setting(environment, own, "minimum-calls", Integer.class, 20),
+                    setting(environment, own, "failure-rate-threshold", Double.class, 0.5),
+                    setting(environment, own, "open-duration", Duration.class, Duration.ofSeconds(30)),
+                    setting(environment, own, "half-open-calls", Integer.class, 3));
+        }
+
+        private static <V> V setting(Environment environment, String own, String name, Class<V> type, V fallback) {
+            return environment.getProperty(own + name, type,
+                    environment.getProperty(PREFIX + name, type, fallback));
+        }
+    }
+
+    private record ProviderGuard(String provider,
+                                 Policy policy,
+                                 CircuitBreaker breaker,
+                                 Timer success,
+                                 Timer failure,
+                                 Timer timeout,
+                                 Counter circuitOpen,
+                                 Counter busy,
+                                 Counter retries) {
+    }
+}
@@ -3,6 +3,9 @@ package com.example.ecommerce.payment;
 import com.example.ecommerce.domain.Order;
 import com.example.ecommerce.dto.response.PaymentResponseDTO;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * Common contract for all payment providers.
  *
@@ -18,4 +21,23 @@ public interface PaymentStrategy {
      * @return {@link PaymentResponseDTO} containing the result of the payment attempt
      */
     PaymentResponseDTO processPayment(Order order);
+
+    /**
+     * Returns the name of the payment provider.
+     * Keys the provider's bulkhead, circuit breaker, settings and metrics,
+     * and is used for logging and identification purposes.
+     */
+    String getProviderName();
+
+    /**
+     * Process a payment for the given order without blocking the caller.
+     * The call to the provider runs on the given executor.
+     *
+     * @param order the order to process payment for, with its items loaded
+     * @param executor the executor to call the provider on
+     * @return a future completed with the result of the payment attempt
+     */
+    default CompletableFuture<PaymentResponseDTO> processPaymentAsync(Order order, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> processPayment(order), executor);
+    }
 }
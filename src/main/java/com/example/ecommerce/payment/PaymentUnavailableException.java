@@ -0,0 +1,50 @@
+package com.example.ecommerce.payment;
+
+import com.example.ecommerce.constants.MessageConstants;
+
+/**
+ * Thrown when a payment provider could not be asked to charge an order.
+ * The order is left untouched, so the payment can be retried later.
+ */
+public class PaymentUnavailableException extends RuntimeException {
+
+    /**
+     * Why the provider could not be used.
+     */
+    public enum Reason {
+        /** The provider's bulkhead is full. */
+        BUSY,
+        /** The provider's circuit breaker is open. */
+        CIRCUIT_OPEN,
+        /** The provider did not answer in time. */
+        TIMED_OUT,
+        /** The call to the provider failed. */
+        FAILED
+    }
+
+    private final String provider;
+    private final Reason reason;
+
+    public PaymentUnavailableException(String provider, Reason reason) {
+        this(provider, reason, null);
+    }
+
+    public PaymentUnavailableException(String provider, Reason reason, Throwable cause) {
+        super(switch (reason) {
+            case BUSY -> MessageConstants.PAYMENT_PROVIDER_BUSY;
+            case CIRCUIT_OPEN -> MessageConstants.PAYMENT_PROVIDER_CIRCUIT_OPEN;
+            case TIMED_OUT -> MessageConstants.PAYMENT_PROVIDER_TIMED_OUT;
+            case FAILED -> MessageConstants.PAYMENT_PROVIDER_FAILED;
+        } + ": " + provider, cause);
+        this.provider = provider;
+        this.reason = reason;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.ecommerce.proxy;
+
+import com.example.ecommerce.domain.Product;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact, schema-versioned binary format for cached products.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * product := version:byte body
+ * list    := version:byte count:int body*
+ * body    := idMsb:long idLsb:long name:string description:string price
+ * string  := length:int utf8:byte[length]     (length -1 for null)
+ * price   := scale:int unscaled:long          (scale Integer.MIN_VALUE for null)
+ * </pre>
+ *
+ * Any other leading version byte, including the {@code '{'} or {@code '['} of an entry
+ * written by the JSON codec, is rejected so the caller treats it as a miss and rewrites it.
+ */
+public class BinaryProductCacheCodec implements ProductCacheCodec {
+
+    static final byte VERSION = 1;
+
+    private static final int NULL_LENGTH = -1;
+    private static final int NULL_SCALE = Integer.MIN_VALUE;
+
+    @Override
+    public byte[] encode(Product product) {
+        EncodedProduct encoded = EncodedProduct.of(product);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + encoded.size());
+        buffer.put(VERSION);
+        encoded.writeTo(buffer);
+        return buffer.array();
+    }
+
+    @Override
+    public Product decode(byte[] bytes) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            checkVersion(buffer);
+            Product product = readProduct(buffer);
+            checkFullyRead(buffer);
+            return product;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new SerializationException("Malformed binary product", e);
+        }
+    }
+
+    @Override
+    public byte[] encodeList(List<Product> products) {
+        List<EncodedProduct> encoded = new ArrayList<>(products.size());
+        int size = 1 + Integer.BYTES;
+        for (Product product : products) {
+            EncodedProduct item = EncodedProduct.of(product);
+            encoded.add(item);
+            size += item.size();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(VERSION);
+        buffer.putInt(encoded.size());
+        encoded.forEach(item -> item.writeTo(buffer));
+        return buffer.array();
+    }
+
+    @Override
+    public List<Product> decodeList(byte[] bytes) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            checkVersion(buffer);
+            int count = buffer.getInt();
+            if (count < 0) {
+                throw new IllegalArgumentException("Negative product count: " + count);
+            }
+            List<Product> products = new ArrayList<>(Math.min(count, buffer.remaining()));
+            for (int i = 0; i < count; i++) {
+                products.add(readProduct(buffer));
+            }
+            checkFullyRead(buffer);
+            return products;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new SerializationException("Malformed binary product list", e);
+        }
+    }
+
+    private static void checkVersion(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new SerializationException("Unsupported product cache format version: " + version);
+        }
+    }
+
+    private static void checkFullyRead(ByteBuffer buffer) {
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException(buffer.remaining() + " trailing bytes");
+        }
+    }
+
+    private static Product readProduct(ByteBuffer buffer) {
+        UUID id = new UUID(buffer.getLong(), buffer.getLong());
+        String name = readString(buffer);
+        String description = readString(buffer);
+        int scale = buffer.getInt();
+        long unscaled = buffer.getLong();
+        BigDecimal price = scale == NULL_SCALE ? null : BigDecimal.valueOf(unscaled, scale);
+        return new Product(id, name, description, price);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid string length: " + length);
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    /**
+     * A product with its variable-length fields already converted, so the exact
+     * buffer size is known before anything is written.
+     */
+    private record EncodedProduct(UUID id, byte[] name, byte[] description, int scale, long unscaled) {
+
+        static EncodedProduct of(Product product) {
+            BigDecimal price = product.getPrice();
+            int scale = NULL_SCALE;
+            long unscaled = 0;
+            if (price != null) {
+                BigInteger unscaledValue = price.unscaledValue();
+                if (unscaledValue.bitLength() >= Long.SIZE || price.scale() == NULL_SCALE) {
+                    throw new SerializationException("Price does not fit the binary format: " + price);
+                }
+                scale = price.scale();
+                unscaled = unscaledValue.longValue();
+            }
+            return new EncodedProduct(product.getId(), utf8(product.getName()), utf8(product.getDescription()),
+                    scale, unscaled);
+        }
+
+        int size() {
+            return 2 * Long.BYTES
+                    + Integer.BYTES + (name != null ? name.length : 0)
+                    + Integer.BYTES + (description != null ? description.length : 0)
+                    + Integer.BYTES + Long.BYTES;
+        }
+
+        void writeTo(ByteBuffer buffer) {
+            buffer.putLong(id.getMostSignificantBits());
+            buffer.putLong(id.getLeastSignificantBits());
+            writeString(buffer, name);
+            writeString(buffer, description);
+            buffer.putInt(scale);
+            buffer.putLong(unscaled);
+        }
+
+        private static byte[] utf8(String value) {
+            return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+        }
+
+        private static void writeString(ByteBuffer buffer, byte[] value) {
+            if (value == null) {
+                buffer.putInt(NULL_LENGTH);
+            } else {
+                buffer.putInt(value.length);
+                buffer.put(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.ecommerce.proxy;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Probabilistic early expiration ("XFetch") for one family of cache keys.
+ *
+ * A reader that hits the cache refreshes the entry ahead of its expiry with a
+ * probability that rises as the remaining TTL approaches the time the value takes
+ * to recompute. Hot keys are therefore reloaded by roughly one caller shortly
+ * before they expire, rather than by every caller at once right after.
+ */
+class EarlyRefreshPolicy {
+
+    private static final double SMOOTHING = 0.2;
+
+    private final double beta;
+
+    /**
+     * Moving average of recompute time in milliseconds; updates may race, which
+     * only makes the estimate slightly less smooth.
+     */
+    private volatile double loadMillis;
+
+    /**
+     * @param beta values above 1 refresh earlier, values below 1 later; 0 disables early refresh
+     */
+    EarlyRefreshPolicy(double beta) {
+        this.beta = beta;
+    }
+
+    /**
+     * Decides whether this read should recompute the entry now.
+     *
+     * @param remainingTtlMillis remaining TTL as reported by Redis; negative when the key
+     *                           is missing or has no expiry
+     */
+    boolean shouldRefresh(long remainingTtlMillis) {
+        if (remainingTtlMillis < 0 || beta <= 0 || loadMillis <= 0) {
+            return false;
+        }
+        double gap = -loadMillis * beta * Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+        return gap >= remainingTtlMillis;
+    }
+
+    void recordLoad(long nanos) {
+        double millis = nanos / 1_000_000.0;
+        double current = loadMillis;
+        loadMillis = current <= 0 ? millis : current + SMOOTHING * (millis - current);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.ecommerce.proxy;
+
+import com.example.ecommerce.domain.Product;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Stores products as Jackson JSON, the original cache format.
+ */
+public class JsonProductCacheCodec implements ProductCacheCodec {
+
+    private final ObjectMapper objectMapper;
+    private final JavaType listType;
+
+    public JsonProductCacheCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.listType = objectMapper.getTypeFactory().constructCollectionType(List.class, Product.class);
+    }
+
+    @Override
+    public byte[] encode(Product product) {
+        try {
+            return objectMapper.writeValueAsBytes(product);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to encode product as JSON", e);
+        }
+    }
+
+    @Override
+    public Product decode(byte[] bytes) {
+        try {
+            return objectMapper.readValue(bytes, Product.class);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to decode product from JSON", e);
+        }
+    }
+
+    @Override
+    public byte[] encodeList(List<Product> products) {
+        try {
+            return objectMapper.writeValueAsBytes(products);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to encode products as JSON", e);
+        }
+    }
+
+    @Override
+    public List<Product> decodeList(byte[] bytes) {
+        try {
+            return objectMapper.readValue(bytes, listType);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to decode products from JSON", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.ecommerce.proxy;
+
+import com.example.ecommerce.domain.Product;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.List;
+
+/**
+ * Strategy for turning products into the bytes stored in Redis and back.
+ * Selected with {@code app.caching.codec}.
+ */
+public interface ProductCacheCodec {
+
+    /**
+     * Encodes a single product.
+     *
+     * @throws SerializationException if the product cannot be encoded
+     */
+    byte[] encode(Product product);
+
+    /**
+     * Decodes a single product.
+     *
+     * @throws SerializationException if the bytes are not in this codec's format
+     */
+    Product decode(byte[] bytes);
+
+    /**
+     * Encodes a list of products.
+     *
+     * @throws SerializationException if a product cannot be encoded
+     */
+    byte[] encodeList(List<Product> products);
+
+    /**
+     * Decodes a list of products.
+     *
+     * @throws SerializationException if the bytes are not in this codec's format
+     */
+    List<Product> decodeList(byte[] bytes);
+}
@@ -0,0 +1,107 @@
+package com.example.ecommerce.proxy;
+
+import com.example.ecommerce.domain.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * In-process (L1) product cache that sits in front of the Redis (L2) cache.
+ *
+ * Entries are bounded by size and by time since write. When a product changes,
+ * the local entry is dropped and an invalidation is published on a Redis channel
+ * so every other node drops its copy too. Pub/sub delivery is best-effort, so the
+ * TTL is the upper bound on how long a node may serve a stale product.
+ */
+@Component
+@ConditionalOnProperty(name = "app.caching.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class ProductNearCache implements MessageListener {
+
+    private static final String SEPARATOR = "|";
+
+    private final Cache<UUID, Product> cache;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public ProductNearCache(RedisTemplate<String, String> redisTemplate,
+                            @Value("${app.caching.l1.invalidation-channel:products:invalidate}") String channel,
+                            @Value("${app.caching.l1.maximum-size:1000}") long maximumSize,
+                            @Value("${app.caching.l1.ttl:60s}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products.l1");
+    }
+
+    /**
+     * Returns a copy of the cached product, or {@code null} on a miss.
+     * Copies keep callers from mutating the shared entry.
+     */
+    public Product get(UUID id) {
+        Product product = cache.getIfPresent(id);
+        return product != null ? copyOf(product) : null;
+    }
+
+    public void put(Product product) {
+        cache.put(product.getId(), copyOf(product));
+    }
+
+    /**
+     * Drops the product on this node and tells every other node to do the same.
+     */
+    public void invalidate(UUID id) {
+        cache.invalidate(id);
+        try {
+            redisTemplate.convertAndSend(channel, nodeId + SEPARATOR + id);
+        } catch (RuntimeException e) {
+            // Other nodes fall back to the TTL
+            log.warn("PROXY: Failed to publish L1 invalidation for product: {}", id, e);
+        }
+    }
+
+    /**
+     * Handles invalidations published by other nodes.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(SEPARATOR);
+        if (separator < 0 || body.startsWith(nodeId + SEPARATOR)) {
+            return;
+        }
+        try {
+            UUID id = UUID.fromString(body.substring(separator + 1));
+            cache.invalidate(id);
+            log.debug("PROXY: Evicted product {} from L1 after remote invalidation", id);
+        } catch (IllegalArgumentException e) {
+            log.warn("PROXY: Ignoring malformed L1 invalidation message: {}", body);
+        }
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    private static Product copyOf(Product product) {
+        return new Product(product.getId(), product.getName(), product.getDescription(), product.getPrice());
+    }
+}
@@ -2,92 +2,213 @@ package com.example.ecommerce.proxy;
 
 import com.example.ecommerce.domain.Product;
 import com.example.ecommerce.dto.request.CreateProductRequestDTO;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.serializer.SerializationException;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Caching Proxy that adds Redis-based caching to ProductService.
  * This is a PROXY PATTERN - it controls access and adds caching without changing the core functionality.
  *
  * Utilizes caching to optimize performance for frequently accessed products.
+ * Single-product lookups go through two tiers: an in-process {@link ProductNearCache}
+ * first, then Redis. Lookup latency is recorded per tier as {@code product.cache.lookup}.
+ *
+ * Cache misses are coalesced per key with {@link SingleFlight}, so only one caller per
+ * node reaches the database, and hot Redis entries are refreshed shortly before they
+ * expire according to an {@link EarlyRefreshPolicy}. Values are stored in the format
+ * of the configured {@link ProductCacheCodec}.
+ *
+ * Replaces ProductService wherever a {@link ProductServiceContract} is injected,
+ * unless caching is switched off with {@code app.caching.enabled=false}.
  */
 @Component
-@RequiredArgsConstructor
+@Primary
+@ConditionalOnProperty(name = "app.caching.enabled", havingValue = "true", matchIfMissing = true)
 @Slf4j
 public class ProductServiceCachingProxy implements ProductServiceContract {
     
     private final ProductServiceContract delegate;
-    private final RedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final ProductCacheCodec codec;
+    private final ProductNearCache nearCache;
+    
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final EarlyRefreshPolicy productRefreshPolicy;
+    private final EarlyRefreshPolicy listRefreshPolicy;
+    private final EarlyRefreshPolicy pageRefreshPolicy;
+    
+    private final Timer l1Timer;
+    private final Timer l2Timer;
+    private final Timer originTimer;
     
     private static final String PRODUCT_CACHE_PREFIX = "product:";
     private static final String PRODUCTS_LIST_KEY = "products:all";
     private static final Duration CACHE_TTL = Duration.ofMinutes(30);
     private static final Duration LIST_CACHE_TTL = Duration.ofMinutes(5);
+    private static final String PRODUCTS_PAGE_PREFIX = "products:page:";
+    private static final String PRODUCTS_VERSION_KEY = "products:version";
+    private static final Duration PAGE_CACHE_TTL = Duration.ofMinutes(5);
+    
+    public ProductServiceCachingProxy(@Qualifier("productService") ProductServiceContract delegate,
+                                      RedisTemplate<String, byte[]> redisTemplate,
+                                      ProductCacheCodec codec,
+                                      ProductNearCache nearCache,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.caching.early-refresh-beta:1.0}") double earlyRefreshBeta) {
+        this.delegate = delegate;
+        this.redisTemplate = redisTemplate;
+        this.codec = codec;
+        this.nearCache = nearCache;
+        this.productRefreshPolicy = new EarlyRefreshPolicy(earlyRefreshBeta);
+        this.listRefreshPolicy = new EarlyRefreshPolicy(earlyRefreshBeta);
+        this.pageRefreshPolicy = new EarlyRefreshPolicy(earlyRefreshBeta);
+        this.l1Timer = lookupTimer("l1", meterRegistry);
+        this.l2Timer = lookupTimer("l2", meterRegistry);
+        this.originTimer = lookupTimer("origin", meterRegistry);
+    }
 
     @Override
     public List<Product> findAll() {
-        String cacheKey = PRODUCTS_LIST_KEY;
+        return cachedList(PRODUCTS_LIST_KEY, LIST_CACHE_TTL, listRefreshPolicy, delegate::findAll);
+    }
+
+    /**
+     * Caches each page separately under the current catalogue version. Product changes
+     * bump the version instead of deleting pages, so stale pages are simply never read
+     * again and expire on their own.
+     */
+    @Override
+    public List<Product> findPage(UUID after, int limit) {
+        String cacheKey = PRODUCTS_PAGE_PREFIX + catalogueVersion() + ":"
+                + (after != null ? after : "first") + ":" + limit;
+        return cachedList(cacheKey, PAGE_CACHE_TTL, pageRefreshPolicy, () -> delegate.findPage(after, limit));
+    }
+
+    /**
+     * Streams straight from the delegate; a full scan is never cached.
+     */
+    @Override
+    public void forEachProduct(Consumer<Product> action) {
+        delegate.forEachProduct(action);
+    }
+
+    @Override
+    public Product findById(UUID id) {
+        long started = System.nanoTime();
         
-        try {
-            String cached = redisTemplate.opsForValue().get(cacheKey);
-            if (cached != null) {
-                log.debug("PROXY: Cache hit for products list");
-                return objectMapper.readValue(cached, 
-                        objectMapper.getTypeFactory().constructCollectionType(List.class, Product.class));
-            }
-        } catch (JsonProcessingException e) {
-            log.warn("PROXY: Failed to deserialize cached products list", e);
+        Product local = nearCache.get(id);
+        if (local != null) {
+            log.debug("PROXY: L1 hit for product: {}", id);
+            l1Timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return local;
         }
         
-        log.debug("PROXY: Cache miss for products list - fetching from delegate");
-        List<Product> products = delegate.findAll();
+        String cacheKey = PRODUCT_CACHE_PREFIX + id;
         
-        try {
-            String serialized = objectMapper.writeValueAsString(products);
-            redisTemplate.opsForValue().set(cacheKey, serialized, LIST_CACHE_TTL);
-            log.debug("PROXY: Cached products list with {} items", products.size());
-        } catch (JsonProcessingException e) {
-            log.warn("PROXY: Failed to cache products list", e);
+        CachedEntry cached = readWithTtl(cacheKey);
+        if (cached.value() != null) {
+            if (productRefreshPolicy.shouldRefresh(cached.ttlMillis())) {
+                log.debug("PROXY: Refreshing product {} ahead of expiry", id);
+            } else {
+                try {
+                    log.debug("PROXY: Cache hit for product: {}", id);
+                    Product product = codec.decode(cached.value());
+                    nearCache.put(product);
+                    l2Timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                    return product;
+                } catch (SerializationException e) {
+                    log.warn("PROXY: Failed to deserialize cached product: {}", id, e);
+                }
+            }
         }
         
-        return products;
+        log.debug("PROXY: Cache miss for product: {} - fetching from delegate", id);
+        Product product = singleFlight.load(cacheKey, () -> {
+            long loadStarted = System.nanoTime();
+            Product loaded = delegate.findById(id);
+            productRefreshPolicy.recordLoad(System.nanoTime() - loadStarted);
+            
+            // Fill both tiers before waiters are released, so late arrivals hit L1
+            cacheProduct(loaded);
+            nearCache.put(loaded);
+            return loaded;
+        });
+        originTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        
+        return product;
     }
 
     @Override
-    public Product findById(UUID id) {
-        String cacheKey = PRODUCT_CACHE_PREFIX + id;
+    public List<Product> findAllById(Collection<UUID> ids) {
+        List<Product> products = new ArrayList<>(ids.size());
+        List<UUID> idList = new ArrayList<>();
+        for (UUID id : new LinkedHashSet<>(ids)) {
+            Product local = nearCache.get(id);
+            if (local != null) {
+                products.add(local);
+            } else {
+                idList.add(id);
+            }
+        }
+        if (idList.isEmpty()) {
+            return products;
+        }
         
-        try {
-            String cached = redisTemplate.opsForValue().get(cacheKey);
-            if (cached != null) {
-                log.debug("PROXY: Cache hit for product: {}", id);
-                return objectMapper.readValue(cached, Product.class);
+        // One MGET for all remaining keys instead of a round trip per product
+        List<String> keys = idList.stream().map(id -> PRODUCT_CACHE_PREFIX + id).toList();
+        List<byte[]> cached = redisTemplate.opsForValue().multiGet(keys);
+        
+        List<UUID> misses = new ArrayList<>();
+        for (int i = 0; i < idList.size(); i++) {
+            byte[] value = cached != null ? cached.get(i) : null;
+            if (value == null) {
+                misses.add(idList.get(i));
+                continue;
+            }
+            try {
+                Product product = codec.decode(value);
+                nearCache.put(product);
+                products.add(product);
+            } catch (SerializationException e) {
+                log.warn("PROXY: Failed to deserialize cached product: {}", idList.get(i), e);
+                misses.add(idList.get(i));
             }
-        } catch (JsonProcessingException e) {
-            log.warn("PROXY: Failed to deserialize cached product: {}", id, e);
         }
         
-        log.debug("PROXY: Cache miss for product: {} - fetching from delegate", id);
-        Product product = delegate.findById(id);
+        log.debug("PROXY: Bulk lookup of {} products - {} cache hits, {} misses",
+                idList.size(), idList.size() - misses.size(), misses.size());
         
-        try {
-            String serialized = objectMapper.writeValueAsString(product);
-            redisTemplate.opsForValue().set(cacheKey, serialized, CACHE_TTL);
-            log.debug("PROXY: Cached product: {}", id);
-        } catch (JsonProcessingException e) {
-            log.warn("PROXY: Failed to cache product: {}", id, e);
+        if (!misses.isEmpty()) {
+            List<Product> loaded = delegate.findAllById(misses);
+            loaded.forEach(product -> {
+                cacheProduct(product);
+                nearCache.put(product);
+            });
+            products.addAll(loaded);
         }
         
-        return product;
+        return products;
     }
 
     @Override
@@ -96,6 +217,7 @@ public class ProductServiceCachingProxy implements ProductServiceContract {
         
         // GRANULAR APPROACH: Cache new product, invalidate only list
         cacheProduct(product);        // Cache the new product for future findById()
+        nearCache.put(product);
         invalidateListCache();        // List cache is stale (missing new product)
         
         log.debug("PROXY: Created product {} - cached individually, invalidated list", product.getId());
@@ -108,6 +230,8 @@ public class ProductServiceCachingProxy implements ProductServiceContract {
         
         // GRANULAR APPROACH: Update specific caches
         cacheProduct(product);        // Update individual product cache
+        nearCache.invalidate(id);     // Other nodes drop their L1 copy
+        nearCache.put(product);
         invalidateListCache();        // List cache contains old version
         
         log.debug("PROXY: Updated product {} - refreshed individual cache, invalidated list", id);
@@ -120,21 +244,93 @@ public class ProductServiceCachingProxy implements ProductServiceContract {
         
         // GRANULAR APPROACH: Remove specific caches
         invalidateProductCache(id);   // Remove individual product cache
+        nearCache.invalidate(id);     // Remove L1 copy on every node
         invalidateListCache();        // List cache contains deleted product
         
         log.debug("PROXY: Deleted product {} - removed individual cache, invalidated list", id);
     }
     
+    /**
+     * Serves a list of products from Redis, loading it through a single flight on a miss
+     * or when the entry is due for early refresh.
+     */
+    private List<Product> cachedList(String cacheKey, Duration ttl, EarlyRefreshPolicy refreshPolicy,
+                                     Supplier<List<Product>> loader) {
+        CachedEntry cached = readWithTtl(cacheKey);
+        if (cached.value() != null) {
+            if (refreshPolicy.shouldRefresh(cached.ttlMillis())) {
+                log.debug("PROXY: Refreshing {} ahead of expiry", cacheKey);
+            } else {
+                try {
+                    log.debug("PROXY: Cache hit for {}", cacheKey);
+                    return codec.decodeList(cached.value());
+                } catch (SerializationException e) {
+                    log.warn("PROXY: Failed to deserialize cached {}", cacheKey, e);
+                }
+            }
+        }
+        
+        log.debug("PROXY: Cache miss for {} - fetching from delegate", cacheKey);
+        return singleFlight.load(cacheKey, () -> {
+            long started = System.nanoTime();
+            List<Product> products = loader.get();
+            refreshPolicy.recordLoad(System.nanoTime() - started);
+            
+            try {
+                redisTemplate.opsForValue().set(cacheKey, codec.encodeList(products), ttl);
+                log.debug("PROXY: Cached {} with {} items", cacheKey, products.size());
+            } catch (SerializationException e) {
+                log.warn("PROXY: Failed to cache {}", cacheKey, e);
+            }
+            
+            return products;
+        });
+    }
+    
+    private String catalogueVersion() {
+        byte[] version = redisTemplate.opsForValue().get(PRODUCTS_VERSION_KEY);
+        return version != null ? new String(version, StandardCharsets.UTF_8) : "0";
+    }
+    
+    /**
+     * Reads a key together with its remaining TTL in one pipelined round trip.
+     */
+    private CachedEntry readWithTtl(String key) {
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, byte[]> ops = (RedisOperations<String, byte[]>) operations;
+                ops.opsForValue().get(key);
+                ops.getExpire(key, TimeUnit.MILLISECONDS);
+                return null;
+            }
+        });
+        byte[] value = (byte[]) results.get(0);
+        Long ttlMillis = (Long) results.get(1);
+        return new CachedEntry(value, ttlMillis != null ? ttlMillis : -1);
+    }
+    
+    private record CachedEntry(byte[] value, long ttlMillis) {
+    }
+    
+    private static Timer lookupTimer(String tier, MeterRegistry meterRegistry) {
+        return Timer.builder("product.cache.lookup")
+                .description("Product lookup latency by the tier that served it")
+                .tag("tier", tier)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+    
     /**
      * Cache a single product.
      */
     private void cacheProduct(Product product) {
         try {
             String cacheKey = PRODUCT_CACHE_PREFIX + product.getId();
-            String serialized = objectMapper.writeValueAsString(product);
-            redisTemplate.opsForValue().set(cacheKey, serialized, CACHE_TTL);
+            redisTemplate.opsForValue().set(cacheKey, codec.encode(product), CACHE_TTL);
             log.debug("PROXY: Cached product: {}", product.getId());
-        } catch (JsonProcessingException e) {
+        } catch (SerializationException e) {
             log.warn("PROXY: Failed to cache product: {}", product.getId(), e);
         }
     }
@@ -149,11 +345,12 @@ public class ProductServiceCachingProxy implements ProductServiceContract {
     }
     
     /**
-     * Invalidate the products list cache.
+     * Invalidate the products list cache and every cached page.
      * This is necessary when the list contents change (create/update/delete operations).
      */
     private void invalidateListCache() {
         redisTemplate.delete(PRODUCTS_LIST_KEY);
-        log.debug("PROXY: Invalidated products list cache");
+        redisTemplate.opsForValue().increment(PRODUCTS_VERSION_KEY);
+        log.debug("PROXY: Invalidated products list cache and cached pages");
     }
 }
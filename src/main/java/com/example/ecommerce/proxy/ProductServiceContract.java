@@ -3,8 +3,10 @@ package com.example.ecommerce.proxy;
 import com.example.ecommerce.domain.Product;
 import com.example.ecommerce.dto.request.CreateProductRequestDTO;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Interface defining the contract for product service operations.
@@ -23,6 +25,23 @@ public interface ProductServiceContract {
      */
     Product findById(UUID id);
     
+    /**
+     * Retrieves several products by their IDs in one round trip.
+     * Unknown IDs are skipped rather than reported as errors.
+     */
+    List<Product> findAllById(Collection<UUID> ids);
+    
+    /**
+     * Retrieves one page of products in ID order, starting after the given cursor.
+     * Pass {@code null} to get the first page.
+     */
+    List<Product> findPage(UUID after, int limit);
+    
+    /**
+     * Passes every product to the action in ID order without loading the whole catalogue.
+     */
+    void forEachProduct(Consumer<Product> action);
+    
     /**
      * Creates a new product.
      */
@@ -0,0 +1,90 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.domain.CommandJournalEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository interface for mapping {@link CommandJournalEntry} entities.
+ *
+ * Extends {@link JpaRepository} to acquire standard CRUD operations.
+ */
+@Repository
+public interface CommandJournalRepository extends JpaRepository<CommandJournalEntry, Long> {
+
+    /**
+     * Marks the user's most recent undoable command as undone and returns it.
+     *
+     * The row is locked until the surrounding transaction ends and rows locked by a
+     * concurrent undo are skipped, so two nodes can never undo the same command.
+     * Must be called inside a transaction; the undo mark is the claim once it commits.
+     *
+     * @param userId the user whose command to claim
+     * @param since  only commands executed after this time are considered
+     * @param now    the time to record as the undo time
+     * @return the claimed entry, if any
+     */
+    @Query(value = """
+            UPDATE command_journal
+               SET undone_at = :now
+             WHERE id = (SELECT id
+                           FROM command_journal
+                          WHERE user_id = :userId
+                            AND undoable
+                            AND undone_at IS NULL
+                            AND created_at > :since
+                          ORDER BY id DESC
+                          LIMIT 1
+                            FOR UPDATE SKIP LOCKED)
+            RETURNING *
+            """, nativeQuery = true)
+    Optional<CommandJournalEntry> claimLastUndoable(@Param("userId") UUID userId,
+                                                    @Param("since") Instant since,
+                                                    @Param("now") Instant now);
+
+    /**
+     * Finds the user's most recent command that can still be undone.
+     *
+     * @param userId the user
+     * @param since  only commands executed after this time are considered
+     * @return the entry, if any
+     */
+    Optional<CommandJournalEntry> findFirstByUserIdAndUndoableTrueAndUndoneAtIsNullAndCreatedAtAfterOrderByIdDesc(
+            UUID userId, Instant since);
+
+    /**
+     * Counts the user's commands that can still be undone.
+     *
+     * @param userId the user
+     * @param since  only commands executed after this time are counted
+     * @return the number of undoable commands
+     */
+    long countByUserIdAndUndoableTrueAndUndoneAtIsNullAndCreatedAtAfter(UUID userId, Instant since);
+
+    /**
+     * Puts a claimed command back after its undo failed.
+     * Must be called inside a transaction.
+     *
+     * @param id the journal entry
+     */
+    @Modifying
+    @Query("UPDATE CommandJournalEntry e SET e.undoneAt = null WHERE e.id = :id")
+    void clearUndone(@Param("id") Long id);
+
+    /**
+     * Deletes entries executed before the given time.
+     *
+     * @param before the cutoff timestamp
+     * @return the number of deleted entries
+     */
+    @Modifying
+    @Query("DELETE FROM CommandJournalEntry e WHERE e.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,104 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.domain.IdempotencyKeyEntry;
+import com.example.ecommerce.idempotency.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Repository interface for mapping {@link IdempotencyKeyEntry} entities.
+ *
+ * Extends {@link JpaRepository} to acquire standard CRUD operations.
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntry, String> {
+
+    /**
+     * Claims the key for a new request, taking over a key whose lease or retention has run out.
+     *
+     * @param key         the namespaced key
+     * @param fingerprint the hash of the request
+     * @param expiresAt   when the claim lapses if the request never finishes
+     * @param now         the current time
+     * @return 1 if the key was claimed, 0 if it is held by another request
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_keys (idempotency_key, fingerprint, completed, expires_at)
+            VALUES (:key, :fingerprint, FALSE, :expiresAt)
+            ON CONFLICT (idempotency_key) DO UPDATE
+               SET fingerprint = EXCLUDED.fingerprint,
+                   completed = FALSE,
+                   response = NULL,
+                   expires_at = EXCLUDED.expires_at
+             WHERE idempotency_keys.expires_at <= :now
+            """, nativeQuery = true)
+    int claim(@Param("key") String key,
+              @Param("fingerprint") String fingerprint,
+              @Param("expiresAt") Instant expiresAt,
+              @Param("now") Instant now);
+
+    /**
+     * Reads a key that has not expired.
+     * Returns a projection, so repeated reads within one persistence context see fresh data.
+     *
+     * @param key the namespaced key
+     * @param now the current time
+     * @return the key's record, if any
+     */
+    @Query("""
+            SELECT new com.example.ecommerce.idempotency.IdempotencyRecord(e.fingerprint, e.completed, e.response)
+              FROM IdempotencyKeyEntry e
+             WHERE e.idempotencyKey = :key
+               AND e.expiresAt > :now
+            """)
+    Optional<IdempotencyRecord> findLive(@Param("key") String key, @Param("now") Instant now);
+
+    /**
+     * Stores the response of a key still in flight for the given request.
+     *
+     * @return the number of updated keys
+     */
+    @Modifying
+    @Query("""
+            UPDATE IdempotencyKeyEntry e
+               SET e.completed = true, e.response = :response, e.expiresAt = :expiresAt
+             WHERE e.idempotencyKey = :key
+               AND e.fingerprint = :fingerprint
+               AND e.completed = false
+            """)
+    int complete(@Param("key") String key,
+                 @Param("fingerprint") String fingerprint,
+                 @Param("response") String response,
+                 @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Deletes a key still in flight for the given request.
+     *
+     * @return the number of deleted keys
+     */
+    @Modifying
+    @Query("""
+            DELETE FROM IdempotencyKeyEntry e
+             WHERE e.idempotencyKey = :key
+               AND e.fingerprint = :fingerprint
+               AND e.completed = false
+            """)
+    int release(@Param("key") String key, @Param("fingerprint") String fingerprint);
+
+    /**
+     * Deletes keys that expired before the given time.
+     *
+     * @param before the cutoff timestamp
+     * @return the number of deleted keys
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntry e WHERE e.expiresAt < :before")
+    int deleteExpiredBefore(@Param("before") Instant before);
+}
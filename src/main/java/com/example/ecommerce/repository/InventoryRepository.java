@@ -2,8 +2,12 @@ package com.example.ecommerce.repository;
 
 import com.example.ecommerce.domain.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -13,5 +17,119 @@ import java.util.UUID;
  */
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, UUID> {
-    //EMPTY
+
+    /**
+     * Atomically decrements the available stock of a product, but only if
+     * enough units are available.
+     *
+     * The check and the write happen in a single conditional {@code UPDATE},
+     * so concurrent reservations for the same product can never oversell.
+     *
+     * @param productId the identifier of the product
+     * @param quantity  the number of units to reserve
+     * @return the new available stock, or an empty {@link Optional} if the product
+     *         has no inventory row or not enough units are available
+     */
+    @Query(value = """
+            UPDATE inventory
+               SET available = available - :quantity
+             WHERE product_id = :productId
+               AND available >= :quantity
+            RETURNING available
+            """, nativeQuery = true)
+    Optional<Integer> decrementAvailable(@Param("productId") UUID productId, @Param("quantity") int quantity);
+
+    /**
+     * Atomically increments the available stock of a product.
+     *
+     * @param productId the identifier of the product
+     * @param quantity  the number of units to release
+     * @return the new available stock, or an empty {@link Optional} if the product
+     *         has no inventory row
+     */
+    @Query(value = """
+            UPDATE inventory
+               SET available = available + :quantity
+             WHERE product_id = :productId
+            RETURNING available
+            """, nativeQuery = true)
+    Optional<Integer> incrementAvailable(@Param("productId") UUID productId, @Param("quantity") int quantity);
+
+    /**
+     * Atomically reserves stock for several products in one set-based statement.
+     *
+     * The affected rows are locked in {@code product_id} order before anything is written,
+     * so overlapping orders always acquire their locks in the same sequence and cannot
+     * deadlock each other. The decrement is all-or-nothing: if any product is missing or
+     * short on stock, no row is updated and an empty list is returned.
+     *
+     * @param productIds comma-separated product identifiers, one per requested product
+     * @param quantities comma-separated quantities, aligned with {@code productIds}
+     * @return the new stock level of every reserved product, or an empty list if the
+     *         reservation was rejected
+     */
+    @Query(value = """
+            WITH requested AS (
+                SELECT r.product_id, r.quantity
+                  FROM unnest(CAST(string_to_array(:productIds, ',') AS uuid[]),
+                              CAST(string_to_array(:quantities, ',') AS int[])) AS r(product_id, quantity)
+            ), locked AS (
+                SELECT i.product_id, i.available, r.quantity
+                  FROM inventory i
+                  JOIN requested r ON r.product_id = i.product_id
+                 ORDER BY i.product_id
+                   FOR UPDATE OF i
+            )
+            UPDATE inventory i
+               SET available = i.available - l.quantity
+              FROM locked l
+             WHERE i.product_id = l.product_id
+               AND (SELECT count(*) FROM locked) = (SELECT count(*) FROM requested)
+               AND NOT EXISTS (SELECT 1 FROM locked s WHERE s.available < s.quantity)
+            RETURNING i.product_id AS "productId", i.available AS "available"
+            """, nativeQuery = true)
+    List<StockLevel> decrementAvailableAll(@Param("productIds") String productIds,
+                                           @Param("quantities") String quantities);
+
+    /**
+     * Atomically releases stock for several products in one set-based statement.
+     *
+     * Rows are locked in {@code product_id} order, like {@link #decrementAvailableAll},
+     * so releases and reservations touching the same products cannot deadlock.
+     * Products without an inventory row are skipped.
+     *
+     * @param productIds comma-separated product identifiers, one per released product
+     * @param quantities comma-separated quantities, aligned with {@code productIds}
+     * @return the new stock level of every updated product
+     */
+    @Query(value = """
+            WITH requested AS (
+                SELECT r.product_id, r.quantity
+                  FROM unnest(CAST(string_to_array(:productIds, ',') AS uuid[]),
+                              CAST(string_to_array(:quantities, ',') AS int[])) AS r(product_id, quantity)
+            ), locked AS (
+                SELECT i.product_id, r.quantity
+                  FROM inventory i
+                  JOIN requested r ON r.product_id = i.product_id
+                 ORDER BY i.product_id
+                   FOR UPDATE OF i
+            )
+            UPDATE inventory i
+               SET available = i.available + l.quantity
+              FROM locked l
+             WHERE i.product_id = l.product_id
+            RETURNING i.product_id AS "productId", i.available AS "available"
+            """, nativeQuery = true)
+    List<StockLevel> incrementAvailableAll(@Param("productIds") String productIds,
+                                           @Param("quantities") String quantities);
+
+    /**
+     * Projection of a product's stock level after an inventory update.
+     */
+    interface StockLevel {
+
+        UUID getProductId();
+
+        int getAvailable();
+    }
 }
@@ -0,0 +1,132 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.domain.OrderOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for mapping {@link OrderOutboxEvent} entities.
+ *
+ * Extends {@link JpaRepository} to acquire standard CRUD operations.
+ */
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, UUID> {
+
+    /**
+     * Claims the oldest pending events that are due, locking them until the
+     * surrounding transaction ends.
+     *
+     * Rows already locked by another relay are skipped rather than waited for,
+     * so several relays can drain the outbox in parallel without handing out
+     * the same event twice.
+     *
+     * @param now   the current time; events scheduled for a later retry are left alone
+     * @param limit the maximum number of events to claim
+     * @return the identifiers of the claimed events, oldest first
+     */
+    @Query(value = """
+            SELECT id
+              FROM order_outbox
+             WHERE processed_at IS NULL
+               AND available_at <= :now
+             ORDER BY created_at
+             LIMIT :limit
+               FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<UUID> claimBatch(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Postpones the given events, so other relays leave them alone until then.
+     *
+     * @param ids         the identifiers of the events
+     * @param availableAt the earliest time the events may be claimed again
+     * @return the number of updated events
+     */
+    @Modifying
+    @Query("UPDATE OrderOutboxEvent e SET e.availableAt = :availableAt WHERE e.id IN :ids")
+    int lease(@Param("ids") Collection<UUID> ids, @Param("availableAt") Instant availableAt);
+
+    /**
+     * Loads the given events together with the observers that already handled them, in one query.
+     *
+     * @param ids the identifiers of the events
+     * @return the events, oldest first
+     */
+    @Query("""
+            SELECT DISTINCT e
+              FROM OrderOutboxEvent e
+              LEFT JOIN FETCH e.deliveredTo
+             WHERE e.id IN :ids
+             ORDER BY e.createdAt
+            """)
+    List<OrderOutboxEvent> findWithDeliveriesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Marks the given events processed, in one statement.
+     *
+     * @param ids         the identifiers of the events
+     * @param processedAt the time they were processed
+     * @return the number of updated events
+     */
+    @Modifying
+    @Query("UPDATE OrderOutboxEvent e SET e.processedAt = :processedAt, e.lastError = NULL WHERE e.id IN :ids")
+    int markProcessed(@Param("ids") Collection<UUID> ids, @Param("processedAt") Instant processedAt);
+
+    /**
+     * Records a failed delivery attempt of an event.
+     *
+     * @param id          the identifier of the event
+     * @param attempts    the number of failed attempts so far
+     * @param lastError   the error of this attempt
+     * @param availableAt the time of the next attempt
+     * @param processedAt the time the event was given up on; null while it is retried
+     * @return the number of updated events
+     */
+    @Modifying
+    @Query("""
+            UPDATE OrderOutboxEvent e
+               SET e.attempts = :attempts,
+                   e.lastError = :lastError,
+                   e.availableAt = :availableAt,
+                   e.processedAt = :processedAt
+             WHERE e.id = :id
+            """)
+    int recordFailure(@Param("id") UUID id,
+                      @Param("attempts") int attempts,
+                      @Param("lastError") String lastError,
+                      @Param("availableAt") Instant availableAt,
+                      @Param("processedAt") Instant processedAt);
+
+    /**
+     * Records that an observer has handled an event, so retries skip it.
+     *
+     * @param eventId  the identifier of the event
+     * @param observer the observer's name
+     * @return the number of inserted rows; 0 if it was already recorded
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO order_outbox_deliveries (event_id, observer)
+            VALUES (:eventId, :observer)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int markDeliveredTo(@Param("eventId") UUID eventId, @Param("observer") String observer);
+
+    /**
+     * Deletes events that were processed before the given time.
+     *
+     * @param before the cutoff timestamp
+     * @return the number of deleted events
+     */
+    @Modifying
+    @Query("DELETE FROM OrderOutboxEvent e WHERE e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") Instant before);
+}
\ No newline at end of file
@@ -1,12 +1,20 @@
 package com.example.ecommerce.repository;
 
 import com.example.ecommerce.domain.Order;
+import com.example.ecommerce.dto.projection.OrderItemView;
+import com.example.ecommerce.dto.projection.OrderSummaryView;
 import com.example.ecommerce.enums.OrderStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -27,16 +35,141 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
     List<Order> findByUserId(UUID userId);
 
     /**
-     * Finds all orders matching the given status that were created before
-     * the specified timestamp.
+     * Retrieves the first page of a user's order history, newest first.
      *
-     * Typically used by scheduled jobs to identify stale orders —
-     * for example, pending orders that have not been paid within a
-     * configured time limit so they can be cancelled or removed.
+     * @param userId the unique identifier of the user
+     * @param limit  the maximum number of orders to return
+     * @return the user's most recent orders
+     */
+    @Query("""
+            SELECT new com.example.ecommerce.dto.projection.OrderSummaryView(
+                       o.id, o.userId, o.total, o.status, o.createdAt)
+              FROM Order o
+             WHERE o.userId = :userId
+             ORDER BY o.createdAt DESC, o.id DESC
+            """)
+    List<OrderSummaryView> findHistory(@Param("userId") UUID userId, Limit limit);
+
+    /**
+     * Retrieves the page of a user's order history that follows the given position.
+     *
+     * The leading {@code createdAt <=} bound lets the {@code (user_id, created_at)} index
+     * seek straight to the position, leaving only orders created at the same instant as the
+     * last one to filter, so deep pages cost the same as the first one.
+     *
+     * @param userId    the unique identifier of the user
+     * @param createdAt the creation time of the last order on the previous page
+     * @param id        the identifier of the last order on the previous page
+     * @param limit     the maximum number of orders to return
+     * @return the next orders, newest first
+     */
+    @Query("""
+            SELECT new com.example.ecommerce.dto.projection.OrderSummaryView(
+                       o.id, o.userId, o.total, o.status, o.createdAt)
+              FROM Order o
+             WHERE o.userId = :userId
+               AND o.createdAt <= :createdAt
+               AND (o.createdAt < :createdAt OR o.id < :id)
+             ORDER BY o.createdAt DESC, o.id DESC
+            """)
+    List<OrderSummaryView> findHistoryAfter(@Param("userId") UUID userId,
+                                            @Param("createdAt") Instant createdAt,
+                                            @Param("id") UUID id,
+                                            Limit limit);
+
+    /**
+     * Retrieves the items of the given orders in one query, without loading the orders.
+     *
+     * @param orderIds the identifiers of the orders
+     * @return the items of those orders
+     */
+    @Query("""
+            SELECT new com.example.ecommerce.dto.projection.OrderItemView(
+                       i.order.id, i.productId, i.quantity, i.price)
+              FROM OrderItem i
+             WHERE i.order.id IN :orderIds
+            """)
+    List<OrderItemView> findItemViewsByOrderIdIn(@Param("orderIds") Collection<UUID> orderIds);
+
+    /**
+     * Claims up to {@code limit} stale pending orders, locking them until the
+     * surrounding transaction ends.
+     *
+     * Rows already locked by another sweeper, on this node or another replica, are
+     * skipped rather than waited for, so concurrent sweepers always work on disjoint
+     * sets of orders. Must be called inside a transaction.
+     *
+     * @param before the cutoff timestamp; only orders created before it are claimed
+     * @param limit  the maximum number of orders to claim
+     * @return the identifiers of the claimed orders, oldest first
+     */
+    @Query(value = """
+            SELECT id
+              FROM orders
+             WHERE status = 'PENDING'
+               AND created_at < :before
+             ORDER BY created_at
+             LIMIT :limit
+               FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<UUID> claimPendingCreatedBefore(@Param("before") Instant before, @Param("limit") int limit);
+
+    /**
+     * Cancels those of the given orders that are still pending, in one statement.
+     *
+     * Orders paid or cancelled concurrently are left untouched, so a sweep can never
+     * overwrite a status change it did not see.
+     *
+     * @param ids the identifiers of the candidate orders
+     * @return the identifiers of the orders that were actually cancelled
+     */
+    @Query(value = """
+            UPDATE orders
+               SET status = 'CANCELLED'
+             WHERE id IN (:ids)
+               AND status = 'PENDING'
+            RETURNING id
+            """, nativeQuery = true)
+    List<UUID> cancelPendingByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Looks up who owns an order, reading only the owner column.
+     *
+     * @param id the identifier of the order
+     * @return the ID of the user who placed the order, if it exists
+     */
+    @Query("SELECT o.userId FROM Order o WHERE o.id = :id")
+    Optional<UUID> findUserIdById(@Param("id") UUID id);
+
+    /**
+     * Loads an order together with its items in one query.
+     *
+     * @param id the identifier of the order
+     * @return the order with items initialized, if it exists
+     */
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id = :id")
+    Optional<Order> findWithItemsById(@Param("id") UUID id);
+
+    /**
+     * Changes the status of an order only if it still has the expected status.
+     *
+     * @param id       the identifier of the order
+     * @param expected the status the order must currently have
+     * @param status   the new status
+     * @return 1 if the order was updated, 0 if its status had changed in the meantime
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status WHERE o.id = :id AND o.status = :expected")
+    int updateStatusIfCurrent(@Param("id") UUID id,
+                              @Param("expected") OrderStatus expected,
+                              @Param("status") OrderStatus status);
+
+    /**
+     * Loads the given orders together with their items in one query.
      *
-     * @param status the order status to filter by (e.g., {@link OrderStatus#PENDING})
-     * @param before the cutoff timestamp; only orders created before this instant are returned
-     * @return a list of orders matching the status and creation time criteria
+     * @param ids the identifiers of the orders
+     * @return the orders that exist, with items initialized
      */
-    List<Order> findByStatusAndCreatedAtBefore(OrderStatus status, Instant before);
-}
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<UUID> ids);
+}
\ No newline at end of file
@@ -1,10 +1,17 @@
 package com.example.ecommerce.repository;
 
 import com.example.ecommerce.domain.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for mapping {@link Product} entities.
@@ -13,5 +20,39 @@ import java.util.UUID;
  */
 @Repository
 public interface ProductRepository extends JpaRepository<Product, UUID> {
-    //EMPTY
+
+    /**
+     * Returns the first page of products in {@code id} order.
+     *
+     * @param limit the maximum number of products to return
+     * @return the first products by identifier
+     */
+    List<Product> findAllByOrderByIdAsc(Limit limit);
+
+    /**
+     * Returns the page of products that follows the given identifier (keyset pagination).
+     *
+     * Seeks straight to the cursor through the primary key index, so every page costs
+     * the same regardless of how deep into the catalogue it is.
+     *
+     * @param after the identifier of the last product on the previous page
+     * @param limit the maximum number of products to return
+     * @return the next products by identifier
+     */
+    List<Product> findByIdGreaterThanOrderByIdAsc(UUID after, Limit limit);
+
+    /**
+     * Streams every product in {@code id} order from a database cursor.
+     *
+     * Must be consumed inside a transaction; rows are fetched in batches
+     * instead of being materialized all at once.
+     *
+     * @return a stream over all products that must be closed after use
+     */
+    @Query("select p from Product p order by p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Product> streamAllByOrderByIdAsc();
 }
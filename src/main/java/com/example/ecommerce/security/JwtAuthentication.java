@@ -0,0 +1,39 @@
+package com.example.ecommerce.security;
+
+import com.example.ecommerce.constants.CommonConstants;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Authentication established from a verified JWT, keeping the token and its claims
+ * so the rest of the request can use them without verifying the token again.
+ */
+public class JwtAuthentication extends UsernamePasswordAuthenticationToken {
+
+    private final transient String token;
+    private final transient JwtClaims claims;
+
+    public JwtAuthentication(UserDetails principal, String token, JwtClaims claims) {
+        super(principal, null, principal.getAuthorities());
+        this.token = token;
+        this.claims = claims;
+    }
+
+    public JwtClaims getClaims() {
+        return claims;
+    }
+
+    /**
+     * Tells whether this authentication was established from the given header.
+     *
+     * @param authHeader an {@code Authorization} header value
+     * @return {@code true} if the header carries exactly this authentication's token
+     */
+    public boolean isFor(String authHeader) {
+        int prefixLength = CommonConstants.BEARER_PREFIX.length();
+        return authHeader != null
+                && authHeader.length() == prefixLength + token.length()
+                && authHeader.startsWith(CommonConstants.BEARER_PREFIX)
+                && authHeader.regionMatches(prefixLength, token, 0, token.length());
+    }
+}
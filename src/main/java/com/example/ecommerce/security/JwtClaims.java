@@ -0,0 +1,32 @@
+package com.example.ecommerce.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The claims of a JWT whose signature has been verified.
+ *
+ * @param subject the token's subject
+ * @param userId the subject as a user ID, or {@code null} if it is not one
+ * @param expiresAt when the token expires, or {@code null} if it never does
+ */
+public record JwtClaims(String subject, UUID userId, Instant expiresAt) {
+
+    /**
+     * Creates claims for the given subject, parsing it as a user ID once.
+     */
+    public static JwtClaims of(String subject, Instant expiresAt) {
+        return new JwtClaims(subject, parseUserId(subject), expiresAt);
+    }
+
+    private static UUID parseUserId(String subject) {
+        if (subject == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(subject);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -3,40 +3,76 @@ package com.example.ecommerce.security;
 import com.example.ecommerce.constants.MessageConstants;
 import com.example.ecommerce.dto.response.OrderResponseDTO;
 import com.example.ecommerce.service.OrderService;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.UUID;
 
 /**
  * Implementation of OwnershipValidator for Order resources.
  * Validates that users can only access orders they own.
+ *
+ * Only the order's owner is read, never the order itself, and since an order never
+ * changes hands the owner is cached for a short while. The controller's own load of
+ * the order is then the only one in the request.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class OrderOwnershipValidator implements OwnershipValidator<OrderResponseDTO> {
     
     private final OrderService orderService;
+    private final Cache<UUID, UUID> owners;
+    
+    @Autowired
+    public OrderOwnershipValidator(OrderService orderService,
+                                   @Value("${app.security.order-owner-cache.ttl:10m}") Duration ttl,
+                                   @Value("${app.security.order-owner-cache.maximum-size:100000}") long maximumSize,
+                                   MeterRegistry meterRegistry) {
+        this(orderService, ttl, maximumSize, Ticker.systemTicker());
+        CaffeineCacheMetrics.monitor(meterRegistry, owners, "orders.owner");
+    }
+    
+    OrderOwnershipValidator(OrderService orderService, Duration ttl, long maximumSize, Ticker ticker) {
+        this.orderService = orderService;
+        this.owners = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
     
     @Override
     public boolean validateOwnership(UUID userId, UUID orderId) {
+        UUID ownerId;
         try {
-            OrderResponseDTO order = getResource(orderId);
-            boolean isOwner = order.getUserId().equals(userId);
-            
-            if (!isOwner) {
-                log.warn("SECURITY: User {} attempted to access order {} owned by {}", 
-                        userId, orderId, order.getUserId());
-            }
-            
-            return isOwner;
+            // Unknown orders are not cached, so an order created later is found
+            ownerId = owners.get(orderId, id -> orderService.findOwnerId(id).orElse(null));
         } catch (RuntimeException e) {
             log.error("SECURITY: Error validating ownership for order {} by user {}: {}", 
                     orderId, userId, e.getMessage());
             throw new ResourceNotFoundException(MessageConstants.ORDER_NOT_FOUND + ": " + orderId, e);
         }
+        if (ownerId == null) {
+            log.warn("SECURITY: Order {} not found while validating ownership for user {}", orderId, userId);
+            throw new ResourceNotFoundException(MessageConstants.ORDER_NOT_FOUND + ": " + orderId);
+        }
+        
+        boolean isOwner = ownerId.equals(userId);
+        if (!isOwner) {
+            log.warn("SECURITY: User {} attempted to access order {} owned by {}", 
+                    userId, orderId, ownerId);
+        }
+        
+        return isOwner;
     }
     
     @Override
@@ -5,6 +5,8 @@ import com.example.ecommerce.constants.MessageConstants;
 import com.example.ecommerce.service.JwtService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
@@ -23,11 +25,19 @@ public class OwnershipValidationService {
     
     /**
      * Extracts user ID from JWT token.
+     * When the request was already authenticated with this token, the user ID is taken
+     * from the claims verified by the authentication filter.
      *
      * @param authHeader the authorization header containing the Bearer token
      * @return the user ID extracted from the token
      */
     public UUID extractUserIdFromToken(String authHeader) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthentication jwtAuthentication
+                && jwtAuthentication.isFor(authHeader)
+                && jwtAuthentication.getClaims().userId() != null) {
+            return jwtAuthentication.getClaims().userId();
+        }
         String jwt = authHeader.replace(CommonConstants.BEARER_PREFIX, CommonConstants.EMPTY_STRING);
         return jwtService.extractUserId(jwt);
     }
@@ -4,6 +4,7 @@ import com.example.ecommerce.constants.MessageConstants;
 import com.example.ecommerce.domain.Inventory;
 import com.example.ecommerce.factory.InventoryFactory;
 import com.example.ecommerce.repository.InventoryRepository;
+import com.example.ecommerce.repository.InventoryRepository.StockLevel;
 import com.example.ecommerce.event.LowInventoryEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import lombok.RequiredArgsConstructor;
@@ -12,7 +13,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Service responsible for managing product inventory,
@@ -34,6 +40,16 @@ public class InventoryService {
                 .orElseThrow(() -> new RuntimeException(MessageConstants.INVENTORY_NOT_FOUND_FOR_PRODUCT + " " + productId));
     }
 
+    /**
+     * Retrieves the inventory rows of several products in one query.
+     *
+     * @param productIds the product identifiers
+     * @return the inventory rows that exist; products without inventory are omitted
+     */
+    public List<Inventory> findAllById(Collection<UUID> productIds) {
+        return inventoryRepository.findAllById(productIds);
+    }
+
     @Transactional
     public void createInventory(UUID productId, int initialStock) {
         Inventory inventory = InventoryFactory.createInventoryForProduct(productId, initialStock);
@@ -47,30 +63,79 @@ public class InventoryService {
 
     /**
      * Reserves a specified quantity of stock for a product.
-     * Sends low inventory alert if stock falls below threshold.
+     * Sends a low inventory alert if this reservation takes stock down to the threshold;
+     * later reservations of an already low product send none.
+     *
+     * The availability check and the decrement are performed by a single
+     * conditional statement, so concurrent reservations cannot oversell.
      *
      * @param productId the ID of the product
      * @param quantity  the quantity to reserve
+     * @return the available stock after the reservation
+     * @throws IllegalArgumentException if the quantity is not positive
      * @throws RuntimeException if no inventory exists for the product
      *                          or if available stock is insufficient
      */
     @Transactional
-    public void reserveStock(UUID productId, int quantity) {
-        Inventory inv = findById(productId);
-        if (inv.getAvailable() < quantity) {
-             throw new RuntimeException(MessageConstants.INVENTORY_INSUFFICIENT_STOCK);
-         }
-
-         int newAvailable = inv.getAvailable() - quantity;
-         inv.setAvailable(newAvailable);
-         inventoryRepository.save(inv);
-
-        // Publish low inventory event if threshold reached
-        if (newAvailable <= lowStockThreshold) {
+    public int reserveStock(UUID productId, int quantity) {
+        requirePositive(quantity);
+
+        int newAvailable = inventoryRepository.decrementAvailable(productId, quantity)
+                .orElseThrow(() -> reservationFailure(productId));
+
+        // Publish low inventory event if this reservation crossed the threshold
+        if (crossesThreshold(newAvailable, quantity)) {
             log.info("Publishing low inventory event for product {} - Current stock: {}",
                     productId, newAvailable);
             eventPublisher.publishEvent(new LowInventoryEvent(this, productId, newAvailable, lowStockThreshold));
         }
+
+        return newAvailable;
+    }
+
+    /**
+     * Reserves stock for all lines of an order in a single set-based operation.
+     *
+     * Either every product is reserved or none is. Rows are locked in a
+     * deterministic order by product ID, so orders with overlapping products
+     * cannot deadlock each other. Sends low inventory alerts for every product
+     * whose stock this reservation takes down to the threshold.
+     *
+     * @param quantities the quantity to reserve, keyed by product ID
+     * @return the available stock after the reservation, keyed by product ID
+     * @throws IllegalArgumentException if any quantity is not positive
+     * @throws RuntimeException if any product has no inventory
+     *                          or insufficient available stock
+     */
+    @Transactional
+    public Map<UUID, Integer> reserveStock(Map<UUID, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return Map.of();
+        }
+        quantities.values().forEach(this::requirePositive);
+
+        String productIds = commaSeparated(quantities.keySet());
+        String amounts = commaSeparated(quantities.values());
+
+        List<StockLevel> levels = inventoryRepository.decrementAvailableAll(productIds, amounts);
+        if (levels.size() != quantities.size()) {
+            throw reservationFailure(quantities);
+        }
+
+        Map<UUID, Integer> newLevels = new LinkedHashMap<>();
+        for (StockLevel level : levels) {
+            newLevels.put(level.getProductId(), level.getAvailable());
+
+            if (crossesThreshold(level.getAvailable(), quantities.get(level.getProductId()))) {
+                log.info("Publishing low inventory event for product {} - Current stock: {}",
+                        level.getProductId(), level.getAvailable());
+                eventPublisher.publishEvent(new LowInventoryEvent(
+                        this, level.getProductId(), level.getAvailable(), lowStockThreshold));
+            }
+        }
+
+        log.debug("Reserved stock for {} products in one statement", newLevels.size());
+        return newLevels;
     }
 
     /**
@@ -78,12 +143,103 @@ public class InventoryService {
      *
      * @param productId the ID of the product
      * @param quantity  the quantity to release back into inventory
+     * @return the available stock after the release
+     * @throws IllegalArgumentException if the quantity is not positive
      * @throws RuntimeException if no inventory exists for the product
      */
     @Transactional
-    public void releaseStock(UUID productId, int quantity) {
-        Inventory inv = findById(productId);
-        inv.setAvailable(inv.getAvailable() + quantity);
-        inventoryRepository.save(inv);
+    public int releaseStock(UUID productId, int quantity) {
+        requirePositive(quantity);
+
+        return inventoryRepository.incrementAvailable(productId, quantity)
+                .orElseThrow(() -> new RuntimeException(MessageConstants.INVENTORY_NOT_FOUND_FOR_PRODUCT + " " + productId));
+    }
+
+    /**
+     * Releases stock for several products in one statement.
+     * Rows are locked in product order, so concurrent releases and reservations cannot deadlock.
+     *
+     * @param quantities the quantity to release, keyed by product ID
+     * @return the available stock after the release, keyed by product ID;
+     *         products without inventory are omitted
+     * @throws IllegalArgumentException if any quantity is not positive
+     */
+    @Transactional
+    public Map<UUID, Integer> releaseStock(Map<UUID, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return Map.of();
+        }
+        quantities.values().forEach(this::requirePositive);
+
+        String productIds = commaSeparated(quantities.keySet());
+        String amounts = commaSeparated(quantities.values());
+
+        Map<UUID, Integer> newLevels = new LinkedHashMap<>();
+        for (StockLevel level : inventoryRepository.incrementAvailableAll(productIds, amounts)) {
+            newLevels.put(level.getProductId(), level.getAvailable());
+        }
+        if (newLevels.size() != quantities.size()) {
+            log.warn("Released stock for {} of {} products; the rest have no inventory",
+                    newLevels.size(), quantities.size());
+        }
+
+        log.debug("Released stock for {} products in one statement", newLevels.size());
+        return newLevels;
+    }
+
+    /**
+     * Resolves why a conditional decrement matched no row.
+     * Only runs on the failure path, so successful reservations stay a single statement.
+     */
+    private RuntimeException reservationFailure(UUID productId) {
+        if (!inventoryRepository.existsById(productId)) {
+            return new RuntimeException(MessageConstants.INVENTORY_NOT_FOUND_FOR_PRODUCT + " " + productId);
+        }
+        return new RuntimeException(MessageConstants.INVENTORY_INSUFFICIENT_STOCK);
+    }
+
+    /**
+     * Resolves which product caused a rejected bulk reservation.
+     * Only runs on the failure path, so successful reservations stay a single statement.
+     */
+    private RuntimeException reservationFailure(Map<UUID, Integer> quantities) {
+        Map<UUID, Integer> available = findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Inventory::getProductId, Inventory::getAvailable));
+
+        for (Map.Entry<UUID, Integer> requested : quantities.entrySet()) {
+            Integer stock = available.get(requested.getKey());
+            if (stock == null) {
+                return new RuntimeException(MessageConstants.INVENTORY_NOT_FOUND_FOR_PRODUCT + " " + requested.getKey());
+            }
+            if (stock < requested.getValue()) {
+                return new RuntimeException(MessageConstants.INVENTORY_INSUFFICIENT_STOCK + " " + requested.getKey());
+            }
+        }
+        // Stock was released between the rejected update and this check
+        return new RuntimeException(MessageConstants.INVENTORY_INSUFFICIENT_STOCK);
+    }
+
+    /**
+     * The decrement is atomic, so exactly one reservation sees stock go from above the
+     * threshold to at or below it, however many reservations of the product run concurrently.
+     */
+    private boolean crossesThreshold(int newAvailable, int reserved) {
+        return newAvailable <= lowStockThreshold && newAvailable + reserved > lowStockThreshold;
+    }
+
+    /**
+     * Joins values into the comma-separated list the bulk statements unnest.
+     * A map's key set and values iterate in the same order, so ids and amounts line up.
+     */
+    private static String commaSeparated(Collection<?> values) {
+        return values.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+    }
+
+    private void requirePositive(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException(MessageConstants.INVENTORY_INVALID_QUANTITY);
+        }
     }
 }
@@ -1,16 +1,26 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.security.JwtClaims;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 /**
@@ -18,6 +28,11 @@ import java.util.logging.Logger;
  *
  * Handles generating tokens, extracting the subject from a token,
  * and converting the subject into a {@link UUID}.
+ *
+ * Verified claims are cached by the token's signature until the token expires, so a
+ * client sending the same token again is not verified and parsed again. A cache hit
+ * must also match the whole token: the signature alone does not bind the header and
+ * payload it is presented with.
  */
 @Service
 public class JwtService {
@@ -26,19 +41,31 @@ public class JwtService {
 
     private final String secret;
     private final long expiration;
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
     private Key key;
+    private JwtParser parser;
 
     /**
      * Constructs a new {@link JwtService} with the provided secret and expiration time.
      *
      * @param secret the JWT signing secret, injected from configuration
      * @param expiration the token expiration time in milliseconds, injected from configuration
+     * @param cacheMaximumSize the maximum number of verified tokens to keep
+     * @param meterRegistry the registry to export cache statistics to
      */
     public JwtService(@Value("${spring.jwt.secret}") String secret,
-                      @Value("${spring.jwt.expiration}") long expiration) {
+                      @Value("${spring.jwt.expiration}") long expiration,
+                      @Value("${app.security.jwt-cache.maximum-size:10000}") long cacheMaximumSize,
+                      MeterRegistry meterRegistry) {
         this.secret = secret;
         this.expiration = expiration;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfter(new UntilTokenExpires())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified");
     }
 
     /**
@@ -64,6 +91,9 @@ public class JwtService {
         }
 
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
         logger.info("✅ JwtService initialized successfully with a valid secret (" + keyBytes.length + " bytes)");
     }
 
@@ -88,12 +118,30 @@ public class JwtService {
      * @return the subject contained in the token
      */
     public String extractSubject(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return verify(token).subject();
+    }
+
+    /**
+     * Verifies a JWT token and returns its claims, from the cache if the token was seen before.
+     *
+     * @param token the JWT token
+     * @return the verified claims
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, forged or expired
+     */
+    public JwtClaims verify(String token) {
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        VerifiedToken verified = verifiedTokens.getIfPresent(signature);
+        if (verified != null && verified.token().equals(token)) {
+            return verified.claims();
+        }
+
+        Claims body = parser.parseClaimsJws(token).getBody();
+        Date expiresAt = body.getExpiration();
+        JwtClaims claims = JwtClaims.of(body.getSubject(), expiresAt != null ? expiresAt.toInstant() : null);
+        if (expiresAt != null && !signature.isEmpty()) {
+            verifiedTokens.put(signature, new VerifiedToken(token, claims));
+        }
+        return claims;
     }
 
     /**
@@ -103,7 +151,38 @@ public class JwtService {
      * @return the user ID as a {@link UUID}
      */
     public UUID extractUserId(String token) {
-        return UUID.fromString(extractSubject(token));
+        JwtClaims claims = verify(token);
+        return claims.userId() != null ? claims.userId() : UUID.fromString(claims.subject());
+    }
+
+    /**
+     * A verified token and its claims.
+     */
+    private record VerifiedToken(String token, JwtClaims claims) {
+    }
+
+    /**
+     * Keeps each verified token exactly as long as it is valid.
+     */
+    private static final class UntilTokenExpires implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String signature, VerifiedToken verified, long currentTime) {
+            long millis = verified.claims().expiresAt().toEpochMilli() - Instant.now().toEpochMilli();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String signature, VerifiedToken verified, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(signature, verified, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String signature, VerifiedToken verified, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
     }
 
 }
@@ -5,21 +5,28 @@ import com.example.ecommerce.command.CommandInvoker;
 import com.example.ecommerce.command.CommandResult;
 import com.example.ecommerce.constants.MessageConstants;
 import com.example.ecommerce.domain.Order;
+import com.example.ecommerce.dto.projection.OrderItemView;
+import com.example.ecommerce.dto.projection.OrderSummaryView;
 import com.example.ecommerce.dto.request.CreateOrderRequestDTO;
+import com.example.ecommerce.dto.response.OrderPageResponseDTO;
 import com.example.ecommerce.dto.response.OrderResponseDTO;
 import com.example.ecommerce.enums.OrderStatus;
 import com.example.ecommerce.mapper.MapperFacade;
 import com.example.ecommerce.observer.OrderStatusPublisher;
 import com.example.ecommerce.repository.OrderRepository;
 import com.example.ecommerce.state.OrderStateManager;
+import com.example.ecommerce.util.OrderCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Service responsible for handling customer orders.
@@ -49,16 +56,40 @@ public class OrderService {
     }
 
     /**
-     * Retrieves all orders placed by a specific user.
+     * Retrieves one page of a user's order history, newest first.
+     *
+     * Reads the orders and then all of their items through projections, so a page costs
+     * two queries however many orders it holds.
      *
      * @param userId the ID of the user
-     * @return a list of {@link OrderResponseDTO} representing the user's orders
+     * @param after the position of the last order on the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of orders on the page
+     * @return the page and the cursor of the next one, if any
      */
-    public List<OrderResponseDTO> getOrdersByUser(UUID userId) {
-        return orderRepository.findByUserId(userId)
+    @Transactional(readOnly = true)
+    public OrderPageResponseDTO getOrderHistory(UUID userId, OrderCursor after, int pageSize) {
+        // Fetch one extra row to learn whether another page follows
+        Limit limit = Limit.of(pageSize + 1);
+        List<OrderSummaryView> rows = after == null
+                ? orderRepository.findHistory(userId, limit)
+                : orderRepository.findHistoryAfter(userId, after.createdAt(), after.id(), limit);
+        boolean hasMore = rows.size() > pageSize;
+        List<OrderSummaryView> page = hasMore ? rows.subList(0, pageSize) : rows;
+        if (page.isEmpty()) {
+            return new OrderPageResponseDTO(List.of(), null);
+        }
+
+        Map<UUID, List<OrderItemView>> itemsByOrder = orderRepository
+                .findItemViewsByOrderIdIn(page.stream().map(OrderSummaryView::id).toList())
                 .stream()
-                .map(MapperFacade::toResponseDTO)
+                .collect(Collectors.groupingBy(OrderItemView::orderId));
+
+        List<OrderResponseDTO> orders = page.stream()
+                .map(order -> MapperFacade.toResponseDTO(order, itemsByOrder.getOrDefault(order.id(), List.of())))
                 .toList();
+        OrderSummaryView last = page.get(page.size() - 1);
+        String nextCursor = hasMore ? new OrderCursor(last.createdAt(), last.id()).encode() : null;
+        return new OrderPageResponseDTO(orders, nextCursor);
     }
 
     /**
@@ -85,69 +116,55 @@ public class OrderService {
     }
 
     /**
-     * Saves an order entity.
-     * This method encapsulates order persistence within the OrderService.
+     * Looks up who owns an order without loading it.
      *
-     * @param order the order to save
+     * @param orderId the ID of the order
+     * @return the ID of the user who placed the order, or empty if it does not exist
      */
-    @Transactional
-    public void save(Order order) {
-        orderRepository.save(order);
+    public Optional<UUID> findOwnerId(UUID orderId) {
+        return orderRepository.findUserIdById(orderId);
     }
 
     /**
-     * Finds orders by status and created before a specific time.
-     * This method encapsulates repository access and provides a clean service layer interface.
+     * Retrieves an order entity together with its items, so it can be used outside a session.
      *
-     * @param status the order status to filter by
-     * @param cutoffTime orders created before this time
-     * @return list of orders matching the criteria
+     * @param orderId the ID of the order to find
+     * @return the Order entity with items initialized
+     * @throws RuntimeException if the order is not found
      */
-    public List<Order> findOrdersByStatusAndCreatedBefore(OrderStatus status,
-                                                          Instant cutoffTime) {
-        log.debug("Finding orders with status {} created before {}", status, cutoffTime);
-        return orderRepository.findByStatusAndCreatedAtBefore(status, cutoffTime);
+    public Order findWithItemsById(UUID orderId) {
+        return orderRepository.findWithItemsById(orderId)
+                .orElseThrow(() -> new RuntimeException(MessageConstants.ORDER_NOT_FOUND));
     }
 
     /**
-     * Bulk cancellation of orders with status change notification.
-     * This method handles the complete cancellation workflow including observer notifications.
+     * Updates the status of an order only if nobody changed it since it was read.
      *
-     * @param orders list of orders to cancel
-     * @param reason the reason for cancellation
+     * @param order the order, as read
+     * @param expected the status the order had when it was read
+     * @param newStatus the new status
+     * @return true if the order was updated, false if its status had changed in the meantime
      */
     @Transactional
-    public void cancelOrders(List<Order> orders, String reason) {
-        log.info("Bulk cancelling {} orders - Reason: {}", orders.size(), reason);
-        
-        for (Order order : orders) {
-            OrderStatus oldStatus = order.getStatus();
-            order.setStatus(OrderStatus.CANCELLED);
-            
-            // Save the order
-            orderRepository.save(order);
-            
-            // Notify observers (this will handle inventory release, notifications, etc.)
-            statusPublisher.notifyStatusChange(order, oldStatus, OrderStatus.CANCELLED);
-            
-            log.debug("Cancelled order: {}", order.getId());
+    public boolean updateOrderStatusIfCurrent(Order order, OrderStatus expected, OrderStatus newStatus) {
+        if (orderRepository.updateStatusIfCurrent(order.getId(), expected, newStatus) == 0) {
+            return false;
         }
-        
-        log.info("Bulk cancellation completed for {} orders", orders.size());
+        order.setStatus(newStatus);
+        return true;
     }
 
     /**
-     * Finds unpaid orders that are older than the specified time.
-     * Business logic method that encapsulates the criteria for "unpaid orders".
+     * Saves an order entity.
+     * This method encapsulates order persistence within the OrderService.
      *
-     * @param cutoffTime orders created before this time are considered stale
-     * @return list of unpaid orders that should be cancelled
+     * @param order the order to save
      */
-    public List<Order> findUnpaidOrdersOlderThan(Instant cutoffTime) {
-        log.debug("Finding unpaid orders older than {}", cutoffTime);
-        return findOrdersByStatusAndCreatedBefore(OrderStatus.PENDING, cutoffTime);
+    @Transactional
+    public void save(Order order) {
+        orderRepository.save(order);
     }
-    
+
     /**
      * Gets available actions for an order in its current state.
      * 
@@ -188,29 +205,32 @@ public class OrderService {
      */
     public CommandResult createOrderWithCommand(UUID userId, CreateOrderRequestDTO request) {
         var createCommand = commandFactory.createOrderCommand(userId, request);
-        return commandInvoker.execute(createCommand);
+        return commandInvoker.execute(userId, createCommand);
     }
     
     /**
      * Cancels an order using Command Pattern.
      * 
+     * @param userId the user cancelling the order
      * @param orderId the order ID to cancel
      * @param reason the cancellation reason
      * @return CommandResult with order data or error information
      */
-    public CommandResult cancelOrderWithCommand(UUID orderId, String reason) {
+    @Transactional
+    public CommandResult cancelOrderWithCommand(UUID userId, UUID orderId, String reason) {
         var cancelCommand = commandFactory.cancelOrderCommand(orderId, reason);
-        return commandInvoker.execute(cancelCommand);
+        return commandInvoker.execute(userId, cancelCommand);
     }
     
     /**
-     * Gets command history information.
+     * Gets command history information for a user.
      * 
+     * @param userId the user
      * @return summary of available undo operations
      */
-    public String getCommandHistorySummary() {
-        int undoableCommands = commandInvoker.getUndoableCommandCount();
-        String lastCommand = commandInvoker.getLastUndoableCommandDescription();
+    public String getCommandHistorySummary(UUID userId) {
+        int undoableCommands = commandInvoker.getUndoableCommandCount(userId);
+        String lastCommand = commandInvoker.getLastUndoableCommandDescription(userId);
         
         if (undoableCommands == 0) {
             return "No commands available for undo";
@@ -221,20 +241,33 @@ public class OrderService {
     }
     
     /**
-     * Undoes the last command that supports undo operations.
+     * Undoes the user's last command that supports undo operations.
      * 
+     * @param userId the user
      * @return CommandResult with undo operation results
      */
-    public CommandResult undoLastCommand() {
-        return commandInvoker.undoLast();
+    @Transactional
+    public CommandResult undoLastCommand(UUID userId) {
+        return commandInvoker.undoLast(userId);
+    }
+    
+    /**
+     * Returns the number of the user's commands that can be undone.
+     * 
+     * @param userId the user
+     * @return count of undoable commands
+     */
+    public int getUndoableCommandCount(UUID userId) {
+        return commandInvoker.getUndoableCommandCount(userId);
     }
     
     /**
-     * Checks if there are any commands that can be undone.
+     * Returns a description of the user's last command that can be undone.
      * 
-     * @return true if there are undoable commands
+     * @param userId the user
+     * @return description of the last undoable command, or null if none
      */
-    public boolean hasUndoableCommands() {
-        return commandInvoker.getUndoableCommandCount() > 0;
+    public String getLastUndoableCommandDescription(UUID userId) {
+        return commandInvoker.getLastUndoableCommandDescription(userId);
     }
-}
+}
\ No newline at end of file
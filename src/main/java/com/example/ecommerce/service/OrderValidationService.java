@@ -1,11 +1,13 @@
 package com.example.ecommerce.service;
 
 import com.example.ecommerce.dto.request.CreateOrderRequestDTO;
+import com.example.ecommerce.proxy.ProductServiceContract;
 import com.example.ecommerce.validation.ItemsValidationHandler;
+import com.example.ecommerce.validation.OrderValidationContext;
+import com.example.ecommerce.validation.OrderValidationHandler;
 import com.example.ecommerce.validation.ProductExistenceValidationHandler;
 import com.example.ecommerce.validation.StockAvailabilityValidationHandler;
 import com.example.ecommerce.validation.ValidationResult;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -14,32 +16,53 @@ import org.springframework.stereotype.Service;
  * Chains multiple validators together for comprehensive order validation.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class OrderValidationService {
     
-    private final ItemsValidationHandler itemsValidator;
-    private final ProductExistenceValidationHandler productExistenceValidator;
-    private final StockAvailabilityValidationHandler stockAvailabilityValidator;
+    private final ProductServiceContract productService;
+    private final InventoryService inventoryService;
+    private final OrderValidationHandler validationChain;
+    
+    public OrderValidationService(ItemsValidationHandler itemsValidator,
+                                  ProductExistenceValidationHandler productExistenceValidator,
+                                  StockAvailabilityValidationHandler stockAvailabilityValidator,
+                                  ProductServiceContract productService,
+                                  InventoryService inventoryService) {
+        this.productService = productService;
+        this.inventoryService = inventoryService;
+        
+        // CHAIN OF RESPONSIBILITY: Wire the chain once; handlers are shared singletons
+        itemsValidator.setNext(productExistenceValidator);
+        productExistenceValidator.setNext(stockAvailabilityValidator);
+        // stockAvailabilityValidator has no next (end of chain)
+        this.validationChain = itemsValidator;
+    }
+    
+    /**
+     * Creates the validation context for a request.
+     * Products and inventory are bulk-loaded lazily, once per context.
+     * 
+     * @param request the order request to validate
+     * @return a new context bound to the request
+     */
+    public OrderValidationContext createContext(CreateOrderRequestDTO request) {
+        return new OrderValidationContext(request, productService::findAllById, inventoryService::findAllById);
+    }
     
     /**
      * Validates an order request using the Chain of Responsibility pattern.
      * Each validator in the chain checks a specific aspect of the order.
      * 
-     * @param request the order request to validate
+     * @param context the validation context of the order request
      * @return ValidationResult indicating success or failure with details
      */
-    public ValidationResult validateOrderRequest(CreateOrderRequestDTO request) {
+    public ValidationResult validateOrderRequest(OrderValidationContext context) {
+        CreateOrderRequestDTO request = context.getRequest();
         log.info("Starting order validation chain for request with {} items", 
                 request.getItems() != null ? request.getItems().size() : 0);
         
-        // CHAIN OF RESPONSIBILITY: Set up the validation chain
-        itemsValidator.setNext(productExistenceValidator);
-        productExistenceValidator.setNext(stockAvailabilityValidator);
-        // stockAvailabilityValidator has no next (end of chain)
-        
         // Execute the validation chain
-        ValidationResult result = itemsValidator.validate(request);
+        ValidationResult result = validationChain.validate(context);
         
         if (result.isValid()) {
             log.info("Order validation chain completed successfully");
@@ -51,6 +74,16 @@ public class OrderValidationService {
         return result;
     }
     
+    /**
+     * Validates an order request using a fresh context.
+     * 
+     * @param request the order request to validate
+     * @return ValidationResult indicating success or failure with details
+     */
+    public ValidationResult validateOrderRequest(CreateOrderRequestDTO request) {
+        return validateOrderRequest(createContext(request));
+    }
+    
     /**
      * Quick validation check - returns true if order is valid.
      * 
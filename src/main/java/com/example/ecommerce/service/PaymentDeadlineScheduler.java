@@ -0,0 +1,235 @@
+package com.example.ecommerce.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cancels unpaid orders at their payment deadline.
+ *
+ * Deadlines live in a Redis sorted set (order ID scored by deadline), so they survive
+ * restarts and are shared by all replicas. A single scheduler thread per node sleeps
+ * until the earliest deadline and then claims every due order with {@code ZREM}: only
+ * the node whose removal succeeds cancels the order, so each deadline fires once.
+ * Deadlines registered on this node wake the thread early if they are the new earliest.
+ *
+ * A deadline that is claimed but not processed (node crash) or never registered
+ * (Redis outage) is picked up by the low-frequency {@code CancelUnpaidOrdersJob}.
+ */
+@Service
+@Slf4j
+public class PaymentDeadlineScheduler {
+
+    static final String DEADLINES_KEY = "orders:payment-deadlines";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final UnpaidOrderSweeper unpaidOrderSweeper;
+    private final Duration paymentTimeout;
+    private final Duration maxSleep;
+    private final int batchSize;
+    private final boolean enabled;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition wakeUp = lock.newCondition();
+    private long wakeAtMillis = Long.MAX_VALUE;
+    private volatile boolean running;
+    private Thread worker;
+
+    public PaymentDeadlineScheduler(RedisTemplate<String, String> redisTemplate,
+                                    UnpaidOrderSweeper unpaidOrderSweeper,
+                                    @Value("${app.orders.unpaid-timeout-minutes:60}") int unpaidTimeoutMinutes,
+                                    @Value("${app.orders.deadline.max-sleep:5s}") Duration maxSleep,
+                                    @Value("${app.orders.deadline.batch-size:100}") int batchSize,
+                                    @Value("${app.orders.deadline.enabled:true}") boolean enabled) {
+        this.redisTemplate = redisTemplate;
+        this.unpaidOrderSweeper = unpaidOrderSweeper;
+        this.paymentTimeout = Duration.ofMinutes(unpaidTimeoutMinutes);
+        this.maxSleep = maxSleep;
+        this.batchSize = batchSize;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Registers the payment deadline of a new order once the surrounding transaction commits.
+     *
+     * @param orderId the order ID
+     * @param createdAt when the order was created
+     * @return the payment deadline
+     */
+    public Instant register(UUID orderId, Instant createdAt) {
+        Instant deadline = createdAt.plus(paymentTimeout);
+        afterCommit(() -> {
+            try {
+                redisTemplate.opsForZSet().add(DEADLINES_KEY, orderId.toString(), deadline.toEpochMilli());
+                wakeIfEarlier(deadline.toEpochMilli());
+            } catch (RuntimeException e) {
+                log.warn("Could not register payment deadline for order {}; reconciliation will handle it: {}",
+                        orderId, e.getMessage());
+            }
+        });
+        return deadline;
+    }
+
+    /**
+     * Drops the payment deadline of an order once the surrounding transaction commits,
+     * for example because the order has been paid.
+     *
+     * @param orderId the order ID
+     */
+    public void cancel(UUID orderId) {
+        afterCommit(() -> {
+            try {
+                redisTemplate.opsForZSet().remove(DEADLINES_KEY, orderId.toString());
+            } catch (RuntimeException e) {
+                // Harmless: at the deadline the order is no longer pending and is left alone
+                log.warn("Could not drop payment deadline for order {}: {}", orderId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Claims and cancels up to one batch of orders whose deadline has passed.
+     *
+     * @return the number of due deadlines found
+     */
+    int processDue() {
+        ZSetOperations<String, String> deadlines = redisTemplate.opsForZSet();
+        Set<String> due = deadlines.rangeByScore(DEADLINES_KEY, 0, System.currentTimeMillis(), 0, batchSize);
+        if (due == null || due.isEmpty()) {
+            return 0;
+        }
+
+        List<UUID> claimed = new ArrayList<>(due.size());
+        for (String orderId : due) {
+            Long removed = deadlines.remove(DEADLINES_KEY, orderId);
+            if (removed != null && removed > 0) {
+                claimed.add(UUID.fromString(orderId));
+            }
+        }
+
+        try {
+            int cancelled = unpaidOrderSweeper.cancelIfPending(claimed);
+            if (cancelled > 0) {
+                log.info("Cancelled {} orders at their payment deadline", cancelled);
+            }
+        } catch (RuntimeException e) {
+            // Put the claims back so this or another node retries them shortly
+            long retryAt = System.currentTimeMillis() + maxSleep.toMillis();
+            claimed.forEach(id -> deadlines.add(DEADLINES_KEY, id.toString(), retryAt));
+            log.error("Failed to cancel {} orders past their payment deadline; retrying", claimed.size(), e);
+        }
+        return due.size();
+    }
+
+    /**
+     * Time of the earliest registered deadline, capped so deadlines registered
+     * elsewhere are never noticed more than {@code max-sleep} late.
+     */
+    long nextWakeMillis() {
+        long cap = System.currentTimeMillis() + maxSleep.toMillis();
+        Set<ZSetOperations.TypedTuple<String>> earliest = redisTemplate.opsForZSet()
+                .rangeWithScores(DEADLINES_KEY, 0, 0);
+        if (earliest == null || earliest.isEmpty()) {
+            return cap;
+        }
+        Double score = earliest.iterator().next().getScore();
+        return score == null ? cap : Math.min(cap, score.longValue());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "payment-deadline-scheduler");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Payment deadline scheduler started");
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (processDue() >= batchSize) {
+                    continue;
+                }
+                sleepUntil(nextWakeMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Payment deadline scheduler failed; retrying in {}", maxSleep, e);
+                try {
+                    Thread.sleep(maxSleep.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void sleepUntil(long wakeAt) throws InterruptedException {
+        lock.lock();
+        try {
+            wakeAtMillis = wakeAt;
+            long delay = wakeAt - System.currentTimeMillis();
+            if (delay > 0) {
+                wakeUp.await(delay, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            wakeAtMillis = Long.MAX_VALUE;
+            lock.unlock();
+        }
+    }
+
+    private void wakeIfEarlier(long deadlineMillis) {
+        lock.lock();
+        try {
+            if (deadlineMillis < wakeAtMillis) {
+                wakeUp.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
\ No newline at end of file
@@ -5,22 +5,32 @@ import com.example.ecommerce.domain.Order;
 import com.example.ecommerce.enums.OrderStatus;
 import com.example.ecommerce.dto.response.PaymentResponseDTO;
 import com.example.ecommerce.observer.OrderStatusPublisher;
+import com.example.ecommerce.payment.PaymentBulkheads;
 import com.example.ecommerce.payment.PaymentStrategy;
+import com.example.ecommerce.payment.PaymentUnavailableException;
 import com.example.ecommerce.state.OrderStateManager;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Service responsible for coordinating payment processing
  * using registered {@link PaymentStrategy} implementations.
+ *
+ * No database connection is held while a provider is called: the order is read up front,
+ * the provider is called on its bulkhead (see {@link PaymentBulkheads}), and the outcome
+ * is recorded in a short transaction of its own. That transaction only changes the order
+ * if it is still in the status it was read in, so a payment never overwrites a
+ * cancellation made while the provider was being called.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class PaymentService {
 
@@ -33,6 +43,25 @@ public class PaymentService {
     private final OrderService orderService;
     private final OrderStatusPublisher orderStatusPublisher;
     private final OrderStateManager orderStateManager;
+    private final PaymentDeadlineScheduler paymentDeadlineScheduler;
+    private final PaymentBulkheads paymentBulkheads;
+    private final TransactionTemplate transactionTemplate;
+
+    public PaymentService(Map<String, PaymentStrategy> strategies,
+                          OrderService orderService,
+                          OrderStatusPublisher orderStatusPublisher,
+                          OrderStateManager orderStateManager,
+                          PaymentDeadlineScheduler paymentDeadlineScheduler,
+                          PaymentBulkheads paymentBulkheads,
+                          PlatformTransactionManager transactionManager) {
+        this.strategies = strategies;
+        this.orderService = orderService;
+        this.orderStatusPublisher = orderStatusPublisher;
+        this.orderStateManager = orderStateManager;
+        this.paymentDeadlineScheduler = paymentDeadlineScheduler;
+        this.paymentBulkheads = paymentBulkheads;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     /**
      * Attempts to process payment for the given orderId.
@@ -45,9 +74,32 @@ public class PaymentService {
      * @param provider the payment provider
      * @return {@link PaymentResponseDTO}
      */
-    @Transactional
     public PaymentResponseDTO pay(UUID orderId, String provider) {
-        Order order = orderService.findById(orderId);
+        try {
+            return payAsync(orderId, provider).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #pay(UUID, String)}.
+     * The order is validated on the caller's thread; the provider call and the recording
+     * of its outcome happen on the provider's bulkhead.
+     *
+     * @param orderId the ID of the order
+     * @param provider the payment provider
+     * @return a future completed with the {@link PaymentResponseDTO} once the outcome is recorded
+     * @throws IllegalArgumentException if the provider is unknown
+     * @throws PaymentUnavailableException if the provider is too busy to accept the payment;
+     *         the future fails with it when the provider cannot be reached
+     */
+    public CompletableFuture<PaymentResponseDTO> payAsync(UUID orderId, String provider) {
+        // Read with items, so the provider call needs neither a session nor a connection
+        Order order = orderService.findWithItemsById(orderId);
 
         // STATE PATTERN: Validate payment operation
         orderStateManager.validateOperation(order, "payment");
@@ -59,18 +111,40 @@ public class PaymentService {
             throw new IllegalArgumentException(MessageConstants.PAYMENT_PROVIDER_UNKNOWN + ": " + provider);
         }
 
-        PaymentResponseDTO response = strategy.processPayment(order);
+        // Same key as the gateway guard, so both share the provider's bulkhead
+        String providerName = strategy.getProviderName();
+        CompletableFuture<PaymentResponseDTO> gatewayCall;
+        try {
+            gatewayCall = strategy.processPaymentAsync(order, paymentBulkheads.forProvider(providerName));
+        } catch (RejectedExecutionException e) {
+            log.warn("PAYMENT SERVICE: Provider {} is saturated, rejecting payment for order {}", providerName, orderId);
+            throw new PaymentUnavailableException(providerName, PaymentUnavailableException.Reason.BUSY);
+        }
+
+        return gatewayCall.thenApply(response ->
+                transactionTemplate.execute(status -> recordOutcome(order, oldStatus, response)));
+    }
+
+    private PaymentResponseDTO recordOutcome(Order order, OrderStatus oldStatus, PaymentResponseDTO response) {
         OrderStatus newStatus = response.getOrderStatus();
 
         // STATE PATTERN: Validate state transition
         orderStateManager.validateTransition(order, newStatus);
 
-        // Update order status through OrderService
-        orderService.updateOrderStatus(order, newStatus);
+        // Update order status through OrderService, unless it changed during the provider call
+        if (!orderService.updateOrderStatusIfCurrent(order, oldStatus, newStatus)) {
+            log.error("PAYMENT SERVICE: Order {} changed while its payment was processed; provider outcome {} "
+                    + "was not recorded and needs reconciliation", order.getId(), newStatus);
+            throw new IllegalStateException(MessageConstants.ORDER_CHANGED_DURING_PAYMENT);
+        }
 
         // Notify observers of status change - this will handle payment failure notifications
         orderStatusPublisher.notifyStatusChange(order, oldStatus, newStatus);
 
+        if (newStatus == OrderStatus.PAID) {
+            paymentDeadlineScheduler.cancel(order.getId());
+        }
+
         return response;
     }
 }
@@ -6,12 +6,17 @@ import com.example.ecommerce.domain.Product;
 import com.example.ecommerce.dto.request.CreateProductRequestDTO;
 import com.example.ecommerce.factory.ProductFactory;
 import com.example.ecommerce.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service responsible for managing product data, including retrieval,
@@ -23,6 +28,7 @@ public class ProductService implements ProductServiceContract {
 
     private final ProductRepository productRepository;
     private final InventoryService inventoryService;
+    private final EntityManager entityManager;
 
     /**
      * Retrieves all products from the repository.
@@ -47,6 +53,50 @@ public class ProductService implements ProductServiceContract {
                 .orElseThrow(() -> new RuntimeException(MessageConstants.PRODUCT_NOT_FOUND));
     }
 
+    /**
+     * Retrieves several products by their unique identifiers in a single query.
+     *
+     * @param ids the UUIDs of the products to retrieve
+     * @return the matching {@link Product} entities; unknown IDs are omitted
+     */
+    @Override
+    public List<Product> findAllById(Collection<UUID> ids) {
+        return productRepository.findAllById(ids);
+    }
+
+    /**
+     * Retrieves one page of products using keyset pagination.
+     *
+     * @param after the ID of the last product on the previous page, or {@code null} for the first page
+     * @param limit the maximum number of products to return
+     * @return the products following {@code after}, in ID order
+     */
+    @Override
+    public List<Product> findPage(UUID after, int limit) {
+        if (after == null) {
+            return productRepository.findAllByOrderByIdAsc(Limit.of(limit));
+        }
+        return productRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit));
+    }
+
+    /**
+     * Streams every product from a database cursor and passes it to the action.
+     * Each product is detached once handled, so memory stays flat however large
+     * the catalogue is.
+     *
+     * @param action the action to apply to each {@link Product}
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public void forEachProduct(Consumer<Product> action) {
+        try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc()) {
+            products.forEach(product -> {
+                action.accept(product);
+                entityManager.detach(product);
+            });
+        }
+    }
+
     /**
      * Creates a new product and saves it to the repository.
      *
@@ -0,0 +1,171 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.domain.Order;
+import com.example.ecommerce.enums.OrderStatus;
+import com.example.ecommerce.observer.OrderStatusPublisher;
+import com.example.ecommerce.repository.OrderRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Cancels stale unpaid orders in bounded chunks.
+ *
+ * Each worker repeatedly claims a chunk in its own transaction:
+ * - {@code FOR UPDATE SKIP LOCKED} claims pending orders no other sweeper holds
+ * - one conditional {@code UPDATE} cancels the claimed orders
+ * - the cancelled orders are loaded with their items in one query
+ * - observers are notified for the whole chunk, releasing its stock in one statement
+ * Claims are disjoint across workers and replicas, and a committed order is no longer
+ * pending, so no order is ever cancelled twice and throughput grows with the number of
+ * workers and replicas. Coordination happens through row locks only.
+ */
+@Service
+@Slf4j
+public class UnpaidOrderSweeper {
+
+    private final OrderRepository orderRepository;
+    private final OrderStatusPublisher statusPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int workers;
+    private final ExecutorService executor;
+
+    public UnpaidOrderSweeper(OrderRepository orderRepository,
+                              OrderStatusPublisher statusPublisher,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.orders.sweep.chunk-size:500}") int chunkSize,
+                              @Value("${app.orders.sweep.workers:1}") int workers) {
+        this.orderRepository = orderRepository;
+        this.statusPublisher = statusPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.workers = Math.max(1, workers);
+        this.executor = this.workers > 1
+                ? Executors.newFixedThreadPool(this.workers, new CustomizableThreadFactory("order-sweeper-"))
+                : null;
+    }
+
+    /**
+     * Cancels every order that is still pending and was created before the cutoff.
+     * Returns once no more unclaimed stale orders are left, or after a chunk fails;
+     * a failed chunk rolls back and is retried by the next sweep.
+     *
+     * @param cutoffTime orders created before this time are considered stale
+     * @return the number of orders cancelled by this node
+     */
+    public int cancelUnpaidOrdersOlderThan(Instant cutoffTime) {
+        if (executor == null) {
+            return sweep(cutoffTime);
+        }
+
+        List<Future<Integer>> sweeps = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            sweeps.add(executor.submit(() -> sweep(cutoffTime)));
+        }
+
+        int cancelled = 0;
+        for (Future<Integer> future : sweeps) {
+            try {
+                cancelled += future.get();
+            } catch (ExecutionException e) {
+                log.error("Unpaid order sweep worker failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                sweeps.forEach(sweep -> sweep.cancel(true));
+                break;
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * Claims and cancels chunks until none are left.
+     */
+    private int sweep(Instant cutoffTime) {
+        int cancelled = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            ChunkResult chunk;
+            try {
+                chunk = cancelChunk(cutoffTime);
+            } catch (RuntimeException e) {
+                // Stop rather than reclaim the same rows in a loop; the next sweep retries them
+                log.error("Failed to cancel chunk of unpaid orders", e);
+                break;
+            }
+            cancelled += chunk.cancelled();
+            if (chunk.claimed() < chunkSize) {
+                break;
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * Cancels those of the given orders that are still pending, in one transaction.
+     * Used for orders whose payment deadline is known to have passed.
+     *
+     * @param orderIds the identifiers of the candidate orders
+     * @return the number of orders cancelled
+     */
+    public int cancelIfPending(List<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        Integer cancelled = transactionTemplate.execute(status -> cancelClaimed(orderIds));
+        return cancelled == null ? 0 : cancelled;
+    }
+
+    /**
+     * Claims one chunk of stale orders and cancels it in its own transaction.
+     */
+    private ChunkResult cancelChunk(Instant cutoffTime) {
+        ChunkResult result = transactionTemplate.execute(status -> {
+            List<UUID> claimedIds = orderRepository.claimPendingCreatedBefore(cutoffTime, chunkSize);
+            if (claimedIds.isEmpty()) {
+                return new ChunkResult(0, 0);
+            }
+            return new ChunkResult(claimedIds.size(), cancelClaimed(claimedIds));
+        });
+        return result == null ? new ChunkResult(0, 0) : result;
+    }
+
+    /**
+     * Cancels the still pending orders among the given ones and notifies observers.
+     * Must run inside a transaction.
+     */
+    private int cancelClaimed(List<UUID> orderIds) {
+        List<UUID> cancelledIds = orderRepository.cancelPendingByIdIn(orderIds);
+        if (cancelledIds.isEmpty()) {
+            return 0;
+        }
+
+        List<Order> orders = orderRepository.findAllWithItemsByIdIn(cancelledIds);
+        statusPublisher.notifyStatusChanges(orders, OrderStatus.PENDING, OrderStatus.CANCELLED);
+
+        log.debug("Cancelled {} unpaid orders", orders.size());
+        return orders.size();
+    }
+
+    private record ChunkResult(int claimed, int cancelled) {}
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
@@ -6,26 +6,74 @@ import com.example.ecommerce.domain.User;
 import com.example.ecommerce.dto.request.RegisterRequestDTO;
 import com.example.ecommerce.factory.UserFactory;
 import com.example.ecommerce.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service responsible for managing user data.
+ *
+ * Users looked up by ID are kept in a bounded cache for a short while, so observers
+ * notifying the owners of many orders load each user once rather than once per order.
+ * The cache holds immutable snapshots without the password hash, and every caller gets
+ * its own copy. Writes evict the user they save; entries otherwise expire with their TTL.
+ * Lookups by email, used to log in, always go to the database.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final EcommerceNotificationService notificationService;
+    private final Cache<UUID, CachedUser> users;
+
+    @Autowired
+    public UserService(UserRepository userRepository,
+                       PasswordEncoder passwordEncoder,
+                       EcommerceNotificationService notificationService,
+                       @Value("${app.users.cache.ttl:5m}") Duration ttl,
+                       @Value("${app.users.cache.maximum-size:10000}") long maximumSize,
+                       MeterRegistry meterRegistry) {
+        this(userRepository, passwordEncoder, notificationService, ttl, maximumSize, Ticker.systemTicker());
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+    }
+
+    UserService(UserRepository userRepository,
+                PasswordEncoder passwordEncoder,
+                EcommerceNotificationService notificationService,
+                Duration ttl,
+                long maximumSize,
+                Ticker ticker) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.notificationService = notificationService;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
 
     /**
      * Registers a new user by creating a {@link User} entity,
@@ -39,6 +87,7 @@ public class UserService {
     public User registerUser(RegisterRequestDTO request) {
         User user = UserFactory.createNewUser(request.getEmail(), passwordEncoder.encode(request.getPassword()));
         User savedUser = userRepository.save(user);
+        evict(savedUser.getId());
 
         // Send welcome notification using Decorator pattern
         log.info("Sending welcome notification to new user: {}\n", savedUser.getEmail());
@@ -62,12 +111,64 @@ public class UserService {
 
     /**
      * Finds a user by their ID.
+     * The user may come from the cache; it is a detached copy without the password hash.
      *
      * @param userId the ID of the user to find
-     * @return an {@link Optional} containing the {@link User} if found, or empty if not
+     * @return the {@link User} if found
+     * @throws RuntimeException if the user is not found
      */
     public User findById(UUID userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException(MessageConstants.USER_NOT_FOUND));
+        if (userId == null) {
+            throw new RuntimeException(MessageConstants.USER_NOT_FOUND);
+        }
+        // Unknown users are not cached, so a user registered later is found
+        CachedUser user = users.get(userId, id -> userRepository.findById(id).map(CachedUser::of).orElse(null));
+        if (user == null) {
+            throw new RuntimeException(MessageConstants.USER_NOT_FOUND);
+        }
+        return user.toUser();
+    }
+
+    /**
+     * Finds several users by their IDs, loading all that are not cached in one query.
+     * Unknown and null IDs are skipped rather than reported as errors.
+     *
+     * @param userIds the IDs of the users to find
+     * @return detached copies of the users found, like those of {@link #findById(UUID)}
+     */
+    public List<User> findAllById(Collection<UUID> userIds) {
+        List<UUID> ids = userIds.stream().filter(Objects::nonNull).toList();
+        Map<UUID, CachedUser> found = users.getAll(ids, missing -> userRepository.findAllById(Set.copyOf(missing)).stream()
+                .map(CachedUser::of)
+                .collect(Collectors.toMap(CachedUser::id, Function.identity())));
+        return found.values().stream().map(CachedUser::toUser).toList();
+    }
+
+    /**
+     * Drops a user from the cache. Must be called whenever a user is saved or deleted.
+     *
+     * @param userId the ID of the changed user
+     */
+    public void evict(UUID userId) {
+        users.invalidate(userId);
+    }
+
+    /**
+     * Immutable snapshot of a user as cached, so callers can neither change what others
+     * read nor get at an entity managed by a persistence context. Holds no credentials.
+     */
+    private record CachedUser(UUID id, String email, Instant createdAt) {
+
+        static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getEmail(), user.getCreatedAt());
+        }
+
+        User toUser() {
+            return User.builder()
+                    .id(id)
+                    .email(email)
+                    .createdAt(createdAt)
+                    .build();
+        }
     }
 }
@@ -3,9 +3,11 @@ package com.example.ecommerce.soap;
 import com.example.ecommerce.command.CommandResult;
 import com.example.ecommerce.constants.MessageConstants;
 import com.example.ecommerce.domain.Order;
+import com.example.ecommerce.enums.IdempotencyScope;
 import com.example.ecommerce.enums.OrderStatus;
 import com.example.ecommerce.dto.request.CreateOrderRequestDTO;
 import com.example.ecommerce.dto.response.OrderResponseDTO;
+import com.example.ecommerce.idempotency.IdempotencyService;
 import com.example.ecommerce.service.JwtService;
 import com.example.ecommerce.service.OrderService;
 import lombok.RequiredArgsConstructor;
@@ -17,13 +19,6 @@ import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
 import org.springframework.ws.soap.SoapHeaderElement;
 import org.springframework.ws.soap.server.endpoint.annotation.SoapHeader;
 
-import javax.xml.datatype.DatatypeConfigurationException;
-import javax.xml.datatype.DatatypeFactory;
-import javax.xml.datatype.XMLGregorianCalendar;
-import java.time.Instant;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.util.GregorianCalendar;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -37,6 +32,7 @@ public class OrderEndpoint {
     
     private final OrderService orderService;
     private final JwtService jwtService;
+    private final IdempotencyService idempotencyService;
 
     @PayloadRoot(namespace = NAMESPACE_URI, localPart = "getOrderRequest")
     @ResponsePayload
@@ -61,7 +57,7 @@ public class OrderEndpoint {
             }
             
             GetOrderResponse response = new GetOrderResponse();
-            response.setOrder(convertToSoapOrder(orderDto));
+            response.setOrder(SoapOrderConverter.toSoapOrder(orderDto));
             
             log.info("SOAP response sent for order ID: {}", orderId);
             return response;
@@ -75,7 +71,8 @@ public class OrderEndpoint {
     @ResponsePayload
     public CreateOrderResponse createOrder(
             @RequestPayload CreateOrderRequest request,
-            @SoapHeader("{http://example.com/ecommerce/orders}authToken") SoapHeaderElement authHeader) {
+            @SoapHeader("{http://example.com/ecommerce/orders}authToken") SoapHeaderElement authHeader,
+            @SoapHeader("{http://example.com/ecommerce/orders}idempotencyKey") SoapHeaderElement idempotencyHeader) {
         
         log.info("SOAP request received to create order with {} items", 
                 request.getItems().getItem().size());
@@ -96,8 +93,11 @@ public class OrderEndpoint {
                     .collect(Collectors.toList());
             orderRequestDto.setItems(items);
             
-            // Use the same business logic as REST API
-            CommandResult result = orderService.createOrderWithCommand(userId, orderRequestDto);
+            // Use the same business logic as REST API, including its idempotency keys
+            String idempotencyKey = idempotencyHeader != null ? idempotencyHeader.getText() : null;
+            CommandResult result = idempotencyService.executeCommand(IdempotencyScope.CREATE_ORDER, userId,
+                    idempotencyKey, orderRequestDto, OrderResponseDTO.class,
+                    () -> orderService.createOrderWithCommand(userId, orderRequestDto));
             
             if (!result.isSuccess()) {
                 log.error("SOAP: Order creation failed: {}", result.getMessage());
@@ -107,7 +107,7 @@ public class OrderEndpoint {
             OrderResponseDTO orderDto = (OrderResponseDTO) result.getData();
 
             CreateOrderResponse response = new CreateOrderResponse();
-            response.setOrder(convertToSoapOrder(orderDto));
+            response.setOrder(SoapOrderConverter.toSoapOrder(orderDto));
             
             log.info("SOAP response sent for created order ID: {}", orderDto.getId());
             return response;
@@ -188,40 +188,4 @@ public class OrderEndpoint {
             throw new RuntimeException(MessageConstants.AUTHENTICATION_FAILED + ": " + MessageConstants.TOKEN_INVALID);
         }
     }
-
-    private com.example.ecommerce.soap.Order convertToSoapOrder(OrderResponseDTO orderDto) {
-        com.example.ecommerce.soap.Order soapOrder = new com.example.ecommerce.soap.Order();
-        soapOrder.setId(orderDto.getId().toString());
-        soapOrder.setUserId(orderDto.getUserId().toString());
-        soapOrder.setTotalAmount(orderDto.getTotal());
-        soapOrder.setStatus(orderDto.getStatus().name());
-        soapOrder.setCreatedAt(convertToXMLGregorianCalendar(orderDto.getCreatedAt()));
-        
-        // Convert order items if present
-        if (orderDto.getItems() != null && !orderDto.getItems().isEmpty()) {
-            OrderItems soapItems = new OrderItems();
-            List<OrderItem> soapItemList = orderDto.getItems().stream()
-                    .map(item -> {
-                        OrderItem soapItem = new OrderItem();
-                        soapItem.setProductId(item.getProductId().toString());
-                        soapItem.setQuantity(item.getQuantity());
-                        return soapItem;
-                    })
-                    .toList();
-            soapItems.getItem().addAll(soapItemList);
-            soapOrder.setItems(soapItems);
-        }
-        
-        return soapOrder;
-    }
-
-    private XMLGregorianCalendar convertToXMLGregorianCalendar(Instant instant) {
-        try {
-            ZonedDateTime zonedDateTime = instant.atZone(ZoneId.systemDefault());
-            GregorianCalendar gregorianCalendar = GregorianCalendar.from(zonedDateTime);
-            return DatatypeFactory.newInstance().newXMLGregorianCalendar(gregorianCalendar);
-        } catch (DatatypeConfigurationException e) {
-            throw new RuntimeException("Error converting date", e);
-        }
-    }
-}
\ No newline at end of file
+}
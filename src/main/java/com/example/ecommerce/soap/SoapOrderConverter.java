@@ -0,0 +1,62 @@
+package com.example.ecommerce.soap;
+
+import com.example.ecommerce.dto.response.OrderResponseDTO;
+import lombok.NonNull;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+/**
+ * Converts order DTOs into the JAXB types of the SOAP contract.
+ *
+ * The {@link DatatypeFactory} is looked up once: {@code DatatypeFactory.newInstance()}
+ * goes through service loading on every call, which used to dominate the conversion.
+ */
+public final class SoapOrderConverter {
+
+    private static final DatatypeFactory DATATYPE_FACTORY = createDatatypeFactory();
+
+    private SoapOrderConverter() {}
+
+    public static Order toSoapOrder(@NonNull OrderResponseDTO orderDto) {
+        Order soapOrder = new Order();
+        soapOrder.setId(orderDto.getId().toString());
+        soapOrder.setUserId(orderDto.getUserId().toString());
+        soapOrder.setTotalAmount(orderDto.getTotal());
+        soapOrder.setStatus(orderDto.getStatus().name());
+        soapOrder.setCreatedAt(toXMLGregorianCalendar(orderDto.getCreatedAt()));
+
+        // Convert order items if present
+        if (orderDto.getItems() != null && !orderDto.getItems().isEmpty()) {
+            OrderItems soapItems = new OrderItems();
+            List<OrderItem> soapItemList = soapItems.getItem();
+            for (OrderResponseDTO.OrderItemResponse item : orderDto.getItems()) {
+                OrderItem soapItem = new OrderItem();
+                soapItem.setProductId(item.getProductId().toString());
+                soapItem.setQuantity(item.getQuantity());
+                soapItemList.add(soapItem);
+            }
+            soapOrder.setItems(soapItems);
+        }
+
+        return soapOrder;
+    }
+
+    static XMLGregorianCalendar toXMLGregorianCalendar(Instant instant) {
+        GregorianCalendar gregorianCalendar = GregorianCalendar.from(instant.atZone(ZoneId.systemDefault()));
+        return DATATYPE_FACTORY.newXMLGregorianCalendar(gregorianCalendar);
+    }
+
+    private static DatatypeFactory createDatatypeFactory() {
+        try {
+            return DatatypeFactory.newInstance();
+        } catch (DatatypeConfigurationException e) {
+            throw new IllegalStateException("Error creating XML datatype factory", e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.example.ecommerce.util;
+
+import com.example.ecommerce.constants.MessageConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a user's order history, which is sorted by creation time and then by ID,
+ * both descending. The ID breaks ties between orders created at the same instant,
+ * so every order appears on exactly one page.
+ *
+ * Clients receive the cursor as an opaque URL-safe string.
+ *
+ * @param createdAt the creation time of the last order on the previous page
+ * @param id the ID of the last order on the previous page
+ */
+public record OrderCursor(Instant createdAt, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * @return the opaque string form of this cursor
+     */
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a cursor previously produced by {@link #encode()}.
+     *
+     * @param value the opaque cursor string
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static OrderCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new OrderCursor(Instant.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException(MessageConstants.ORDER_CURSOR_INVALID, e);
+        }
+    }
+}
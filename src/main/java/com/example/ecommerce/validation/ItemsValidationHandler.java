@@ -12,8 +12,9 @@ import org.springframework.stereotype.Component;
 public class ItemsValidationHandler extends OrderValidationHandler {
     
     @Override
-    protected ValidationResult doValidate(CreateOrderRequestDTO request) {
+    protected ValidationResult doValidate(OrderValidationContext context) {
         log.debug("Validating order items");
+        CreateOrderRequestDTO request = context.getRequest();
         
         if (request.getItems() == null || request.getItems().isEmpty()) {
             return ValidationResult.failure(getValidationName(), "Order must contain at least one item");
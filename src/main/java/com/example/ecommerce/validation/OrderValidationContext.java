@@ -0,0 +1,90 @@
+package com.example.ecommerce.validation;
+
+import com.example.ecommerce.domain.Inventory;
+import com.example.ecommerce.domain.Product;
+import com.example.ecommerce.dto.request.CreateOrderRequestDTO;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per-request snapshot of the data the order validation chain works on.
+ *
+ * Every product and inventory row referenced by the request is bulk-loaded once,
+ * on first access, and then shared by all handlers in the chain and by the command
+ * that creates the order. Instances are not thread-safe and must not outlive the
+ * request they were created for.
+ */
+public class OrderValidationContext {
+
+    private final CreateOrderRequestDTO request;
+    private final Function<Collection<UUID>, List<Product>> productLoader;
+    private final Function<Collection<UUID>, List<Inventory>> inventoryLoader;
+
+    private Map<UUID, Product> products;
+    private Map<UUID, Inventory> inventory;
+
+    /**
+     * Creates a context for the given request.
+     *
+     * @param request         the order request being validated
+     * @param productLoader   bulk loader returning the products that exist for the given IDs
+     * @param inventoryLoader bulk loader returning the inventory rows that exist for the given IDs
+     */
+    public OrderValidationContext(CreateOrderRequestDTO request,
+                                  Function<Collection<UUID>, List<Product>> productLoader,
+                                  Function<Collection<UUID>, List<Inventory>> inventoryLoader) {
+        this.request = request;
+        this.productLoader = productLoader;
+        this.inventoryLoader = inventoryLoader;
+    }
+
+    public CreateOrderRequestDTO getRequest() {
+        return request;
+    }
+
+    /**
+     * Returns the snapshot of a referenced product.
+     *
+     * @param productId the product ID
+     * @return the product, or {@code null} if it does not exist
+     */
+    public Product getProduct(UUID productId) {
+        if (products == null) {
+            products = productLoader.apply(referencedProductIds()).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+        }
+        return products.get(productId);
+    }
+
+    /**
+     * Returns the snapshot of a referenced product's inventory.
+     *
+     * @param productId the product ID
+     * @return the inventory row, or {@code null} if the product has none
+     */
+    public Inventory getInventory(UUID productId) {
+        if (inventory == null) {
+            inventory = inventoryLoader.apply(referencedProductIds()).stream()
+                    .collect(Collectors.toMap(Inventory::getProductId, Function.identity()));
+        }
+        return inventory.get(productId);
+    }
+
+    private Set<UUID> referencedProductIds() {
+        if (request.getItems() == null) {
+            return Set.of();
+        }
+        return request.getItems().stream()
+                .map(CreateOrderRequestDTO.Item::getProductId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
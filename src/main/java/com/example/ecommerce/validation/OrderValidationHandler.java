@@ -1,39 +1,40 @@
 package com.example.ecommerce.validation;
 
-import com.example.ecommerce.dto.request.CreateOrderRequestDTO;
-
 /**
  * Chain of Responsibility pattern for order validation.
  * Each handler validates one aspect of the order.
+ *
+ * Handlers are shared singletons, so the chain is wired once at startup
+ * and all per-request state lives in the {@link OrderValidationContext}.
  */
 public abstract class OrderValidationHandler {
-    
+
     private OrderValidationHandler nextHandler;
-    
+
     public void setNext(OrderValidationHandler nextHandler) {
         this.nextHandler = nextHandler;
     }
-    
+
     /**
      * Validate the order and pass to next handler if validation passes.
      */
-    public final ValidationResult validate(CreateOrderRequestDTO request) {
-        ValidationResult result = doValidate(request);
-        
+    public final ValidationResult validate(OrderValidationContext context) {
+        ValidationResult result = doValidate(context);
+
         if (result.isValid() && nextHandler != null) {
-            return nextHandler.validate(request);
+            return nextHandler.validate(context);
         }
-        
+
         return result;
     }
-    
+
     /**
      * Perform the specific validation logic for this handler.
      */
-    protected abstract ValidationResult doValidate(CreateOrderRequestDTO request);
-    
+    protected abstract ValidationResult doValidate(OrderValidationContext context);
+
     /**
      * Get the name of this validation step (for logging/debugging).
      */
     protected abstract String getValidationName();
-}
\ No newline at end of file
+}
@@ -1,8 +1,6 @@
 package com.example.ecommerce.validation;
 
 import com.example.ecommerce.dto.request.CreateOrderRequestDTO;
-import com.example.ecommerce.proxy.ProductServiceContract;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -11,29 +9,26 @@ import org.springframework.stereotype.Component;
  * This is a REAL validation that prevents orders with non-existent products.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class ProductExistenceValidationHandler extends OrderValidationHandler {
     
-    private final ProductServiceContract productService;
-    
     @Override
-    protected ValidationResult doValidate(CreateOrderRequestDTO request) {
+    protected ValidationResult doValidate(OrderValidationContext context) {
+        CreateOrderRequestDTO request = context.getRequest();
         log.debug("Validating product existence for {} items", request.getItems().size());
         
         for (int i = 0; i < request.getItems().size(); i++) {
             var item = request.getItems().get(i);
             
-            try {
-                // Check if product exists
-                var product = productService.findById(item.getProductId());
-                log.debug("Product {} exists: {}", item.getProductId(), product.getName());
-                
-            } catch (RuntimeException e) {
+            // Check if product exists in the prefetched snapshot
+            var product = context.getProduct(item.getProductId());
+            if (product == null) {
                 return ValidationResult.failure(getValidationName(), 
                     String.format("Item %d: Product with ID %s does not exist", 
                             i + 1, item.getProductId()));
             }
+            
+            log.debug("Product {} exists: {}", item.getProductId(), product.getName());
         }
         
         log.debug("Product existence validation passed for all {} items", request.getItems().size());
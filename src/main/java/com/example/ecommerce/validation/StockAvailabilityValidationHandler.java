@@ -1,46 +1,51 @@
 package com.example.ecommerce.validation;
 
 import com.example.ecommerce.dto.request.CreateOrderRequestDTO;
-import com.example.ecommerce.service.InventoryService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
 /**
  * Validates that sufficient stock is available for all items in the order.
  * This prevents orders that cannot be fulfilled due to insufficient inventory.
+ *
+ * Works on the prefetched snapshot, so it is an early rejection only;
+ * the atomic reservation remains the authoritative stock check.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class StockAvailabilityValidationHandler extends OrderValidationHandler {
     
-    private final InventoryService inventoryService;
-    
     @Override
-    protected ValidationResult doValidate(CreateOrderRequestDTO request) {
+    protected ValidationResult doValidate(OrderValidationContext context) {
+        CreateOrderRequestDTO request = context.getRequest();
         log.debug("Validating stock availability for {} items", request.getItems().size());
         
+        // Lines for the same product draw from the same stock
+        Map<UUID, Integer> requested = new HashMap<>();
+        
         for (int i = 0; i < request.getItems().size(); i++) {
             var item = request.getItems().get(i);
+            var inventory = context.getInventory(item.getProductId());
             
-            try {
-                var inventory = inventoryService.findById(item.getProductId());
-                
-                if (inventory.getAvailable() < item.getQuantity()) {
-                    return ValidationResult.failure(getValidationName(), 
-                        String.format("Item %d: Insufficient stock. Requested: %d, Available: %d", 
-                                i + 1, item.getQuantity(), inventory.getAvailable()));
-                }
-                
-                log.debug("Stock check passed for product {}: requested={}, available={}", 
-                        item.getProductId(), item.getQuantity(), inventory.getAvailable());
-                
-            } catch (RuntimeException e) {
+            if (inventory == null) {
                 return ValidationResult.failure(getValidationName(), 
                     String.format("Item %d: No inventory found for product %s", 
                             i + 1, item.getProductId()));
             }
+            
+            int quantity = requested.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            if (inventory.getAvailable() < quantity) {
+                return ValidationResult.failure(getValidationName(), 
+                    String.format("Item %d: Insufficient stock. Requested: %d, Available: %d", 
+                            i + 1, quantity, inventory.getAvailable()));
+            }
+            
+            log.debug("Stock check passed for product {}: requested={}, available={}", 
+                    item.getProductId(), quantity, inventory.getAvailable());
         }
         
         log.debug("Stock availability validation passed for all {} items", request.getItems().size());
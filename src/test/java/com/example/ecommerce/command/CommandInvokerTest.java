@@ -0,0 +1,148 @@
+package com.example.ecommerce.command;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for CommandInvoker.
+ * Verifies that undo history, backed by the in-memory store, is per user, bounded in depth and expires.
+ */
+class CommandInvokerTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @Test
+    void shouldKeepHistoryPerUser() {
+        CommandInvoker invoker = new CommandInvoker(new InMemoryCommandHistoryStore(10, Duration.ofMinutes(30), 1000, ticker));
+
+        invoker.execute(alice, new UndoableCommand("alice-1"));
+
+        assertEquals(1, invoker.getUndoableCommandCount(alice));
+        assertEquals(0, invoker.getUndoableCommandCount(bob));
+        assertFalse(invoker.undoLast(bob).isSuccess());
+        assertTrue(invoker.undoLast(alice).isSuccess());
+        assertEquals(0, invoker.getUndoableCommandCount(alice));
+    }
+
+    @Test
+    void shouldDropOldestCommandsBeyondDepth() {
+        CommandInvoker invoker = new CommandInvoker(new InMemoryCommandHistoryStore(3, Duration.ofMinutes(30), 1000, ticker));
+        UndoableCommand[] commands = new UndoableCommand[5];
+        for (int i = 0; i < commands.length; i++) {
+            commands[i] = new UndoableCommand("command-" + i);
+            invoker.execute(alice, commands[i]);
+        }
+
+        assertEquals(3, invoker.getUndoableCommandCount(alice));
+        assertEquals("command-4", invoker.getLastUndoableCommandDescription(alice));
+
+        invoker.undoLast(alice);
+        invoker.undoLast(alice);
+        invoker.undoLast(alice);
+
+        assertTrue(commands[4].undone && commands[3].undone && commands[2].undone);
+        assertFalse(commands[1].undone);
+        assertFalse(invoker.undoLast(alice).isSuccess());
+    }
+
+    @Test
+    void shouldKeepCommandWhenUndoFails() {
+        CommandInvoker invoker = new CommandInvoker(new InMemoryCommandHistoryStore(3, Duration.ofMinutes(30), 1000, ticker));
+        invoker.execute(alice, new UndoableCommand("broken") {
+            @Override
+            public CommandResult undo() {
+                throw new IllegalStateException("boom");
+            }
+        });
+
+        assertFalse(invoker.undoLast(alice).isSuccess());
+        assertEquals(1, invoker.getUndoableCommandCount(alice));
+    }
+
+    @Test
+    void shouldExpireIdleHistories() {
+        CommandInvoker invoker = new CommandInvoker(new InMemoryCommandHistoryStore(10, Duration.ofMinutes(30), 1000, ticker));
+        invoker.execute(alice, new UndoableCommand("alice-1"));
+
+        nanos.addAndGet(Duration.ofMinutes(31).toNanos());
+
+        assertEquals(0, invoker.getUndoableCommandCount(alice));
+        assertNull(invoker.getLastUndoableCommandDescription(alice));
+    }
+
+    @Test
+    void shouldRetainBoundedHistoryAfterMillionCommands() {
+        int depth = 5;
+        int maxUsers = 1_000;
+        InMemoryCommandHistoryStore store = new InMemoryCommandHistoryStore(depth, Duration.ofMinutes(30), maxUsers, ticker);
+        CommandInvoker invoker = new CommandInvoker(store);
+        UUID[] users = new UUID[20_000];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = UUID.randomUUID();
+        }
+
+        // Keep a million per-command log lines out of the test output
+        Logger logger = (Logger) LoggerFactory.getLogger(CommandInvoker.class);
+        Level level = logger.getLevel();
+        logger.setLevel(Level.WARN);
+        long peak = 0;
+        try {
+            for (int i = 1; i <= 1_000_000; i++) {
+                invoker.execute(users[i % users.length], new UndoableCommand("command"));
+                if (i % 100_000 == 0) {
+                    peak = Math.max(peak, store.retainedCommandCount());
+                }
+            }
+        } finally {
+            logger.setLevel(level);
+        }
+
+        assertTrue(peak <= (long) depth * maxUsers, "Retained " + peak + " commands");
+    }
+
+    private static class UndoableCommand implements Command {
+
+        private final String description;
+        private boolean undone;
+
+        UndoableCommand(String description) {
+            this.description = description;
+        }
+
+        @Override
+        public CommandResult execute() {
+            return CommandResult.success("done");
+        }
+
+        @Override
+        public CommandResult undo() {
+            undone = true;
+            return CommandResult.success("undone");
+        }
+
+        @Override
+        public boolean supportsUndo() {
+            return true;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+    }
+}
\ No newline at end of file
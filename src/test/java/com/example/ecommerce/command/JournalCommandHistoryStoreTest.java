@@ -0,0 +1,196 @@
+package com.example.ecommerce.command;
+
+import com.example.ecommerce.domain.CommandJournalEntry;
+import com.example.ecommerce.enums.CommandType;
+import com.example.ecommerce.repository.CommandJournalRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for JournalCommandHistoryStore.
+ * Verifies group-committed journal writes and claiming commands for undo.
+ */
+@ExtendWith(MockitoExtension.class)
+class JournalCommandHistoryStoreTest {
+
+    @Mock
+    private CommandJournalRepository journalRepository;
+
+    @Mock
+    private CommandFactory commandFactory;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private JournalCommandHistoryStore store;
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        store = new JournalCommandHistoryStore(journalRepository, commandFactory, transactionManager,
+                new SimpleMeterRegistry(), Duration.ofMinutes(30), Duration.ofDays(7), 100, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldWriteQueuedCommandsInOneBatch() {
+        for (int i = 0; i < 3; i++) {
+            store.record(userId, command(new CommandSnapshot(CommandType.CREATE_ORDER, UUID.randomUUID(), null), true));
+        }
+
+        assertEquals(3, store.flush());
+
+        ArgumentCaptor<List<CommandJournalEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(journalRepository).saveAll(captor.capture());
+        List<CommandJournalEntry> batch = captor.getValue();
+        assertEquals(3, batch.size());
+        assertTrue(batch.stream().allMatch(entry -> entry.isUndoable() && userId.equals(entry.getUserId())));
+    }
+
+    @Test
+    void shouldJournalOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        store.record(userId, command(new CommandSnapshot(CommandType.CANCEL_ORDER, UUID.randomUUID(), "changed mind"), false));
+
+        assertEquals(0, store.flush());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, store.flush());
+    }
+
+    @Test
+    void shouldSkipCommandsWithoutSnapshot() {
+        store.record(userId, command(null, true));
+
+        assertEquals(0, store.flush());
+        verify(journalRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void shouldRehydrateClaimedCommandAndRestoreItOnFailedUndo() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        CommandJournalEntry entry = CommandJournalEntry.builder()
+                .id(42L)
+                .userId(userId)
+                .commandType(CommandType.CREATE_ORDER)
+                .undoable(true)
+                .orderId(orderId)
+                .createdAt(Instant.now())
+                .build();
+        Command rehydrated = command(null, true);
+        when(journalRepository.claimLastUndoable(eq(userId), any(), any())).thenReturn(Optional.of(entry));
+        when(commandFactory.rehydrate(userId, new CommandSnapshot(CommandType.CREATE_ORDER, orderId, null)))
+                .thenReturn(rehydrated);
+
+        Command claimed = store.claimLast(userId);
+        claimed.undo();
+        store.restore(userId, claimed);
+
+        verify(rehydrated).undo();
+        verify(journalRepository).clearUndone(42L);
+    }
+
+    @Test
+    void shouldCommitClaimAndRestoreIndependentlyOfCallerTransaction() throws Exception {
+        CommandJournalEntry entry = CommandJournalEntry.builder()
+                .id(42L)
+                .userId(userId)
+                .commandType(CommandType.CREATE_ORDER)
+                .undoable(true)
+                .orderId(UUID.randomUUID())
+                .createdAt(Instant.now())
+                .build();
+        Command rehydrated = command(null, true);
+        when(journalRepository.claimLastUndoable(eq(userId), any(), any())).thenReturn(Optional.of(entry));
+        when(commandFactory.rehydrate(eq(userId), any())).thenReturn(rehydrated);
+
+        Command claimed = store.claimLast(userId);
+        claimed.undo();
+        store.restore(userId, claimed);
+
+        // Each runs in a new transaction that commits on its own, the claim before the undo starts
+        InOrder inOrder = inOrder(transactionManager, journalRepository, rehydrated);
+        inOrder.verify(transactionManager).getTransaction(argThat(this::requiresNew));
+        inOrder.verify(journalRepository).claimLastUndoable(eq(userId), any(), any());
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(rehydrated).undo();
+        inOrder.verify(transactionManager).getTransaction(argThat(this::requiresNew));
+        inOrder.verify(journalRepository).clearUndone(42L);
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void shouldReturnNullWhenNothingToClaim() {
+        when(journalRepository.claimLastUndoable(eq(userId), any(), any())).thenReturn(Optional.empty());
+
+        assertNull(store.claimLast(userId));
+    }
+
+    @Test
+    void shouldDescribeLastUndoableCommand() {
+        UUID orderId = UUID.randomUUID();
+        CommandJournalEntry entry = CommandJournalEntry.builder()
+                .id(7L)
+                .userId(userId)
+                .commandType(CommandType.CREATE_ORDER)
+                .undoable(true)
+                .orderId(orderId)
+                .createdAt(Instant.now())
+                .build();
+        Command rehydrated = command(null, true);
+        when(journalRepository.findFirstByUserIdAndUndoableTrueAndUndoneAtIsNullAndCreatedAtAfterOrderByIdDesc(
+                eq(userId), any())).thenReturn(Optional.of(entry));
+        when(commandFactory.rehydrate(eq(userId), any())).thenReturn(rehydrated);
+
+        assertSame(rehydrated, store.peekLast(userId));
+    }
+
+    private boolean requiresNew(TransactionDefinition definition) {
+        return definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW;
+    }
+
+    private static Command command(CommandSnapshot snapshot, boolean undoable) {
+        Command command = mock(Command.class);
+        lenient().when(command.snapshot()).thenReturn(snapshot);
+        lenient().when(command.supportsUndo()).thenReturn(undoable);
+        return command;
+    }
+}
\ No newline at end of file
@@ -10,6 +10,8 @@ import com.example.ecommerce.proxy.ProductServiceContract;
 import com.example.ecommerce.repository.OrderRepository;
 import com.example.ecommerce.service.InventoryService;
 import com.example.ecommerce.service.OrderValidationService;
+import com.example.ecommerce.service.PaymentDeadlineScheduler;
+import com.example.ecommerce.validation.OrderValidationContext;
 import com.example.ecommerce.validation.ValidationResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,6 +21,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -53,9 +58,13 @@ class CreateOrderCommandTest {
     @Mock
     private OrderStatusPublisher orderStatusPublisher;
 
+    @Mock
+    private PaymentDeadlineScheduler paymentDeadlineScheduler;
+
     private CreateOrderCommand command;
     private UUID userId;
     private CreateOrderRequestDTO request;
+    private OrderValidationContext context;
     private Product testProduct;
 
     @BeforeEach
@@ -77,12 +86,14 @@ class CreateOrderCommandTest {
         request = new CreateOrderRequestDTO();
         request.setItems(Arrays.asList(itemRequest));
 
+        context = new OrderValidationContext(request, productService::findAllById, inventoryService::findAllById);
+
         command = new CreateOrderCommand(
                 orderRepository,
                 inventoryService,
-                productService,
                 orderValidationService,
                 orderStatusPublisher,
+                paymentDeadlineScheduler,
                 userId,
                 request
         );
@@ -119,7 +130,8 @@ class CreateOrderCommandTest {
     @Test
     void shouldFailWhenValidationFails() throws Exception {
         ValidationResult failedValidation = ValidationResult.failure("validation", "Invalid request");
-        when(orderValidationService.validateOrderRequest(request))
+        when(orderValidationService.createContext(request)).thenReturn(context);
+        when(orderValidationService.validateOrderRequest(context))
                 .thenReturn(failedValidation);
 
         CommandResult result = command.execute();
@@ -128,16 +140,17 @@ class CreateOrderCommandTest {
         assertTrue(result.getMessage().contains("Order validation failed"));
         assertTrue(result.getMessage().contains("Invalid request"));
         
-        verify(orderValidationService).validateOrderRequest(request);
-        verify(productService, never()).findById(any());
+        verify(orderValidationService).validateOrderRequest(context);
+        verify(productService, never()).findAllById(any());
         verify(orderRepository, never()).save(any());
     }
 
     @Test
     void shouldFailWhenProductServiceThrowsException() throws Exception {
-        when(orderValidationService.validateOrderRequest(request))
+        when(orderValidationService.createContext(request)).thenReturn(context);
+        when(orderValidationService.validateOrderRequest(context))
                 .thenReturn(ValidationResult.success("validation"));
-        when(productService.findById(testProduct.getId()))
+        when(productService.findAllById(Set.of(testProduct.getId())))
                 .thenThrow(new RuntimeException("Product not found"));
 
         CommandResult result = command.execute();
@@ -146,8 +159,8 @@ class CreateOrderCommandTest {
         assertTrue(result.getMessage().contains("Failed to create order"));
         assertNotNull(result.getError());
         
-        verify(orderValidationService).validateOrderRequest(request);
-        verify(productService).findById(testProduct.getId());
+        verify(orderValidationService).validateOrderRequest(context);
+        verify(productService).findAllById(Set.of(testProduct.getId()));
         verify(orderRepository, never()).save(any());
     }
 
@@ -211,30 +224,29 @@ class CreateOrderCommandTest {
 
     @Test
     void shouldHandleInventoryReservationFailure() throws Exception {
-        when(orderValidationService.validateOrderRequest(request))
+        when(orderValidationService.createContext(request)).thenReturn(context);
+        when(orderValidationService.validateOrderRequest(context))
                 .thenReturn(ValidationResult.success("validation"));
-        when(productService.findById(testProduct.getId()))
-                .thenReturn(testProduct);
         doThrow(new RuntimeException("Insufficient stock"))
-                .when(inventoryService).reserveStock(testProduct.getId(), 2);
+                .when(inventoryService).reserveStock(Map.of(testProduct.getId(), 2));
 
         CommandResult result = command.execute();
 
         assertFalse(result.isSuccess());
         assertTrue(result.getMessage().contains("Failed to create order"));
         
-        verify(orderValidationService).validateOrderRequest(request);
-        verify(productService).findById(testProduct.getId());
-        verify(inventoryService).reserveStock(testProduct.getId(), 2);
+        verify(orderValidationService).validateOrderRequest(context);
+        verify(inventoryService).reserveStock(Map.of(testProduct.getId(), 2));
         verify(orderRepository, never()).save(any());
     }
 
     @Test
     void shouldHandleRepositorySaveFailure() throws Exception {
-        when(orderValidationService.validateOrderRequest(request))
+        when(orderValidationService.createContext(request)).thenReturn(context);
+        when(orderValidationService.validateOrderRequest(context))
                 .thenReturn(ValidationResult.success("validation"));
-        when(productService.findById(testProduct.getId()))
-                .thenReturn(testProduct);
+        when(productService.findAllById(Set.of(testProduct.getId())))
+                .thenReturn(List.of(testProduct));
         when(orderRepository.save(any(Order.class)))
                 .thenThrow(new RuntimeException("Database error"));
 
@@ -0,0 +1,65 @@
+package com.example.ecommerce.config;
+
+import com.example.ecommerce.constants.CommonConstants;
+import com.example.ecommerce.security.JwtClaims;
+import com.example.ecommerce.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for JwtAuthenticationFilter.
+ * Verifies that only the configured administrators are granted ADMIN.
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtService jwtService;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldGrantAdminToConfiguredEmails() throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService, Set.of(" Ops@Example.com", ""));
+
+        assertEquals(Set.of("USER", "ADMIN"), authoritiesOf(filter, "ops@example.com"));
+    }
+
+    @Test
+    void shouldGrantOnlyUserToEveryoneElse() throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService, Set.of("ops@example.com"));
+
+        assertEquals(Set.of("USER"), authoritiesOf(filter, "alice@example.com"));
+    }
+
+    private Set<String> authoritiesOf(JwtAuthenticationFilter filter, String email) throws Exception {
+        when(jwtService.verify("token")).thenReturn(new JwtClaims(email, UUID.randomUUID(), Instant.now().plusSeconds(60)));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(CommonConstants.AUTH_HEADER, CommonConstants.BEARER_PREFIX + "token");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        return SecurityContextHolder.getContext().getAuthentication().getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.ecommerce.decorator;
+
+import com.example.ecommerce.decorator.NotificationServiceFactory.NotificationChannel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Unit tests for NotificationDispatcher.
+ * Drives the channel queues by hand to verify fan-out, batching, retries and dead-lettering.
+ */
+class NotificationDispatcherTest {
+
+    private static final String ADMIN = "admin@ecommerce.com";
+
+    private final Map<NotificationChannel, NotificationService> channelServices = new EnumMap<>(NotificationChannel.class);
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            channelServices.put(channel, mock(NotificationService.class));
+        }
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new NotificationDispatcher(channelServices::get, meterRegistry, channel ->
+                new NotificationDispatcher.Policy(3, channel == NotificationChannel.SLACK ? 20 : 1,
+                        Duration.ZERO, 2, Duration.ZERO, 2));
+    }
+
+    @Test
+    void shouldQueueOnEmailAndEveryRequestedChannel() {
+        dispatcher.dispatch(NotificationServiceFactory.URGENT_CHANNELS, "user@example.com", "Subject", "Body");
+
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            assertEquals(1, dispatcher.flush(channel));
+            verify(channelServices.get(channel)).sendNotification("user@example.com", "Subject", "Body");
+        }
+        assertEquals(1.0, meterRegistry.get("notifications.sent").tag("channel", "slack").counter().count());
+    }
+
+    @Test
+    void shouldSendOnlyOnRequestedChannels() {
+        dispatcher.dispatch(NotificationServiceFactory.ADMIN_CHANNELS, ADMIN, "Subject", "Body");
+
+        assertEquals(0, dispatcher.flush(NotificationChannel.SMS));
+        assertEquals(0, dispatcher.flush(NotificationChannel.PUSH));
+        verifyNoInteractions(channelServices.get(NotificationChannel.SMS), channelServices.get(NotificationChannel.PUSH));
+    }
+
+    @Test
+    void shouldCombineQueuedAlertsForTheSameRecipientIntoOnePost() {
+        dispatcher.dispatch(NotificationServiceFactory.ADMIN_CHANNELS, ADMIN, "Low Inventory Alert - Mouse", "Stock: 2");
+        dispatcher.dispatch(NotificationServiceFactory.ADMIN_CHANNELS, ADMIN, "Low Inventory Alert - Cable", "Stock: 1");
+        dispatcher.dispatch(NotificationServiceFactory.ADMIN_CHANNELS, ADMIN, "Low Inventory Alert - Dock", "Stock: 0");
+
+        assertEquals(3, dispatcher.flush(NotificationChannel.SLACK));
+
+        verify(channelServices.get(NotificationChannel.SLACK)).sendNotification(eq(ADMIN),
+                eq("3 notifications: Low Inventory Alert - Mouse"), any());
+        assertEquals(3.0, meterRegistry.get("notifications.sent").tag("channel", "slack").counter().count());
+        // Email does not batch: one message per alert
+        assertEquals(1, dispatcher.flush(NotificationChannel.EMAIL));
+    }
+
+    @Test
+    void shouldRetryThenDeadLetterFailedSends() {
+        NotificationService sms = channelServices.get(NotificationChannel.SMS);
+        doThrow(new IllegalStateException("gateway down")).when(sms).sendNotification(anyString(), anyString(), anyString());
+
+        dispatcher.dispatch(List.of(NotificationChannel.SMS), "user@example.com", "Subject", "Body");
+        dispatcher.flush(NotificationChannel.SMS);
+
+        verify(sms, times(2)).sendNotification("user@example.com", "Subject", "Body");
+        assertEquals(List.of(new Notification("user@example.com", "Subject", "Body")),
+                dispatcher.getDeadLetters(NotificationChannel.SMS));
+        assertEquals(1.0, meterRegistry.get("notifications.retries").tag("channel", "sms").counter().count());
+        assertEquals(1.0, meterRegistry.get("notifications.dead.lettered")
+                .tags("channel", "sms", "reason", "failed").counter().count());
+        assertTrue(dispatcher.getDeadLetters(NotificationChannel.EMAIL).isEmpty());
+    }
+
+    @Test
+    void shouldDeadLetterWhenQueueIsFull() {
+        for (int i = 0; i < 5; i++) {
+            dispatcher.dispatch(List.of(), "user" + i + "@example.com", "Subject", "Body");
+        }
+
+        assertEquals(3.0, meterRegistry.get("notifications.queue.size").tag("channel", "email").gauge().value());
+        // The two notifications that did not fit are dead-lettered
+        assertEquals(List.of("user3@example.com", "user4@example.com"),
+                dispatcher.getDeadLetters(NotificationChannel.EMAIL).stream().map(Notification::recipient).toList());
+        verify(channelServices.get(NotificationChannel.EMAIL), never()).sendNotification(any(), any(), any());
+    }
+}
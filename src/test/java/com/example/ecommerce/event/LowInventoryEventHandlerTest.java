@@ -0,0 +1,152 @@
+package com.example.ecommerce.event;
+
+import com.example.ecommerce.decorator.EcommerceNotificationService;
+import com.example.ecommerce.domain.Product;
+import com.example.ecommerce.proxy.ProductServiceContract;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for LowInventoryEventHandler.
+ * Verifies that events are coalesced per product, that alerted products stay quiet for the cooldown
+ * and that failed alerts are retried.
+ */
+@ExtendWith(MockitoExtension.class)
+class LowInventoryEventHandlerTest {
+
+    private static final Duration COOLDOWN = Duration.ofMinutes(15);
+
+    @Mock
+    private ProductServiceContract productService;
+
+    @Mock
+    private EcommerceNotificationService notificationService;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Product mouse = product("Mouse");
+    private final Product cable = product("Cable");
+    private SimpleMeterRegistry meterRegistry;
+    private LowInventoryEventHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // A window long enough that only the test flushes
+        handler = new LowInventoryEventHandler(productService, notificationService,
+                Duration.ofHours(1), COOLDOWN, nanos::get, meterRegistry);
+        lenient().when(productService.findAllById(any())).thenReturn(List.of(mouse, cable));
+    }
+
+    @AfterEach
+    void tearDown() {
+        handler.shutdown();
+    }
+
+    @Test
+    void shouldNotAlertBeforeWindowCloses() {
+        handler.handleLowInventoryEvent(event(mouse, 9));
+
+        verifyNoInteractions(productService, notificationService);
+    }
+
+    @Test
+    void shouldSendOneAlertPerProductWithLatestStock() {
+        handler.handleLowInventoryEvent(event(mouse, 9));
+        handler.handleLowInventoryEvent(event(mouse, 7));
+        handler.handleLowInventoryEvent(event(cable, 10));
+
+        assertEquals(2, handler.flush());
+
+        verify(notificationService).sendLowInventoryAlert(mouse, 7, 10);
+        verify(notificationService).sendLowInventoryAlert(cable, 10, 10);
+        verify(notificationService, times(2)).sendLowInventoryAlert(any(), anyInt(), anyInt());
+        verify(productService, times(1)).findAllById(any());
+        assertEquals(1.0, meterRegistry.get("inventory.low.stock.alerts").tag("outcome", "coalesced").counter().count());
+    }
+
+    @Test
+    void shouldSuppressAlertsDuringCooldown() {
+        handler.handleLowInventoryEvent(event(mouse, 9));
+        handler.flush();
+
+        handler.handleLowInventoryEvent(event(mouse, 10));
+        assertEquals(0, handler.flush());
+        verify(notificationService, never()).sendLowInventoryAlert(eq(mouse), eq(10), anyInt());
+
+        nanos.addAndGet(COOLDOWN.plusSeconds(1).toNanos());
+        handler.handleLowInventoryEvent(event(mouse, 10));
+        assertEquals(1, handler.flush());
+        verify(notificationService).sendLowInventoryAlert(mouse, 10, 10);
+        assertEquals(1.0, meterRegistry.get("inventory.low.stock.alerts").tag("outcome", "suppressed").counter().count());
+    }
+
+    @Test
+    void shouldSkipProductsThatNoLongerExist() {
+        Product deleted = product("Deleted");
+        handler.handleLowInventoryEvent(event(deleted, 3));
+
+        assertEquals(0, handler.flush());
+
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void shouldRetryAlertThatFailedToSend() {
+        doThrow(new RuntimeException("Mail server unavailable")).doNothing()
+                .when(notificationService).sendLowInventoryAlert(mouse, 9, 10);
+        handler.handleLowInventoryEvent(event(mouse, 9));
+
+        assertEquals(0, handler.flush());
+        assertEquals(1, handler.flush());
+
+        verify(notificationService, times(2)).sendLowInventoryAlert(mouse, 9, 10);
+    }
+
+    @Test
+    void shouldRetryAlertsWhenProductLookupFails() {
+        when(productService.findAllById(any()))
+                .thenThrow(new RuntimeException("Database unavailable"))
+                .thenReturn(List.of(mouse));
+        handler.handleLowInventoryEvent(event(mouse, 9));
+
+        assertEquals(0, handler.flush());
+        assertEquals(1, handler.flush());
+
+        verify(notificationService).sendLowInventoryAlert(mouse, 9, 10);
+    }
+
+    private static LowInventoryEvent event(Product product, int stock) {
+        return new LowInventoryEvent(LowInventoryEventHandlerTest.class, product.getId(), stock, 10);
+    }
+
+    private static Product product(String name) {
+        return Product.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .price(new BigDecimal("9.99"))
+                .build();
+    }
+}
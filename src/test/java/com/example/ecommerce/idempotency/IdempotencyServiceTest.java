@@ -0,0 +1,254 @@
+package com.example.ecommerce.idempotency;
+
+import com.example.ecommerce.command.CommandResult;
+import com.example.ecommerce.dto.response.PaymentResponseDTO;
+import com.example.ecommerce.enums.IdempotencyScope;
+import com.example.ecommerce.enums.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for IdempotencyService.
+ * Verifies replay of stored responses, waiting on in-flight duplicates and the database fallback,
+ * including keys claimed in one store while the other was unreachable.
+ */
+class IdempotencyServiceTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID orderId = UUID.randomUUID();
+    private final AtomicInteger payments = new AtomicInteger();
+
+    private InMemoryStore primary;
+    private InMemoryStore fallback;
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        primary = new InMemoryStore();
+        fallback = new InMemoryStore();
+        service = newService(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void shouldRunEveryTimeWithoutKey() {
+        pay(null);
+        pay(null);
+
+        assertEquals(2, payments.get());
+    }
+
+    @Test
+    void shouldReplayStoredResponseForSameKey() {
+        PaymentResponseDTO first = pay("key-1");
+        PaymentResponseDTO second = pay("key-1");
+
+        assertEquals(1, payments.get());
+        assertEquals(first, second);
+    }
+
+    @Test
+    void shouldRejectKeyReusedForDifferentRequest() {
+        pay("key-1");
+
+        IdempotencyException e = assertThrows(IdempotencyException.class, () ->
+                service.execute(IdempotencyScope.PAYMENT, userId, "key-1", Map.of("orderId", UUID.randomUUID()),
+                        PaymentResponseDTO.class, this::charge));
+
+        assertEquals(IdempotencyException.Reason.KEY_REUSED, e.getReason());
+    }
+
+    @Test
+    void shouldRejectOverlongKey() {
+        IdempotencyException e = assertThrows(IdempotencyException.class, () -> pay("k".repeat(256)));
+
+        assertEquals(IdempotencyException.Reason.INVALID_KEY, e.getReason());
+        assertEquals(0, payments.get());
+    }
+
+    @Test
+    void shouldReleaseKeyWhenOperationFails() {
+        assertThrows(IllegalStateException.class, () ->
+                service.execute(IdempotencyScope.PAYMENT, userId, "key-1", Map.of("orderId", orderId),
+                        PaymentResponseDTO.class, () -> {
+                            throw new IllegalStateException("gateway down");
+                        }));
+
+        pay("key-1");
+
+        assertEquals(1, payments.get());
+    }
+
+    @Test
+    void shouldNotStoreFailedCommand() {
+        CommandResult failed = service.executeCommand(IdempotencyScope.CREATE_ORDER, userId, "key-1", "request",
+                PaymentResponseDTO.class, () -> CommandResult.failure("Insufficient stock"));
+        CommandResult retried = service.executeCommand(IdempotencyScope.CREATE_ORDER, userId, "key-1", "request",
+                PaymentResponseDTO.class, () -> CommandResult.success(charge()));
+
+        assertFalse(failed.isSuccess());
+        assertEquals("Insufficient stock", failed.getMessage());
+        assertTrue(retried.isSuccess());
+        assertEquals(1, payments.get());
+    }
+
+    @Test
+    void shouldMakeConcurrentDuplicateWaitForFirstExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<PaymentResponseDTO> first = executor.submit(() ->
+                    service.execute(IdempotencyScope.PAYMENT, userId, "key-1", Map.of("orderId", orderId),
+                            PaymentResponseDTO.class, () -> {
+                                started.countDown();
+                                await(release);
+                                return charge();
+                            }));
+            started.await(5, TimeUnit.SECONDS);
+            Future<PaymentResponseDTO> duplicate = executor.submit(() -> pay("key-1"));
+
+            release.countDown();
+
+            assertEquals(first.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+            assertEquals(1, payments.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldGiveUpWaitingForRequestInFlightOnAnotherNode() {
+        service = newService(Duration.ofMillis(50));
+        // Another node claimed the key and has not finished
+        primary.tryBegin("PAYMENT:" + userId + ":key-1", fingerprintOfPayment(), Duration.ofSeconds(30));
+
+        IdempotencyException e = assertThrows(IdempotencyException.class, () -> pay("key-1"));
+
+        assertEquals(IdempotencyException.Reason.IN_PROGRESS, e.getReason());
+        assertEquals(0, payments.get());
+    }
+
+    @Test
+    void shouldFallBackToDatabaseWhenRedisIsDown() {
+        primary.down = true;
+
+        pay("key-1");
+        pay("key-1");
+
+        assertEquals(1, payments.get());
+        assertEquals(1, fallback.records.size());
+    }
+
+    @Test
+    void shouldReplayFromDatabaseWhenRedisGoesDownAfterFirstRequest() {
+        pay("key-1");
+        primary.down = true;
+
+        pay("key-1");
+
+        assertEquals(1, payments.get());
+    }
+
+    @Test
+    void shouldHonourKeyClaimedInDatabaseWhileRedisWasDown() {
+        service = newService(Duration.ofMillis(50));
+        // Claimed during an outage by a request that is still running
+        fallback.tryBegin("PAYMENT:" + userId + ":key-1", fingerprintOfPayment(), Duration.ofSeconds(30));
+
+        IdempotencyException e = assertThrows(IdempotencyException.class, () -> pay("key-1"));
+
+        assertEquals(IdempotencyException.Reason.IN_PROGRESS, e.getReason());
+        assertEquals(0, payments.get());
+        assertTrue(primary.records.isEmpty());
+    }
+
+    private IdempotencyService newService(Duration waitTimeout) {
+        return new IdempotencyService(primary, fallback, new ObjectMapper(),
+                Duration.ofSeconds(30), Duration.ofHours(24), waitTimeout);
+    }
+
+    private PaymentResponseDTO pay(String key) {
+        return service.execute(IdempotencyScope.PAYMENT, userId, key, Map.of("orderId", orderId),
+                PaymentResponseDTO.class, this::charge);
+    }
+
+    private PaymentResponseDTO charge() {
+        payments.incrementAndGet();
+        return new PaymentResponseDTO(orderId, OrderStatus.PAID);
+    }
+
+    private String fingerprintOfPayment() {
+        // Learn the fingerprint by letting a throwaway service store one
+        InMemoryStore probe = new InMemoryStore();
+        new IdempotencyService(probe, new InMemoryStore(), new ObjectMapper(), Duration.ofSeconds(30), Duration.ofHours(1),
+                Duration.ofSeconds(1))
+                .execute(IdempotencyScope.PAYMENT, userId, "probe", Map.of("orderId", orderId),
+                        PaymentResponseDTO.class, () -> new PaymentResponseDTO(orderId, OrderStatus.PAID));
+        return probe.records.values().iterator().next().fingerprint();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Store backed by a map; can simulate Redis being unreachable.
+     */
+    private static class InMemoryStore implements IdempotencyStore {
+
+        private final Map<String, IdempotencyRecord> records = new ConcurrentHashMap<>();
+        private volatile boolean down;
+
+        @Override
+        public boolean tryBegin(String key, String fingerprint, Duration lease) {
+            checkUp();
+            return records.putIfAbsent(key, new IdempotencyRecord(fingerprint, false, null)) == null;
+        }
+
+        @Override
+        public IdempotencyRecord find(String key) {
+            checkUp();
+            return records.get(key);
+        }
+
+        @Override
+        public void complete(String key, String fingerprint, String response, Duration retention) {
+            checkUp();
+            records.put(key, new IdempotencyRecord(fingerprint, true, response));
+        }
+
+        @Override
+        public void release(String key, String fingerprint) {
+            checkUp();
+            records.remove(key);
+        }
+
+        private void checkUp() {
+            if (down) {
+                throw new RedisConnectionFailureException("Connection refused");
+            }
+        }
+    }
+}
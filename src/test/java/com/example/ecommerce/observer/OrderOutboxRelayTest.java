@@ -0,0 +1,262 @@
+package com.example.ecommerce.observer;
+
+import com.example.ecommerce.domain.Order;
+import com.example.ecommerce.domain.OrderOutboxEvent;
+import com.example.ecommerce.enums.OrderStatus;
+import com.example.ecommerce.repository.OrderOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for OrderOutboxRelay.
+ * Verifies delivery to after-commit observers, how failed events are retried or dead-lettered,
+ * and that retries and timeouts never deliver an event to the same observer twice.
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderOutboxRelayTest {
+
+    @Mock
+    private OrderOutboxRepository outboxRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OrderOutboxRelay relay;
+
+    @AfterEach
+    void tearDown() {
+        relay.shutdown();
+    }
+
+    @Test
+    void shouldDeliverClaimedEventsAndMarkThemProcessed() {
+        RecordingObserver observer = new RecordingObserver(false);
+        relay = newRelay(List.of(observer, new RecordingObserver(DispatchMode.IN_TRANSACTION)), 5);
+        OrderOutboxEvent first = event();
+        OrderOutboxEvent second = event();
+        claims(first, second);
+
+        assertEquals(2, relay.relayBatch());
+
+        assertEquals(List.of(first.getOrderId(), second.getOrderId()),
+                observer.received.stream().map(Order::getId).toList());
+        assertNotNull(first.getProcessedAt());
+        assertNotNull(second.getProcessedAt());
+        assertEquals(2.0, meterRegistry.get("order.outbox.events").tag("outcome", "processed").counter().count());
+        verify(outboxRepository).lease(eq(List.of(first.getId(), second.getId())), any(Instant.class));
+        verify(outboxRepository).markProcessed(eq(List.of(first.getId(), second.getId())), any(Instant.class));
+        verify(outboxRepository, never()).recordFailure(any(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void shouldLetObserversPrefetchTheirShareOfTheBatch() {
+        RecordingObserver interested = new RecordingObserver(false);
+        RecordingObserver uninterested = new RecordingObserver(false) {
+            @Override
+            public boolean shouldNotify(OrderStatus oldStatus, OrderStatus newStatus) {
+                return false;
+            }
+        };
+        relay = newRelay(List.of(interested, uninterested), 5);
+        OrderOutboxEvent first = event();
+        OrderOutboxEvent second = event();
+        claims(first, second);
+
+        relay.relayBatch();
+
+        assertEquals(List.of(List.of(first.getOrderId(), second.getOrderId())),
+                interested.prefetched.stream().map(orders -> orders.stream().map(Order::getId).toList()).toList());
+        assertTrue(uninterested.prefetched.isEmpty());
+    }
+
+    @Test
+    void shouldScheduleRetryWhenObserverFails() {
+        relay = newRelay(List.of(new RecordingObserver(true)), 5);
+        OrderOutboxEvent event = event();
+        Instant before = Instant.now();
+        claims(event);
+
+        relay.relayBatch();
+
+        assertNull(event.getProcessedAt());
+        assertEquals(1, event.getAttempts());
+        assertTrue(event.getAvailableAt().isAfter(before));
+        assertTrue(event.getLastError().contains("Simulated failure"));
+        verify(outboxRepository).recordFailure(event.getId(), 1, event.getLastError(), event.getAvailableAt(), null);
+        verify(outboxRepository, never()).markProcessed(any(), any());
+    }
+
+    @Test
+    void shouldDeadLetterEventAfterMaxAttempts() {
+        relay = newRelay(List.of(new RecordingObserver(true)), 2);
+        OrderOutboxEvent event = event();
+        event.setAttempts(1);
+        claims(event);
+
+        relay.relayBatch();
+
+        assertNotNull(event.getProcessedAt());
+        assertEquals(2, event.getAttempts());
+        assertEquals(1.0, meterRegistry.get("order.outbox.events").tag("outcome", "dead").counter().count());
+        verify(outboxRepository).recordFailure(event.getId(), 2, event.getLastError(), event.getAvailableAt(),
+                event.getProcessedAt());
+    }
+
+    @Test
+    void shouldRetryOnlyTheObserversThatFailed() {
+        RecordingObserver succeeding = new RecordingObserver(false);
+        RecordingObserver failing = new FailingObserver();
+        relay = newRelay(List.of(succeeding, failing), 5);
+        OrderOutboxEvent event = event();
+        claims(event);
+
+        relay.relayBatch();
+        relay.relayBatch();
+
+        assertEquals(1, succeeding.received.size());
+        assertEquals(2, failing.attempts.get());
+        assertEquals(2, event.getAttempts());
+        assertTrue(event.isDeliveredTo("RecordingObserver"));
+        assertTrue(event.getLastError().startsWith("FailingObserver: "));
+        verify(outboxRepository, times(2)).markDeliveredTo(event.getId(), "RecordingObserver");
+        verify(outboxRepository, never()).markDeliveredTo(event.getId(), "FailingObserver");
+    }
+
+    @Test
+    void shouldCancelDeliveriesThatOverrunTheTimeout() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        OrderStatusObserver hanging = new RecordingObserver(false) {
+            @Override
+            public void onStatusChanged(Order order, OrderStatus oldStatus, OrderStatus newStatus) {
+                try {
+                    Thread.sleep(Long.MAX_VALUE);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+        };
+        relay = new OrderOutboxRelay(List.of(hanging), outboxRepository, meterRegistry, 10, 5,
+                Duration.ofSeconds(5), Duration.ofMillis(100), Duration.ofDays(7), 10, transactionManager);
+        OrderOutboxEvent event = event();
+        Instant before = Instant.now();
+        claims(event);
+
+        relay.relayBatch();
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertNull(event.getProcessedAt());
+        assertTrue(event.getLastError().contains("Delivery timed out"));
+        assertTrue(event.getAvailableAt().isAfter(before));
+    }
+
+    @Test
+    void shouldReturnZeroWhenNothingIsDue() {
+        relay = newRelay(List.of(new RecordingObserver(false)), 5);
+        claims();
+
+        assertEquals(0, relay.relayBatch());
+    }
+
+    private OrderOutboxRelay newRelay(List<OrderStatusObserver> observers, int maxAttempts) {
+        return new OrderOutboxRelay(observers, outboxRepository, meterRegistry, 10, maxAttempts,
+                Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofDays(7), 10, transactionManager);
+    }
+
+    /**
+     * Makes the repository hand out the given events on every claim.
+     */
+    private void claims(OrderOutboxEvent... events) {
+        List<UUID> ids = Arrays.stream(events).map(OrderOutboxEvent::getId).toList();
+        when(outboxRepository.claimBatch(any(Instant.class), eq(10))).thenReturn(ids);
+        if (events.length > 0) {
+            when(outboxRepository.findWithDeliveriesByIdIn(ids)).thenReturn(List.of(events));
+        }
+    }
+
+    private static OrderOutboxEvent event() {
+        Order order = Order.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .total(new BigDecimal("10.00"))
+                .build();
+        OrderOutboxEvent event = OrderOutboxEvent.of(order, OrderStatus.PENDING, OrderStatus.PAID);
+        event.setId(UUID.randomUUID());
+        return event;
+    }
+
+    private static class RecordingObserver implements OrderStatusObserver {
+
+        private final DispatchMode mode;
+        private final boolean failing;
+        private final List<Order> received = new CopyOnWriteArrayList<>();
+        private final List<List<Order>> prefetched = new CopyOnWriteArrayList<>();
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        RecordingObserver(boolean failing) {
+            this.mode = DispatchMode.AFTER_COMMIT;
+            this.failing = failing;
+        }
+
+        RecordingObserver(DispatchMode mode) {
+            this.mode = mode;
+            this.failing = true;
+        }
+
+        @Override
+        public void onStatusChanged(Order order, OrderStatus oldStatus, OrderStatus newStatus) {
+            attempts.incrementAndGet();
+            if (failing) {
+                throw new IllegalStateException("Simulated failure");
+            }
+            received.add(order);
+        }
+
+        @Override
+        public void prefetch(List<Order> orders) {
+            prefetched.add(orders);
+        }
+
+        @Override
+        public DispatchMode dispatchMode() {
+            return mode;
+        }
+    }
+
+    private static class FailingObserver extends RecordingObserver {
+
+        FailingObserver() {
+            super(true);
+        }
+    }
+}
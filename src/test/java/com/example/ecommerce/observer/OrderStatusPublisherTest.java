@@ -0,0 +1,113 @@
+package com.example.ecommerce.observer;
+
+import com.example.ecommerce.domain.Order;
+import com.example.ecommerce.domain.OrderOutboxEvent;
+import com.example.ecommerce.enums.OrderStatus;
+import com.example.ecommerce.repository.OrderOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for OrderStatusPublisher.
+ * Verifies that in-transaction observers run immediately and after-commit observers go through the outbox.
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderStatusPublisherTest {
+
+    @Mock
+    private OrderOutboxRepository outboxRepository;
+
+    private OrderStatusObserver inTransaction;
+    private OrderStatusObserver afterCommit;
+    private OrderStatusPublisher publisher;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        inTransaction = observer(DispatchMode.IN_TRANSACTION);
+        afterCommit = observer(DispatchMode.AFTER_COMMIT);
+        publisher = new OrderStatusPublisher(List.of(inTransaction, afterCommit), outboxRepository);
+
+        order = Order.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .total(new BigDecimal("99.99"))
+                .status(OrderStatus.CANCELLED)
+                .build();
+    }
+
+    @Test
+    void shouldNotifyInTransactionObserversAndRecordOutboxEvent() {
+        publisher.notifyStatusChange(order, OrderStatus.PENDING, OrderStatus.CANCELLED);
+
+        verify(inTransaction).onStatusChanged(order, OrderStatus.PENDING, OrderStatus.CANCELLED);
+        verify(afterCommit, never()).onStatusChanged(any(), any(), any());
+
+        ArgumentCaptor<OrderOutboxEvent> captor = ArgumentCaptor.forClass(OrderOutboxEvent.class);
+        verify(outboxRepository).save(captor.capture());
+        OrderOutboxEvent event = captor.getValue();
+        assertEquals(order.getId(), event.getOrderId());
+        assertEquals(order.getUserId(), event.getUserId());
+        assertEquals(OrderStatus.PENDING, event.getOldStatus());
+        assertEquals(OrderStatus.CANCELLED, event.getNewStatus());
+    }
+
+    @Test
+    void shouldNotRecordOutboxEventWhenNoAfterCommitObserverIsInterested() {
+        when(afterCommit.shouldNotify(OrderStatus.PENDING, OrderStatus.CANCELLED)).thenReturn(false);
+
+        publisher.notifyStatusChange(order, OrderStatus.PENDING, OrderStatus.CANCELLED);
+
+        verify(inTransaction).onStatusChanged(order, OrderStatus.PENDING, OrderStatus.CANCELLED);
+        verify(outboxRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldContinueWhenInTransactionObserverFails() {
+        doThrow(new IllegalStateException("boom")).when(inTransaction).onStatusChanged(any(), any(), any());
+
+        publisher.notifyStatusChange(order, OrderStatus.PENDING, OrderStatus.CANCELLED);
+
+        verify(outboxRepository).save(any(OrderOutboxEvent.class));
+    }
+
+    @Test
+    void shouldNotifyBatchAndRecordOneOutboxEventPerOrder() {
+        Order other = Order.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .total(BigDecimal.TEN)
+                .status(OrderStatus.CANCELLED)
+                .build();
+
+        publisher.notifyStatusChanges(List.of(order, other), OrderStatus.PENDING, OrderStatus.CANCELLED);
+
+        verify(inTransaction).onBulkStatusChange(List.of(order, other), OrderStatus.PENDING, OrderStatus.CANCELLED);
+        verify(outboxRepository).saveAll(argThat((List<OrderOutboxEvent> events) -> events.size() == 2));
+    }
+
+    private static OrderStatusObserver observer(DispatchMode mode) {
+        OrderStatusObserver observer = mock(OrderStatusObserver.class);
+        lenient().when(observer.dispatchMode()).thenReturn(mode);
+        lenient().when(observer.shouldNotify(any(), any())).thenReturn(true);
+        return observer;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.ecommerce.payment;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for CircuitBreaker.
+ * Drives the breaker through its states with a controllable clock.
+ */
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(4, 4, 0.5, Duration.ofSeconds(10), 2, now::get);
+
+    @Test
+    void shouldStayClosedBelowMinimumCalls() {
+        call(false);
+        call(false);
+        call(false);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void shouldOpenWhenFailureRateReachesThreshold() {
+        call(true);
+        call(true);
+        call(false);
+        call(false);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void shouldOnlyCountCallsInsideTheWindow() {
+        call(true);
+        call(false);
+        call(false);
+        call(false);
+        // Pushes the first failure out of the window
+        call(false);
+        call(true);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void shouldCloseAfterSuccessfulTrialCalls() {
+        openBreaker();
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void shouldReopenWhenTrialCallFails() {
+        openBreaker();
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+    }
+
+    private void call(boolean fails) {
+        assertTrue(breaker.tryAcquire());
+        if (fails) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.ecommerce.payment;
+
+import com.example.ecommerce.adapter.PayPalPaymentAdapter;
+import com.example.ecommerce.adapter.StripePaymentAdapter;
+import com.example.ecommerce.domain.Order;
+import com.example.ecommerce.dto.response.PaymentResponseDTO;
+import com.example.ecommerce.enums.OrderStatus;
+import com.example.ecommerce.external.PayPalPaymentGateway;
+import com.example.ecommerce.external.StripePaymentGateway;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for PaymentGatewayGuard.
+ * Runs the simulated Stripe and PayPal gateways with injected latency through the guard.
+ */
+class PaymentGatewayGuardTest {
+
+    private static final Duration SLOW = Duration.ofSeconds(5);
+    private static final Duration FAST = Duration.ofMillis(10);
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentBulkheads bulkheads;
+    private PaymentGatewayGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bulkheads = new PaymentBulkheads(meterRegistry, 4, 4);
+        guard = newGuard(policy(Duration.ofMillis(100), 1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        guard.shutdown();
+        bulkheads.shutdown();
+    }
+
+    @Test
+    void shouldTimeOutSlowProvider() {
+        StripePaymentAdapter stripe = stripe(SLOW);
+
+        long start = System.nanoTime();
+        PaymentUnavailableException e = assertThrows(PaymentUnavailableException.class,
+                () -> stripe.processPayment(pendingOrder()));
+
+        assertEquals(PaymentUnavailableException.Reason.TIMED_OUT, e.getReason());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < SLOW.toMillis() / 2);
+        assertEquals(1, meterRegistry.get("payment.gateway.calls").tags("provider", "Stripe", "outcome", "timeout")
+                .timer().count());
+    }
+
+    @Test
+    void shouldOpenBreakerAndFailFastOnceProviderKeepsTimingOut() {
+        StripePaymentAdapter stripe = stripe(SLOW);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(PaymentUnavailableException.class, () -> stripe.processPayment(pendingOrder()));
+        }
+
+        long start = System.nanoTime();
+        PaymentUnavailableException e = assertThrows(PaymentUnavailableException.class,
+                () -> stripe.processPayment(pendingOrder()));
+
+        assertEquals(PaymentUnavailableException.Reason.CIRCUIT_OPEN, e.getReason());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 50);
+        assertEquals(CircuitBreaker.State.OPEN, guard.getState("Stripe"));
+        assertEquals(CircuitBreaker.State.OPEN.ordinal(),
+                meterRegistry.get("payment.gateway.circuit.state").tag("provider", "Stripe").gauge().value());
+    }
+
+    @Test
+    void shouldKeepOtherProvidersWorkingWhileOneIsSlow() {
+        StripePaymentAdapter stripe = stripe(SLOW);
+        PayPalPaymentAdapter paypal = new PayPalPaymentAdapter(new PayPalPaymentGateway(FAST));
+        paypal.setGatewayGuard(guard);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(PaymentUnavailableException.class, () -> stripe.processPayment(pendingOrder()));
+        }
+
+        PaymentResponseDTO response = paypal.processPayment(pendingOrder());
+
+        assertNotNull(response.getOrderStatus());
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getState("PayPal"));
+    }
+
+    @Test
+    void shouldRejectWhenBulkheadIsFull() {
+        CompletableFuture<?>[] running = new CompletableFuture<?>[8];
+        for (int i = 0; i < running.length; i++) {
+            running[i] = guard.call("Stripe", () -> sleep(SLOW));
+        }
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> guard.call("Stripe", () -> "late").join());
+
+        PaymentUnavailableException cause = assertInstanceOf(PaymentUnavailableException.class, e.getCause());
+        assertEquals(PaymentUnavailableException.Reason.BUSY, cause.getReason());
+        // Let the stuck calls time out, so their threads are interrupted before the bulkheads shut down
+        CompletableFuture.allOf(running).handle((value, error) -> error).join();
+    }
+
+    @Test
+    void shouldNotCountTimeQueuedOnTheBulkheadAsProviderLatency() {
+        guard = newGuard(policy(Duration.ofMillis(300), 1));
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            // The second call waits for the first, so it only finishes after both have run
+            CompletableFuture<String> first = guard.call("Stripe", () -> sleep(Duration.ofMillis(200)), single);
+            CompletableFuture<String> second = guard.call("Stripe", () -> sleep(Duration.ofMillis(200)), single);
+
+            assertEquals("done", first.join());
+            assertEquals("done", second.join());
+            assertEquals(2, meterRegistry.get("payment.gateway.calls").tags("provider", "Stripe", "outcome", "success")
+                    .timer().count());
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldNotCountCallsCancelledWhileQueuedAgainstTheBreaker() {
+        // A single counted failure would open this breaker
+        guard = newGuard(new PaymentGatewayGuard.Policy(Duration.ofSeconds(1), 1, Duration.ofMillis(10),
+                Duration.ofMillis(50), false, 1, 1, 0.5, Duration.ofMinutes(1), 1));
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        CountDownLatch blocked = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            CompletableFuture<String> running = guard.call("Stripe", () -> {
+                await(blocked);
+                return "charged";
+            }, single);
+            CompletableFuture<String> queued = guard.call("Stripe", () -> {
+                calls.incrementAndGet();
+                return "charged";
+            }, single);
+
+            queued.cancel(false);
+            blocked.countDown();
+
+            assertEquals("charged", running.join());
+            assertEquals(0, calls.get());
+            assertEquals(CircuitBreaker.State.CLOSED, guard.getState("Stripe"));
+            assertEquals(0, meterRegistry.get("payment.gateway.calls").tags("provider", "Stripe", "outcome", "timeout")
+                    .timer().count());
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRetryFailedCallWithBackoff() {
+        guard = newGuard(policy(Duration.ofSeconds(1), 3));
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = guard.call("Stripe", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new IllegalCallerException("connection reset");
+            }
+            return "charged";
+        }).join();
+
+        assertEquals("charged", result);
+        assertEquals(3, calls.get());
+        assertEquals(2, meterRegistry.get("payment.gateway.retries").tag("provider", "Stripe").counter().count());
+    }
+
+    @Test
+    void shouldNotRetryTimeoutsByDefault() {
+        guard = newGuard(policy(Duration.ofMillis(50), 3));
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(CompletionException.class, () -> guard.call("Stripe", () -> {
+            calls.incrementAndGet();
+            return sleep(SLOW);
+        }).join());
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shouldPassRequestRejectionsThroughWithoutRetrying() {
+        guard = newGuard(policy(Duration.ofSeconds(1), 3));
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletionException e = assertThrows(CompletionException.class, () -> guard.call("Stripe", () -> {
+            calls.incrementAndGet();
+            throw new IllegalArgumentException("amount exceeds limit");
+        }).join());
+
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        assertEquals(1, calls.get());
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getState("Stripe"));
+    }
+
+    private PaymentGatewayGuard newGuard(PaymentGatewayGuard.Policy policy) {
+        if (guard != null) {
+            guard.shutdown();
+        }
+        return new PaymentGatewayGuard(bulkheads, meterRegistry, provider -> policy);
+    }
+
+    private static PaymentGatewayGuard.Policy policy(Duration timeout, int maxAttempts) {
+        return new PaymentGatewayGuard.Policy(timeout, maxAttempts, Duration.ofMillis(10), Duration.ofMillis(50),
+                false, 4, 4, 0.5, Duration.ofMinutes(1), 1);
+    }
+
+    private StripePaymentAdapter stripe(Duration latency) {
+        StripePaymentAdapter stripe = new StripePaymentAdapter(new StripePaymentGateway(latency));
+        stripe.setGatewayGuard(guard);
+        return stripe;
+    }
+
+    private static Order pendingOrder() {
+        return Order.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .total(new BigDecimal("49.99"))
+                .status(OrderStatus.PENDING)
+                .items(new ArrayList<>())
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.ecommerce.proxy;
+
+import com.example.ecommerce.domain.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the product cache codecs.
+ * Focuses on the binary format, using the JSON codec as the reference.
+ */
+class ProductCacheCodecTest {
+
+    private final BinaryProductCacheCodec binary = new BinaryProductCacheCodec();
+    private final JsonProductCacheCodec json = new JsonProductCacheCodec(new ObjectMapper());
+
+    private final Product product = new Product(UUID.randomUUID(), "Laptop – 15\"", "High-performance laptop",
+            new BigDecimal("999.99"));
+
+    @Test
+    void shouldRoundTripProduct() {
+        assertEquals(product, binary.decode(binary.encode(product)));
+    }
+
+    @Test
+    void shouldRoundTripNullFieldsAndPriceScale() {
+        Product sparse = new Product(UUID.randomUUID(), "Sparse", null, new BigDecimal("10.500"));
+        Product noPrice = new Product(UUID.randomUUID(), null, null, null);
+
+        Product decoded = binary.decode(binary.encode(sparse));
+
+        assertEquals(sparse, decoded);
+        assertEquals(3, decoded.getPrice().scale());
+        assertEquals(noPrice, binary.decode(binary.encode(noPrice)));
+    }
+
+    @Test
+    void shouldRoundTripList() {
+        List<Product> products = List.of(product, new Product(UUID.randomUUID(), "Mouse", "Wireless mouse",
+                new BigDecimal("29.99")));
+
+        assertEquals(products, binary.decodeList(binary.encodeList(products)));
+        assertEquals(List.of(), binary.decodeList(binary.encodeList(List.of())));
+    }
+
+    @Test
+    void shouldBeSmallerThanJson() {
+        List<Product> products = List.of(product, product, product);
+
+        assertTrue(binary.encode(product).length < json.encode(product).length);
+        assertTrue(binary.encodeList(products).length < json.encodeList(products).length);
+    }
+
+    @Test
+    void shouldRejectEntriesWrittenByJsonCodec() {
+        assertThrows(SerializationException.class, () -> binary.decode(json.encode(product)));
+        assertThrows(SerializationException.class, () -> binary.decodeList(json.encodeList(List.of(product))));
+    }
+
+    @Test
+    void shouldRejectTruncatedOrCorruptEntries() {
+        byte[] encoded = binary.encode(product);
+
+        assertThrows(SerializationException.class, () -> binary.decode(Arrays.copyOf(encoded, encoded.length - 3)));
+        assertThrows(SerializationException.class, () -> binary.decode(Arrays.copyOf(encoded, encoded.length + 1)));
+        assertThrows(SerializationException.class, () -> binary.decode("garbage".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void shouldRejectPricesThatDoNotFitInLong() {
+        Product huge = new Product(UUID.randomUUID(), "Huge", null, new BigDecimal("1e30").setScale(2));
+
+        assertThrows(SerializationException.class, () -> binary.encode(huge));
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.ecommerce.proxy;
+
+import com.example.ecommerce.domain.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the two-tier ProductServiceCachingProxy.
+ * Redis is mocked; the in-process tier is real.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductServiceCachingProxyTest {
+
+    private static final String CHANNEL = "products:invalidate";
+
+    @Mock
+    private ProductServiceContract delegate;
+
+    @Mock
+    private RedisTemplate<String, byte[]> redisTemplate;
+
+    @Mock
+    private RedisTemplate<String, String> pubSubTemplate;
+
+    @Mock
+    private ValueOperations<String, byte[]> valueOperations;
+
+    private final ProductCacheCodec codec = new BinaryProductCacheCodec();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ProductNearCache nearCache;
+    private ProductServiceCachingProxy proxy;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        nearCache = new ProductNearCache(pubSubTemplate, CHANNEL, 100, Duration.ofMinutes(1), meterRegistry);
+        proxy = new ProductServiceCachingProxy(delegate, redisTemplate, codec, nearCache, meterRegistry, 1.0);
+
+        product = Product.builder()
+                .id(UUID.randomUUID())
+                .name("Test Product")
+                .price(new BigDecimal("99.99"))
+                .build();
+    }
+
+    @Test
+    void shouldServeRepeatedLookupsFromNearCache() throws Exception {
+        stubRedisRead(codec.encode(product), Duration.ofMinutes(30).toMillis());
+
+        proxy.findById(product.getId());
+        Product second = proxy.findById(product.getId());
+
+        assertEquals(product, second);
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+        assertEquals(1, meterRegistry.get("product.cache.lookup").tag("tier", "l1").timer().count());
+        assertEquals(1, meterRegistry.get("product.cache.lookup").tag("tier", "l2").timer().count());
+    }
+
+    @Test
+    void shouldReturnCopiesFromNearCache() {
+        nearCache.put(product);
+
+        Product cached = proxy.findById(product.getId());
+        cached.setName("Mutated");
+
+        assertNotSame(cached, proxy.findById(product.getId()));
+        assertEquals("Test Product", proxy.findById(product.getId()).getName());
+    }
+
+    @Test
+    void shouldPublishInvalidationOnUpdate() {
+        nearCache.put(product);
+        Product updated = Product.builder()
+                .id(product.getId())
+                .name("Renamed")
+                .price(product.getPrice())
+                .build();
+        when(delegate.update(product.getId(), updated)).thenReturn(updated);
+
+        proxy.update(product.getId(), updated);
+
+        verify(pubSubTemplate).convertAndSend(eq(CHANNEL), any(String.class));
+        assertEquals("Renamed", nearCache.get(product.getId()).getName());
+    }
+
+    @Test
+    void shouldEvictOnRemoteInvalidation() {
+        nearCache.put(product);
+
+        String body = "other-node|" + product.getId();
+        nearCache.onMessage(new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8)), null);
+
+        assertNull(nearCache.get(product.getId()));
+    }
+
+    @Test
+    void shouldCoalesceConcurrentMissesIntoOneLoad() throws Exception {
+        stubRedisRead(null, -2L);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.findById(product.getId())).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return product;
+        });
+
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<Product>> results = new ArrayList<>();
+        results.add(executor.submit(() -> proxy.findById(product.getId())));
+        loading.await(5, TimeUnit.SECONDS);
+        for (int i = 1; i < callers; i++) {
+            results.add(executor.submit(() -> proxy.findById(product.getId())));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<Product> result : results) {
+            assertEquals(product.getId(), result.get(5, TimeUnit.SECONDS).getId());
+        }
+        executor.shutdown();
+
+        verify(delegate, times(1)).findById(product.getId());
+    }
+
+    @Test
+    void shouldRefreshListAheadOfExpiryOnceLoadTimeIsKnown() throws Exception {
+        List<Product> products = List.of(product);
+        byte[] encoded = codec.encodeList(products);
+        when(delegate.findAll()).thenReturn(products);
+
+        // First read misses and records how long a load takes
+        stubRedisRead(null, -2L);
+        proxy.findAll();
+
+        // An entry with no time left must be refreshed, one with plenty must not
+        stubRedisRead(encoded, 0L);
+        proxy.findAll();
+        stubRedisRead(encoded, Duration.ofMinutes(5).toMillis());
+        proxy.findAll();
+
+        verify(delegate, times(2)).findAll();
+    }
+
+    @Test
+    void shouldNotRefreshEarlyWhenDisabled() throws Exception {
+        proxy = new ProductServiceCachingProxy(delegate, redisTemplate, codec, nearCache, meterRegistry, 0);
+        stubRedisRead(codec.encodeList(List.of(product)), 0L);
+
+        proxy.findAll();
+
+        verify(delegate, never()).findAll();
+    }
+
+    @Test
+    void shouldCachePagesUnderCurrentCatalogueVersion() throws Exception {
+        when(valueOperations.get("products:version")).thenReturn("7".getBytes(StandardCharsets.UTF_8));
+        stubRedisRead(null, -2L);
+        when(delegate.findPage(null, 51)).thenReturn(List.of(product));
+
+        proxy.findPage(null, 51);
+
+        verify(valueOperations).set(eq("products:page:7:first:51"), any(byte[].class), eq(Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void shouldRetireCachedPagesWhenCatalogueChanges() {
+        when(delegate.update(product.getId(), product)).thenReturn(product);
+
+        proxy.update(product.getId(), product);
+
+        verify(valueOperations).increment("products:version");
+    }
+
+    private void stubRedisRead(byte[] value, long ttlMillis) {
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(Arrays.asList((Object) value, ttlMillis));
+    }
+}
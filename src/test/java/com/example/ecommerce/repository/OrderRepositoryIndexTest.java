@@ -0,0 +1,179 @@
+package com.example.ecommerce.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Query plan tests for the OrderRepository access paths against a real PostgreSQL instance.
+ * Seeds a realistic mix of orders, analyzes the tables, runs each repository method and
+ * checks with EXPLAIN that the SQL it issued is served by its index instead of a sequential
+ * scan. Plans are generic, as for the server-side prepared statements the driver switches to.
+ * Skipped automatically when Docker is not available.
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.change-log=classpath:db/changelog/dev/db.changelog-dev.yaml",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.ecommerce.repository.OrderRepositoryIndexTest$RecordingStatementInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class OrderRepositoryIndexTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-000000000042");
+
+    // The default app.orders.unpaid-timeout-minutes
+    private static final Duration UNPAID_TIMEOUT = Duration.ofMinutes(60);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    void seed() {
+        // 20k orders for 500 users: 1% pending, 9% cancelled, the rest paid, one per minute
+        execute("""
+                INSERT INTO orders (id, user_id, total, status, created_at)
+                SELECT gen_random_uuid(),
+                       CAST('00000000-0000-0000-0000-' || lpad(CAST(g % 500 AS text), 12, '0') AS uuid),
+                       10.00,
+                       CASE WHEN g % 100 = 0 THEN 'PENDING' WHEN g % 10 = 0 THEN 'CANCELLED' ELSE 'PAID' END,
+                       now() - g * interval '1 minute'
+                  FROM generate_series(1, 20000) g
+                """);
+        execute("""
+                INSERT INTO order_items (id, order_id, product_id, quantity, price)
+                SELECT gen_random_uuid(), o.id, gen_random_uuid(), 1, 10.00
+                  FROM orders o, generate_series(1, 3)
+                """);
+        execute("ANALYZE orders");
+        execute("ANALYZE order_items");
+    }
+
+    @Test
+    void findByUserIdShouldUseUserIndex() {
+        String plan = planOf(() -> orderRepository.findByUserId(USER_ID), USER_ID);
+
+        assertUsesIndex(plan, "idx_orders_user_created");
+    }
+
+    @Test
+    void findHistoryShouldUseUserIndex() {
+        String plan = planOf(() -> orderRepository.findHistory(USER_ID, Limit.of(20)), USER_ID, 20);
+
+        assertUsesIndex(plan, "idx_orders_user_created");
+    }
+
+    @Test
+    void findHistoryAfterShouldSeekUserIndexToCursor() {
+        Instant cursorCreatedAt = Instant.now().minus(Duration.ofDays(7));
+        UUID cursorId = UUID.randomUUID();
+
+        String plan = planOf(() -> orderRepository.findHistoryAfter(USER_ID, cursorCreatedAt, cursorId, Limit.of(20)),
+                USER_ID, cursorCreatedAt, cursorCreatedAt, cursorId, 20);
+
+        assertUsesIndex(plan, "idx_orders_user_created");
+        // The cursor bounds the index scan rather than filtering the rows it returns
+        assertTrue(plan.matches("(?s).*Index Cond: .*created_at <= .*"), () -> "Expected a range seek in plan:\n" + plan);
+    }
+
+    @Test
+    void claimPendingCreatedBeforeShouldUsePartialPendingIndex() {
+        Instant cutoff = Instant.now().minus(UNPAID_TIMEOUT);
+
+        String plan = planOf(() -> orderRepository.claimPendingCreatedBefore(cutoff, 500), cutoff, 500);
+
+        assertUsesIndex(plan, "idx_orders_pending_created");
+    }
+
+    @Test
+    void findItemViewsByOrderIdInShouldUseOrderIdIndex() {
+        UUID orderId = UUID.fromString(String.valueOf(
+                entityManager.createNativeQuery("SELECT CAST(id AS text) FROM orders LIMIT 1").getSingleResult()));
+
+        String plan = planOf(() -> orderRepository.findItemViewsByOrderIdIn(List.of(orderId)), orderId);
+
+        assertUsesIndex(plan, "idx_order_items_order_id");
+    }
+
+    /**
+     * Runs a repository method, then explains the statement it issued with the given parameter values.
+     */
+    private String planOf(Runnable repositoryCall, Object... parameters) {
+        RecordingStatementInspector.STATEMENTS.clear();
+        repositoryCall.run();
+        String sql = RecordingStatementInspector.STATEMENTS.get(RecordingStatementInspector.STATEMENTS.size() - 1);
+
+        StringBuilder numbered = new StringBuilder();
+        int count = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++count);
+            } else {
+                numbered.append(c);
+            }
+        }
+
+        execute("SET LOCAL plan_cache_mode = force_generic_plan");
+        execute("PREPARE repository_query AS " + numbered);
+        try {
+            String arguments = Arrays.stream(parameters)
+                    .map(parameter -> "'" + parameter + "'")
+                    .collect(Collectors.joining(", ", "(", ")"));
+            List<?> lines = entityManager.createNativeQuery("EXPLAIN EXECUTE repository_query"
+                    + (count == 0 ? "" : arguments)).getResultList();
+            return lines.stream().map(String::valueOf).collect(Collectors.joining("\n"));
+        } finally {
+            execute("DEALLOCATE repository_query");
+        }
+    }
+
+    private void execute(String sql) {
+        entityManager.createNativeQuery(sql).executeUpdate();
+    }
+
+    private static void assertUsesIndex(String plan, String indexName) {
+        assertTrue(plan.contains(indexName), () -> "Expected " + indexName + " in plan:\n" + plan);
+        assertFalse(plan.contains("Seq Scan"), () -> "Unexpected sequential scan in plan:\n" + plan);
+    }
+
+    /**
+     * Records every statement Hibernate sends, so tests can explain exactly what a repository method ran.
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.example.ecommerce.security;
+
+import com.example.ecommerce.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for OrderOwnershipValidator.
+ * Verifies the owner lookup and its cache.
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderOwnershipValidatorTest {
+
+    @Mock
+    private OrderService orderService;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final UUID userId = UUID.randomUUID();
+    private final UUID orderId = UUID.randomUUID();
+
+    private OrderOwnershipValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        validator = new OrderOwnershipValidator(orderService, Duration.ofMinutes(10), 100, nanos::get);
+    }
+
+    @Test
+    void shouldAcceptOwnerWithoutLoadingOrder() {
+        when(orderService.findOwnerId(orderId)).thenReturn(Optional.of(userId));
+
+        assertTrue(validator.validateOwnership(userId, orderId));
+        verify(orderService, never()).getById(orderId);
+        verify(orderService, never()).findById(orderId);
+    }
+
+    @Test
+    void shouldRejectOtherUser() {
+        when(orderService.findOwnerId(orderId)).thenReturn(Optional.of(userId));
+
+        assertFalse(validator.validateOwnership(UUID.randomUUID(), orderId));
+    }
+
+    @Test
+    void shouldServeRepeatedChecksFromCacheUntilTtl() {
+        when(orderService.findOwnerId(orderId)).thenReturn(Optional.of(userId));
+
+        validator.validateOwnership(userId, orderId);
+        validator.validateOwnership(userId, orderId);
+        verify(orderService, times(1)).findOwnerId(orderId);
+
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+        validator.validateOwnership(userId, orderId);
+        verify(orderService, times(2)).findOwnerId(orderId);
+    }
+
+    @Test
+    void shouldThrowForUnknownOrderWithoutCachingIt() {
+        when(orderService.findOwnerId(orderId)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> validator.validateOwnership(userId, orderId));
+        assertThrows(ResourceNotFoundException.class, () -> validator.validateOwnership(userId, orderId));
+        verify(orderService, times(2)).findOwnerId(orderId);
+    }
+}
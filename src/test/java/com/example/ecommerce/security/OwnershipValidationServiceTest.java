@@ -0,0 +1,72 @@
+package com.example.ecommerce.security;
+
+import com.example.ecommerce.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for OwnershipValidationService.
+ * Verifies that the user ID comes from the filter's authentication when it matches the header.
+ */
+@ExtendWith(MockitoExtension.class)
+class OwnershipValidationServiceTest {
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private OrderOwnershipValidator orderOwnershipValidator;
+
+    @InjectMocks
+    private OwnershipValidationService ownershipValidationService;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldTakeUserIdFromAuthenticatedRequest() {
+        authenticate("header.payload.signature");
+
+        assertEquals(userId, ownershipValidationService.extractUserIdFromToken("Bearer header.payload.signature"));
+        verifyNoInteractions(jwtService);
+    }
+
+    @Test
+    void shouldVerifyTokenThatDiffersFromAuthenticatedOne() {
+        UUID otherUserId = UUID.randomUUID();
+        authenticate("header.payload.signature");
+        when(jwtService.extractUserId("other.payload.signature")).thenReturn(otherUserId);
+
+        assertEquals(otherUserId, ownershipValidationService.extractUserIdFromToken("Bearer other.payload.signature"));
+    }
+
+    @Test
+    void shouldVerifyTokenWithoutAuthentication() {
+        when(jwtService.extractUserId("header.payload.signature")).thenReturn(userId);
+
+        assertEquals(userId, ownershipValidationService.extractUserIdFromToken("Bearer header.payload.signature"));
+    }
+
+    private void authenticate(String token) {
+        JwtClaims claims = JwtClaims.of(userId.toString(), Instant.now().plusSeconds(60));
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthentication(
+                User.withUsername(userId.toString()).password("").authorities("USER").build(), token, claims));
+    }
+}
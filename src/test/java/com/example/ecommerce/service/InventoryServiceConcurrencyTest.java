@@ -0,0 +1,241 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.domain.Inventory;
+import com.example.ecommerce.repository.InventoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrency tests for InventoryService stock reservation against a real PostgreSQL instance.
+ * Hammers a single product from many threads and verifies that stock is never oversold.
+ * Skipped automatically when Docker is not available.
+ */
+@DataJpaTest(properties = "spring.liquibase.change-log=classpath:db/changelog/dev/db.changelog-dev.yaml")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(InventoryService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Slf4j
+class InventoryServiceConcurrencyTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void shouldNeverOversellUnderConcurrentReservations() throws Exception {
+        UUID productId = UUID.randomUUID();
+        int initialStock = 100;
+        inventoryService.createInventory(productId, initialStock);
+
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(THREADS, 20, () -> {
+            try {
+                inventoryService.reserveStock(productId, 1);
+                reserved.incrementAndGet();
+            } catch (RuntimeException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(initialStock, reserved.get());
+        assertEquals(THREADS * 20 - initialStock, rejected.get());
+        assertEquals(0, inventoryService.findById(productId).getAvailable());
+    }
+
+    @Test
+    void shouldReleaseStockAtomically() throws Exception {
+        UUID productId = UUID.randomUUID();
+        inventoryService.createInventory(productId, 0);
+
+        runConcurrently(THREADS, 10, () -> inventoryService.releaseStock(productId, 1));
+
+        assertEquals(THREADS * 10, inventoryService.findById(productId).getAvailable());
+    }
+
+    @Test
+    void shouldRejectReservationForUnknownProduct() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> inventoryService.reserveStock(UUID.randomUUID(), 1));
+
+        assertTrue(e.getMessage().startsWith("No inventory for product"));
+    }
+
+    @Test
+    void shouldReserveAllLinesOrNothing() {
+        UUID plenty = UUID.randomUUID();
+        UUID scarce = UUID.randomUUID();
+        inventoryService.createInventory(plenty, 5);
+        inventoryService.createInventory(scarce, 1);
+
+        Map<UUID, Integer> cart = new LinkedHashMap<>();
+        cart.put(plenty, 2);
+        cart.put(scarce, 2);
+
+        assertThrows(RuntimeException.class, () -> inventoryService.reserveStock(cart));
+
+        assertEquals(5, inventoryService.findById(plenty).getAvailable());
+        assertEquals(1, inventoryService.findById(scarce).getAvailable());
+    }
+
+    @Test
+    void shouldNotDeadlockOnOverlappingCarts() throws Exception {
+        List<UUID> products = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            UUID productId = UUID.randomUUID();
+            inventoryService.createInventory(productId, 10_000);
+            products.add(productId);
+        }
+
+        int iterations = 20;
+        runConcurrently(THREADS, iterations, () -> {
+            // Every thread submits the same products in a different order
+            List<UUID> shuffled = new ArrayList<>(products);
+            Collections.shuffle(shuffled);
+            Map<UUID, Integer> cart = new LinkedHashMap<>();
+            shuffled.forEach(productId -> cart.put(productId, 1));
+            inventoryService.reserveStock(cart);
+        });
+
+        for (UUID productId : products) {
+            assertEquals(10_000 - THREADS * iterations, inventoryService.findById(productId).getAvailable());
+        }
+    }
+
+    /**
+     * Logs bulk reservation latency for growing cart sizes; it should stay roughly flat.
+     */
+    @Test
+    void shouldKeepBulkReservationLatencyFlatAsCartGrows() {
+        for (int cartSize : new int[]{1, 10, 50}) {
+            Map<UUID, Integer> cart = new LinkedHashMap<>();
+            for (int i = 0; i < cartSize; i++) {
+                UUID productId = UUID.randomUUID();
+                inventoryService.createInventory(productId, 1_000);
+                cart.put(productId, 1);
+            }
+
+            int rounds = 100;
+            long started = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                inventoryService.reserveStock(cart);
+            }
+            long avgMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started) / rounds;
+
+            log.info("Bulk reservation of {} lines: {} us per order", cartSize, avgMicros);
+        }
+    }
+
+    /**
+     * Compares the atomic reservation against the previous read-modify-write path.
+     * Results are logged rather than asserted, since absolute numbers depend on the host.
+     */
+    @Test
+    void shouldCompareThroughputWithReadModifyWriteReservation() throws Exception {
+        int operationsPerThread = 50;
+        int totalOperations = THREADS * operationsPerThread;
+
+        UUID atomicProduct = UUID.randomUUID();
+        inventoryService.createInventory(atomicProduct, totalOperations);
+        long atomicNanos = runConcurrently(THREADS, operationsPerThread,
+                () -> inventoryService.reserveStock(atomicProduct, 1));
+
+        UUID legacyProduct = UUID.randomUUID();
+        inventoryService.createInventory(legacyProduct, totalOperations);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        AtomicInteger legacySuccesses = new AtomicInteger();
+        long legacyNanos = runConcurrently(THREADS, operationsPerThread, () -> tx.executeWithoutResult(status -> {
+            Inventory inv = inventoryRepository.findById(legacyProduct).orElseThrow();
+            if (inv.getAvailable() >= 1) {
+                inv.setAvailable(inv.getAvailable() - 1);
+                inventoryRepository.save(inv);
+                legacySuccesses.incrementAndGet();
+            }
+        }));
+
+        int atomicLeft = inventoryService.findById(atomicProduct).getAvailable();
+        int legacyLeft = inventoryService.findById(legacyProduct).getAvailable();
+        int legacyOversold = legacySuccesses.get() - (totalOperations - legacyLeft);
+
+        log.info("Atomic reservation: {} ops in {} ms ({} ops/s), stock left {}",
+                totalOperations, TimeUnit.NANOSECONDS.toMillis(atomicNanos),
+                opsPerSecond(totalOperations, atomicNanos), atomicLeft);
+        log.info("Read-modify-write reservation: {} ops in {} ms ({} ops/s), stock left {}, oversold {}",
+                totalOperations, TimeUnit.NANOSECONDS.toMillis(legacyNanos),
+                opsPerSecond(totalOperations, legacyNanos), legacyLeft, legacyOversold);
+
+        assertEquals(0, atomicLeft);
+    }
+
+    private long runConcurrently(int threads, int iterations, Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < iterations; i++) {
+                    task.run();
+                }
+                return null;
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long elapsed = System.nanoTime() - started;
+
+        executor.shutdown();
+        return elapsed;
+    }
+
+    private long opsPerSecond(int operations, long nanos) {
+        return operations * TimeUnit.SECONDS.toNanos(1) / Math.max(nanos, 1);
+    }
+}
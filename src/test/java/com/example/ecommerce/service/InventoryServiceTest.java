@@ -0,0 +1,112 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.event.LowInventoryEvent;
+import com.example.ecommerce.repository.InventoryRepository;
+import com.example.ecommerce.repository.InventoryRepository.StockLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for InventoryService.
+ * Verifies that low inventory events are published only by the reservation that crosses the threshold.
+ */
+@ExtendWith(MockitoExtension.class)
+class InventoryServiceTest {
+
+    private static final int THRESHOLD = 10;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private InventoryService inventoryService;
+
+    private final UUID mouse = UUID.randomUUID();
+    private final UUID cable = UUID.randomUUID();
+    private final UUID adapter = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(inventoryService, "lowStockThreshold", THRESHOLD);
+    }
+
+    @Test
+    void shouldPublishLowInventoryEventWhenReservationReachesThreshold() {
+        // 15 in stock, reserving 5 leaves exactly the threshold
+        when(inventoryRepository.decrementAvailable(mouse, 5)).thenReturn(Optional.of(10));
+
+        assertEquals(10, inventoryService.reserveStock(mouse, 5));
+
+        ArgumentCaptor<LowInventoryEvent> event = ArgumentCaptor.forClass(LowInventoryEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(mouse, event.getValue().getProductId());
+        assertEquals(10, event.getValue().getCurrentStock());
+        assertEquals(THRESHOLD, event.getValue().getThreshold());
+    }
+
+    @Test
+    void shouldNotPublishWhenStockWasAlreadyBelowThreshold() {
+        // 8 in stock, already alerted when it went below the threshold
+        when(inventoryRepository.decrementAvailable(mouse, 3)).thenReturn(Optional.of(5));
+
+        assertEquals(5, inventoryService.reserveStock(mouse, 3));
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldPublishOnlyForProductsThatCrossThresholdInBulkReservation() {
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(mouse, 5);
+        quantities.put(cable, 2);
+        quantities.put(adapter, 1);
+        when(inventoryRepository.decrementAvailableAll(mouse + "," + cable + "," + adapter, "5,2,1"))
+                .thenReturn(List.of(
+                        new Level(mouse, 7),    // 12 -> 7 crosses
+                        new Level(cable, 28),   // 30 -> 28 stays above
+                        new Level(adapter, 5)   // 6 -> 5 was already below
+                ));
+
+        Map<UUID, Integer> levels = inventoryService.reserveStock(quantities);
+
+        assertEquals(Map.of(mouse, 7, cable, 28, adapter, 5), levels);
+        ArgumentCaptor<LowInventoryEvent> event = ArgumentCaptor.forClass(LowInventoryEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(mouse, event.getValue().getProductId());
+        assertEquals(7, event.getValue().getCurrentStock());
+    }
+
+    private record Level(UUID productId, int available) implements StockLevel {
+
+        @Override
+        public UUID getProductId() {
+            return productId;
+        }
+
+        @Override
+        public int getAvailable() {
+            return available;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.security.JwtClaims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for JwtService.
+ * Verifies token round trips and the cache of verified claims.
+ */
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-that-is-at-least-32-bytes-long";
+
+    private JwtService jwtService;
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        jwtService = newService(3_600_000);
+    }
+
+    @Test
+    void shouldExtractUserIdFromGeneratedToken() {
+        String token = jwtService.generateToken(userId.toString());
+
+        assertEquals(userId, jwtService.extractUserId(token));
+        assertEquals(userId.toString(), jwtService.extractSubject(token));
+    }
+
+    @Test
+    void shouldReuseVerifiedClaimsForSameToken() {
+        String token = jwtService.generateToken(userId.toString());
+
+        JwtClaims first = jwtService.verify(token);
+        JwtClaims second = jwtService.verify(token);
+
+        assertSame(first, second);
+        assertEquals(userId, second.userId());
+    }
+
+    @Test
+    void shouldNotAcceptCachedSignatureWithDifferentPayload() {
+        String token = jwtService.generateToken(userId.toString());
+        jwtService.verify(token);
+
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                ("{\"sub\":\"" + UUID.randomUUID() + "\",\"exp\":4102444800}").getBytes(StandardCharsets.UTF_8));
+        String forged = parts[0] + "." + forgedPayload + "." + parts[2];
+
+        assertThrows(JwtException.class, () -> jwtService.verify(forged));
+    }
+
+    @Test
+    void shouldRejectExpiredToken() {
+        String token = newService(-1000).generateToken(userId.toString());
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verify(token));
+    }
+
+    @Test
+    void shouldRejectTokenSignedWithAnotherKey() {
+        JwtService other = new JwtService("another-secret-that-is-at-least-32-bytes", 3_600_000, 100,
+                new SimpleMeterRegistry());
+        other.init();
+        String token = other.generateToken(userId.toString());
+
+        assertThrows(JwtException.class, () -> jwtService.verify(token));
+    }
+
+    private static JwtService newService(long expiration) {
+        JwtService service = new JwtService(SECRET, expiration, 100, new SimpleMeterRegistry());
+        service.init();
+        return service;
+    }
+}
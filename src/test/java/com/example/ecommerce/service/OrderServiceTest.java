@@ -0,0 +1,108 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.command.CommandFactory;
+import com.example.ecommerce.command.CommandInvoker;
+import com.example.ecommerce.dto.projection.OrderItemView;
+import com.example.ecommerce.dto.projection.OrderSummaryView;
+import com.example.ecommerce.dto.response.OrderPageResponseDTO;
+import com.example.ecommerce.enums.OrderStatus;
+import com.example.ecommerce.observer.OrderStatusPublisher;
+import com.example.ecommerce.repository.OrderRepository;
+import com.example.ecommerce.state.OrderStateManager;
+import com.example.ecommerce.util.OrderCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for OrderService.
+ * Verifies the paginated order history.
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderStateManager orderStateManager;
+
+    @Mock
+    private OrderStatusPublisher statusPublisher;
+
+    @Mock
+    private CommandFactory commandFactory;
+
+    @Mock
+    private CommandInvoker commandInvoker;
+
+    @InjectMocks
+    private OrderService orderService;
+
+    private final UUID userId = UUID.randomUUID();
+    private final Instant now = Instant.parse("2025-01-01T12:00:00Z");
+
+    @Test
+    void shouldReturnFirstPageWithItemsAndNextCursor() {
+        OrderSummaryView newest = summary(now);
+        OrderSummaryView older = summary(now.minusSeconds(60));
+        OrderSummaryView oldest = summary(now.minusSeconds(120));
+        when(orderRepository.findHistory(userId, Limit.of(3))).thenReturn(List.of(newest, older, oldest));
+        when(orderRepository.findItemViewsByOrderIdIn(List.of(newest.id(), older.id()))).thenReturn(List.of(
+                new OrderItemView(newest.id(), UUID.randomUUID(), 2, BigDecimal.TEN),
+                new OrderItemView(newest.id(), UUID.randomUUID(), 1, BigDecimal.ONE)));
+
+        OrderPageResponseDTO page = orderService.getOrderHistory(userId, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(newest.id(), page.getItems().get(0).getId());
+        assertEquals(2, page.getItems().get(0).getItems().size());
+        assertTrue(page.getItems().get(1).getItems().isEmpty());
+        assertEquals(new OrderCursor(older.createdAt(), older.id()), OrderCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void shouldSeekPastCursorAndEndOnShortPage() {
+        OrderCursor cursor = new OrderCursor(now, UUID.randomUUID());
+        OrderSummaryView next = summary(now.minusSeconds(1));
+        when(orderRepository.findHistoryAfter(userId, cursor.createdAt(), cursor.id(), Limit.of(3)))
+                .thenReturn(List.of(next));
+        when(orderRepository.findItemViewsByOrderIdIn(List.of(next.id()))).thenReturn(List.of());
+
+        OrderPageResponseDTO page = orderService.getOrderHistory(userId, cursor, 2);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void shouldNotQueryItemsForEmptyPage() {
+        when(orderRepository.findHistory(userId, Limit.of(21))).thenReturn(List.of());
+
+        OrderPageResponseDTO page = orderService.getOrderHistory(userId, null, 20);
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+        verify(orderRepository, never()).findItemViewsByOrderIdIn(any());
+    }
+
+    private OrderSummaryView summary(Instant createdAt) {
+        return new OrderSummaryView(UUID.randomUUID(), userId, BigDecimal.TEN, OrderStatus.PAID, createdAt);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.domain.Inventory;
+import com.example.ecommerce.domain.Product;
+import com.example.ecommerce.dto.request.CreateOrderRequestDTO;
+import com.example.ecommerce.dto.request.CreateOrderRequestDTO.Item;
+import com.example.ecommerce.proxy.ProductServiceContract;
+import com.example.ecommerce.validation.ItemsValidationHandler;
+import com.example.ecommerce.validation.ProductExistenceValidationHandler;
+import com.example.ecommerce.validation.StockAvailabilityValidationHandler;
+import com.example.ecommerce.validation.ValidationResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for OrderValidationService.
+ * Verifies the validation chain and that each request loads its data in bulk, once.
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderValidationServiceTest {
+
+    @Mock
+    private ProductServiceContract productService;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    private OrderValidationService validationService;
+    private Product first;
+    private Product second;
+
+    @BeforeEach
+    void setUp() {
+        validationService = new OrderValidationService(
+                new ItemsValidationHandler(),
+                new ProductExistenceValidationHandler(),
+                new StockAvailabilityValidationHandler(),
+                productService,
+                inventoryService
+        );
+
+        first = Product.builder().id(UUID.randomUUID()).name("First").price(new BigDecimal("10.00")).build();
+        second = Product.builder().id(UUID.randomUUID()).name("Second").price(new BigDecimal("20.00")).build();
+    }
+
+    @Test
+    void shouldLoadProductsAndInventoryOncePerRequest() {
+        when(productService.findAllById(anyCollection())).thenReturn(List.of(first, second));
+        when(inventoryService.findAllById(anyCollection())).thenReturn(List.of(
+                new Inventory(first.getId(), 5), new Inventory(second.getId(), 5)));
+
+        ValidationResult result = validationService.validateOrderRequest(
+                request(item(first.getId(), 1), item(second.getId(), 2), item(first.getId(), 1)));
+
+        assertTrue(result.isValid());
+        verify(productService, times(1)).findAllById(anyCollection());
+        verify(inventoryService, times(1)).findAllById(anyCollection());
+        verify(productService, never()).findById(any());
+    }
+
+    @Test
+    void shouldSumQuantitiesOfRepeatedProducts() {
+        when(productService.findAllById(anyCollection())).thenReturn(List.of(first));
+        when(inventoryService.findAllById(anyCollection())).thenReturn(List.of(new Inventory(first.getId(), 3)));
+
+        ValidationResult result = validationService.validateOrderRequest(
+                request(item(first.getId(), 2), item(first.getId(), 2)));
+
+        assertFalse(result.isValid());
+        assertEquals("Stock Availability Validation", result.getValidationStep());
+    }
+
+    @Test
+    void shouldRejectUnknownProductWithoutLoadingInventory() {
+        when(productService.findAllById(anyCollection())).thenReturn(List.of());
+
+        ValidationResult result = validationService.validateOrderRequest(request(item(first.getId(), 1)));
+
+        assertFalse(result.isValid());
+        assertEquals("Product Existence Validation", result.getValidationStep());
+        verify(inventoryService, never()).findAllById(anyCollection());
+    }
+
+    @Test
+    void shouldNotLoadAnythingForInvalidItems() {
+        ValidationResult result = validationService.validateOrderRequest(request(item(first.getId(), 0)));
+
+        assertFalse(result.isValid());
+        assertEquals("Items Validation", result.getValidationStep());
+        verify(productService, never()).findAllById(anyCollection());
+        verify(inventoryService, never()).findAllById(anyCollection());
+    }
+
+    private static Item item(UUID productId, int quantity) {
+        Item item = new Item();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private static CreateOrderRequestDTO request(Item... items) {
+        CreateOrderRequestDTO request = new CreateOrderRequestDTO();
+        request.setItems(List.of(items));
+        return request;
+    }
+}
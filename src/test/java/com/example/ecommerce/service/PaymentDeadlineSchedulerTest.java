@@ -0,0 +1,118 @@
+package com.example.ecommerce.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for PaymentDeadlineScheduler.
+ * Verifies deadline registration after commit and claiming of due deadlines.
+ */
+@ExtendWith(MockitoExtension.class)
+class PaymentDeadlineSchedulerTest {
+
+    private static final String KEY = PaymentDeadlineScheduler.DEADLINES_KEY;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    @Mock
+    private UnpaidOrderSweeper unpaidOrderSweeper;
+
+    private PaymentDeadlineScheduler scheduler;
+    private final UUID a = UUID.randomUUID();
+    private final UUID b = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        scheduler = new PaymentDeadlineScheduler(redisTemplate, unpaidOrderSweeper, 60,
+                Duration.ofSeconds(5), 100, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldRegisterDeadlineOnlyAfterCommit() {
+        Instant createdAt = Instant.parse("2025-01-01T10:00:00Z");
+        TransactionSynchronizationManager.initSynchronization();
+
+        Instant deadline = scheduler.register(a, createdAt);
+
+        assertEquals(createdAt.plus(Duration.ofMinutes(60)), deadline);
+        verify(zSetOperations, never()).add(anyString(), anyString(), anyDouble());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(zSetOperations).add(KEY, a.toString(), (double) deadline.toEpochMilli());
+    }
+
+    @Test
+    void shouldCancelOnlyDeadlinesThisNodeClaimed() {
+        when(zSetOperations.rangeByScore(eq(KEY), eq(0.0), anyDouble(), eq(0L), eq(100L)))
+                .thenReturn(new LinkedHashSet<>(List.of(a.toString(), b.toString())));
+        when(zSetOperations.remove(KEY, a.toString())).thenReturn(1L);
+        // Another replica removed b first
+        when(zSetOperations.remove(KEY, b.toString())).thenReturn(0L);
+        when(unpaidOrderSweeper.cancelIfPending(List.of(a))).thenReturn(1);
+
+        int due = scheduler.processDue();
+
+        assertEquals(2, due);
+        verify(unpaidOrderSweeper).cancelIfPending(List.of(a));
+    }
+
+    @Test
+    void shouldPutClaimsBackWhenCancellationFails() {
+        when(zSetOperations.rangeByScore(eq(KEY), eq(0.0), anyDouble(), eq(0L), eq(100L)))
+                .thenReturn(Set.of(a.toString()));
+        when(zSetOperations.remove(KEY, a.toString())).thenReturn(1L);
+        when(unpaidOrderSweeper.cancelIfPending(List.of(a))).thenThrow(new IllegalStateException("db down"));
+
+        scheduler.processDue();
+
+        verify(zSetOperations).add(eq(KEY), eq(a.toString()), anyDouble());
+    }
+
+    @Test
+    void shouldWakeNoLaterThanMaxSleep() {
+        when(zSetOperations.rangeWithScores(KEY, 0, 0)).thenReturn(Set.of());
+
+        long before = System.currentTimeMillis();
+        long wakeAt = scheduler.nextWakeMillis();
+
+        assertTrue(wakeAt >= before + 5000 && wakeAt <= System.currentTimeMillis() + 5000);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,232 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.domain.Order;
+import com.example.ecommerce.dto.response.PaymentResponseDTO;
+import com.example.ecommerce.enums.OrderStatus;
+import com.example.ecommerce.observer.OrderStatusPublisher;
+import com.example.ecommerce.payment.AbstractPaymentProcessor;
+import com.example.ecommerce.payment.PaymentBulkheads;
+import com.example.ecommerce.payment.PaymentGatewayGuard;
+import com.example.ecommerce.state.OrderStateManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load test for PaymentService against a stub gateway and a simulated connection pool.
+ * Fires 500 concurrent payments at a pool of 10 connections: holding a connection across
+ * the 200ms gateway call exhausts the pool, while the split transactions do not.
+ */
+class PaymentServiceLoadTest {
+
+    private static final int CONCURRENT_PAYMENTS = 500;
+    private static final int POOL_SIZE = 10;
+    private static final long CONNECTION_TIMEOUT_MILLIS = 1000;
+    private static final long GATEWAY_LATENCY_MILLIS = 200;
+
+    private ConnectionPool pool;
+    private PaymentBulkheads bulkheads;
+    private OrderService orderService;
+    private PaymentService paymentService;
+    private ExecutorService clients;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ConnectionPool(POOL_SIZE, CONNECTION_TIMEOUT_MILLIS);
+        bulkheads = new PaymentBulkheads(new SimpleMeterRegistry(), 100, CONCURRENT_PAYMENTS);
+        clients = Executors.newFixedThreadPool(CONCURRENT_PAYMENTS);
+
+        orderService = mock(OrderService.class);
+        when(orderService.findWithItemsById(any())).thenAnswer(invocation ->
+                pool.withConnection(() -> pendingOrder(invocation.getArgument(0))));
+        when(orderService.updateOrderStatusIfCurrent(any(), any(), any())).thenReturn(true);
+
+        paymentService = new PaymentService(Map.of("stub", new StubGatewayStrategy()), orderService,
+                mock(OrderStatusPublisher.class), new OrderStateManager(), mock(PaymentDeadlineScheduler.class),
+                bulkheads, pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+        bulkheads.shutdown();
+    }
+
+    @Test
+    void holdingConnectionAcrossGatewayCallExhaustsPool() throws Exception {
+        // What pay() used to do: one transaction around the whole payment, gateway call included
+        StubGatewayStrategy gateway = new StubGatewayStrategy();
+        Result result = run(() -> pool.withConnection(() -> gateway.processPayment(pendingOrder(UUID.randomUUID()))));
+
+        assertTrue(result.timeouts() > 0, "Expected connection timeouts, got " + result);
+    }
+
+    @Test
+    void shouldNotExhaustPoolWhenGatewayCallRunsOutsideTransaction() throws Exception {
+        Result result = run(() -> paymentService.pay(UUID.randomUUID(), "stub"));
+
+        assertEquals(0, result.timeouts(), () -> "Unexpected connection timeouts: " + result);
+        assertEquals(CONCURRENT_PAYMENTS, result.succeeded());
+    }
+
+    @Test
+    void shouldRunSyncAndAsyncPaymentsOnTheSameProviderBulkhead() {
+        PaymentBulkheads providerBulkheads = spy(new PaymentBulkheads(new SimpleMeterRegistry(), 1, 1));
+        PaymentGatewayGuard guard = new PaymentGatewayGuard(providerBulkheads, new SimpleMeterRegistry(),
+                new MockEnvironment());
+        StubGatewayStrategy gateway = new StubGatewayStrategy();
+        gateway.setGatewayGuard(guard);
+        PaymentService guardedService = new PaymentService(Map.of("stub", gateway), orderService,
+                mock(OrderStatusPublisher.class), new OrderStateManager(), mock(PaymentDeadlineScheduler.class),
+                providerBulkheads, pool);
+
+        try {
+            gateway.processPayment(pendingOrder(UUID.randomUUID()));
+            guardedService.pay(UUID.randomUUID(), "stub");
+
+            // Keyed by provider name, not by the strategy's bean name
+            verify(providerBulkheads, times(2)).forProvider("Stub");
+            verify(providerBulkheads, never()).forProvider("stub");
+        } finally {
+            guard.shutdown();
+            providerBulkheads.shutdown();
+        }
+    }
+
+    private Result run(Supplier<PaymentResponseDTO> payment) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PaymentResponseDTO>> futures = new ArrayList<>(CONCURRENT_PAYMENTS);
+        for (int i = 0; i < CONCURRENT_PAYMENTS; i++) {
+            futures.add(clients.submit(() -> {
+                start.await();
+                return payment.get();
+            }));
+        }
+        start.countDown();
+
+        int succeeded = 0;
+        for (Future<PaymentResponseDTO> future : futures) {
+            try {
+                future.get(30, TimeUnit.SECONDS);
+                succeeded++;
+            } catch (Exception e) {
+                // Counted through the pool's timeouts
+            }
+        }
+        return new Result(succeeded, pool.timeouts.get());
+    }
+
+    private static Order pendingOrder(UUID orderId) {
+        return Order.builder()
+                .id(orderId)
+                .userId(UUID.randomUUID())
+                .total(new BigDecimal("49.99"))
+                .status(OrderStatus.PENDING)
+                .items(new ArrayList<>())
+                .build();
+    }
+
+    private record Result(int succeeded, int timeouts) {
+    }
+
+    /**
+     * Gateway stub with a fixed latency that always approves.
+     */
+    private static class StubGatewayStrategy extends AbstractPaymentProcessor {
+
+        @Override
+        protected PaymentResponseDTO doProcessPayment(Order order) {
+            try {
+                Thread.sleep(GATEWAY_LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new PaymentResponseDTO(order.getId(), OrderStatus.PAID);
+        }
+
+        @Override
+        public String getProviderName() {
+            return "Stub";
+        }
+    }
+
+    /**
+     * A fixed number of connections; every transaction holds one until it ends,
+     * and waiting longer than the timeout fails the way an exhausted pool does.
+     */
+    private static class ConnectionPool implements PlatformTransactionManager {
+
+        private final Semaphore connections;
+        private final long timeoutMillis;
+        private final AtomicInteger timeouts = new AtomicInteger();
+
+        ConnectionPool(int size, long timeoutMillis) {
+            this.connections = new Semaphore(size);
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        <T> T withConnection(Supplier<T> work) {
+            TransactionStatus status = getTransaction(null);
+            try {
+                return work.get();
+            } finally {
+                commit(status);
+            }
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            try {
+                if (!connections.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    timeouts.incrementAndGet();
+                    throw new CannotCreateTransactionException("Connection is not available, request timed out");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CannotCreateTransactionException("Interrupted while waiting for a connection");
+            }
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            connections.release();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            connections.release();
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -72,6 +73,27 @@ class ProductServiceTest {
         verify(productRepository).findAll();
     }
 
+    @Test
+    void shouldFindFirstPageWithoutCursor() {
+        when(productRepository.findAllByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(testProduct));
+
+        List<Product> result = productService.findPage(null, 2);
+
+        assertEquals(List.of(testProduct), result);
+        verify(productRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+    }
+
+    @Test
+    void shouldSeekPastCursorForFollowingPages() {
+        UUID cursor = UUID.randomUUID();
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(2))).thenReturn(List.of(testProduct));
+
+        List<Product> result = productService.findPage(cursor, 2);
+
+        assertEquals(List.of(testProduct), result);
+        verify(productRepository, never()).findAllByOrderByIdAsc(any());
+    }
+
     @Test
     void shouldFindProductById() {
         when(productRepository.findById(testProductId)).thenReturn(Optional.of(testProduct));
@@ -0,0 +1,132 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.domain.Order;
+import com.example.ecommerce.enums.OrderStatus;
+import com.example.ecommerce.observer.OrderStatusPublisher;
+import com.example.ecommerce.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for UnpaidOrderSweeper.
+ * Verifies chunked claiming, conditional cancellation and failure handling.
+ */
+@ExtendWith(MockitoExtension.class)
+class UnpaidOrderSweeperTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderStatusPublisher statusPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UnpaidOrderSweeper sweeper;
+    private final Instant cutoff = Instant.now();
+    private final UUID a = UUID.randomUUID();
+    private final UUID b = UUID.randomUUID();
+    private final UUID c = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new UnpaidOrderSweeper(orderRepository, statusPublisher, transactionManager, 2, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sweeper.shutdown();
+    }
+
+    @Test
+    void shouldClaimAndCancelUntilNoFullChunkIsLeft() {
+        when(orderRepository.claimPendingCreatedBefore(cutoff, 2)).thenReturn(List.of(a, b), List.of(c));
+        when(orderRepository.cancelPendingByIdIn(List.of(a, b))).thenReturn(List.of(a, b));
+        when(orderRepository.cancelPendingByIdIn(List.of(c))).thenReturn(List.of(c));
+        when(orderRepository.findAllWithItemsByIdIn(List.of(a, b))).thenReturn(List.of(order(a), order(b)));
+        when(orderRepository.findAllWithItemsByIdIn(List.of(c))).thenReturn(List.of(order(c)));
+
+        assertEquals(3, sweeper.cancelUnpaidOrdersOlderThan(cutoff));
+
+        verify(orderRepository, times(2)).claimPendingCreatedBefore(cutoff, 2);
+        verify(statusPublisher).notifyStatusChanges(List.of(order(a), order(b)), OrderStatus.PENDING, OrderStatus.CANCELLED);
+        verify(statusPublisher).notifyStatusChanges(List.of(order(c)), OrderStatus.PENDING, OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void shouldSkipOrdersNoLongerPending() {
+        when(orderRepository.claimPendingCreatedBefore(cutoff, 2)).thenReturn(List.of(a));
+        when(orderRepository.cancelPendingByIdIn(List.of(a))).thenReturn(List.of());
+
+        assertEquals(0, sweeper.cancelUnpaidOrdersOlderThan(cutoff));
+
+        verify(orderRepository, never()).findAllWithItemsByIdIn(anyList());
+    }
+
+    @Test
+    void shouldStopAfterFailedChunk() {
+        when(orderRepository.claimPendingCreatedBefore(cutoff, 2)).thenReturn(List.of(a, b));
+        when(orderRepository.cancelPendingByIdIn(List.of(a, b))).thenThrow(new IllegalStateException("deadlock"));
+
+        assertEquals(0, sweeper.cancelUnpaidOrdersOlderThan(cutoff));
+
+        verify(orderRepository, times(1)).claimPendingCreatedBefore(cutoff, 2);
+    }
+
+    @Test
+    void shouldSplitWorkBetweenParallelWorkers() {
+        sweeper.shutdown();
+        sweeper = new UnpaidOrderSweeper(orderRepository, statusPublisher, transactionManager, 2, 3);
+
+        // Emulate SKIP LOCKED: every claim hands out orders nobody has claimed yet
+        List<UUID> backlog = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 25; i++) {
+            backlog.add(UUID.randomUUID());
+        }
+        Set<UUID> cancelled = ConcurrentHashMap.newKeySet();
+        when(orderRepository.claimPendingCreatedBefore(eq(cutoff), eq(2))).thenAnswer(invocation -> {
+            synchronized (backlog) {
+                List<UUID> claimed = new ArrayList<>(backlog.subList(0, Math.min(2, backlog.size())));
+                backlog.removeAll(claimed);
+                return claimed;
+            }
+        });
+        when(orderRepository.cancelPendingByIdIn(anyList())).thenAnswer(invocation -> {
+            List<UUID> ids = invocation.getArgument(0);
+            ids.forEach(id -> assertTrue(cancelled.add(id)));
+            return ids;
+        });
+        when(orderRepository.findAllWithItemsByIdIn(anyList())).thenAnswer(invocation ->
+                ((List<UUID>) invocation.getArgument(0)).stream().map(this::order).toList());
+
+        assertEquals(25, sweeper.cancelUnpaidOrdersOlderThan(cutoff));
+        assertEquals(25, cancelled.size());
+    }
+
+    private Order order(UUID id) {
+        return Order.builder().id(id).status(OrderStatus.CANCELLED).build();
+    }
+}
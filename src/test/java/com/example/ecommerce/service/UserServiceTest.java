@@ -0,0 +1,147 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.decorator.EcommerceNotificationService;
+import com.example.ecommerce.domain.User;
+import com.example.ecommerce.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for UserService.
+ * Verifies that user lookups by ID are cached, batched and isolated from each other.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private EcommerceNotificationService notificationService;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final User alice = user("alice@example.com");
+    private final User bob = user("bob@example.com");
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserService(userRepository, passwordEncoder, notificationService, TTL, 100, nanos::get);
+    }
+
+    @Test
+    void shouldLoadUserOnceWithinTtl() {
+        when(userRepository.findById(alice.getId())).thenReturn(Optional.of(alice));
+
+        userService.findById(alice.getId());
+        User cached = userService.findById(alice.getId());
+
+        assertEquals(alice.getEmail(), cached.getEmail());
+        verify(userRepository, times(1)).findById(alice.getId());
+
+        nanos.addAndGet(TTL.plusSeconds(1).toNanos());
+        userService.findById(alice.getId());
+        verify(userRepository, times(2)).findById(alice.getId());
+    }
+
+    @Test
+    void shouldLoadOnlyUncachedUsersInOneQuery() {
+        UUID unknown = UUID.randomUUID();
+        when(userRepository.findById(alice.getId())).thenReturn(Optional.of(alice));
+        when(userRepository.findAllById(Set.of(bob.getId(), unknown))).thenReturn(List.of(bob));
+        userService.findById(alice.getId());
+
+        List<User> found = userService.findAllById(List.of(alice.getId(), bob.getId(), unknown));
+
+        assertEquals(Set.of(alice.getEmail(), bob.getEmail()),
+                Set.copyOf(found.stream().map(User::getEmail).toList()));
+        // Both are cached now
+        userService.findById(alice.getId());
+        userService.findById(bob.getId());
+        verify(userRepository).findById(alice.getId());
+        verify(userRepository).findAllById(Set.of(bob.getId(), unknown));
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void shouldNotCacheUnknownUsers() {
+        UUID userId = UUID.randomUUID();
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> userService.findById(userId));
+        assertThrows(RuntimeException.class, () -> userService.findById(userId));
+
+        verify(userRepository, times(2)).findById(userId);
+    }
+
+    @Test
+    void shouldNotCachePasswordHash() {
+        when(userRepository.findById(alice.getId())).thenReturn(Optional.of(alice));
+
+        assertNull(userService.findById(alice.getId()).getPasswordHash());
+    }
+
+    @Test
+    void shouldHandOutOwnCopyOfCachedUser() {
+        when(userRepository.findById(alice.getId())).thenReturn(Optional.of(alice));
+
+        userService.findById(alice.getId()).setEmail("mallory@example.com");
+
+        assertEquals(alice.getEmail(), userService.findById(alice.getId()).getEmail());
+        assertEquals(alice.getEmail(), userService.findAllById(List.of(alice.getId())).get(0).getEmail());
+    }
+
+    @Test
+    void shouldReloadEvictedUser() {
+        when(userRepository.findById(alice.getId())).thenReturn(Optional.of(alice));
+        userService.findById(alice.getId());
+
+        userService.evict(alice.getId());
+        userService.findById(alice.getId());
+
+        verify(userRepository, times(2)).findById(alice.getId());
+    }
+
+    @Test
+    void shouldTreatNullIdAsUnknown() {
+        assertThrows(RuntimeException.class, () -> userService.findById(null));
+        assertEquals(List.of(), userService.findAllById(Arrays.asList(null, null)));
+
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    private static User user(String email) {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .email(email)
+                .passwordHash("hash")
+                .createdAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.ecommerce.soap;
+
+import com.example.ecommerce.dto.response.OrderResponseDTO;
+import com.example.ecommerce.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for SoapOrderConverter.
+ */
+class SoapOrderConverterTest {
+
+    @Test
+    void shouldConvertOrderWithItems() {
+        Instant createdAt = Instant.parse("2024-05-01T10:15:30Z");
+        UUID productId = UUID.randomUUID();
+        OrderResponseDTO dto = OrderResponseDTO.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .total(new BigDecimal("59.97"))
+                .status(OrderStatus.PENDING)
+                .createdAt(createdAt)
+                .items(List.of(OrderResponseDTO.OrderItemResponse.builder()
+                        .productId(productId)
+                        .quantity(3)
+                        .price(new BigDecimal("19.99"))
+                        .build()))
+                .build();
+
+        Order soapOrder = SoapOrderConverter.toSoapOrder(dto);
+
+        assertEquals(dto.getId().toString(), soapOrder.getId());
+        assertEquals(dto.getUserId().toString(), soapOrder.getUserId());
+        assertEquals(new BigDecimal("59.97"), soapOrder.getTotalAmount());
+        assertEquals("PENDING", soapOrder.getStatus());
+        assertEquals(createdAt, soapOrder.getCreatedAt().toGregorianCalendar().toInstant());
+        assertEquals(1, soapOrder.getItems().getItem().size());
+        assertEquals(productId.toString(), soapOrder.getItems().getItem().get(0).getProductId());
+        assertEquals(3, soapOrder.getItems().getItem().get(0).getQuantity());
+    }
+
+    @Test
+    void shouldLeaveItemsUnsetWhenOrderHasNone() {
+        OrderResponseDTO dto = OrderResponseDTO.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .total(BigDecimal.ZERO)
+                .status(OrderStatus.CANCELLED)
+                .createdAt(Instant.now())
+                .items(List.of())
+                .build();
+
+        assertNull(SoapOrderConverter.toSoapOrder(dto).getItems());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.ecommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for OrderCursor.
+ */
+class OrderCursorTest {
+
+    @Test
+    void shouldRoundTripThroughOpaqueString() {
+        OrderCursor cursor = new OrderCursor(Instant.parse("2025-01-01T12:00:00.123456Z"), UUID.randomUUID());
+
+        assertEquals(cursor, OrderCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> OrderCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> OrderCursor.decode("bm9zZXBhcmF0b3I"));
+    }
+}